@@ -0,0 +1,239 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import java.util.Locale;
+
+/**
+ * BarPeriod: The length of each bar in a trend. Daily prices are combined into longer bars locally so weekly and monthly
+ * trends don't need any more downloads. Periods are written as an optional count and a unit:
+ * 
+ * <pre>
+ *   d, 10d    Every trading day, or every 10 trading days
+ *   w, 2w     Calendar weeks starting on Monday, or every two weeks
+ *   m, 3m     Calendar months, or every three months starting in January, April, July, and October
+ * </pre>
+ *
+ */
+public final class BarPeriod {
+	// Class Constants
+	public static final BarPeriod DAILY = new BarPeriod(Unit.DAY, 1);
+	protected static final int MAX_COUNT = 999;
+
+	// Class Variables
+	private final Unit unit;
+	private final int count;
+
+	private BarPeriod(Unit unit, int count) {
+		this.unit = unit;
+		this.count = count;
+	}
+
+	/**
+	 * parse(): Convert text such as 'w' or '3m' into a period. An IllegalArgumentException is thrown if it isn't valid
+	 * 
+	 * @param text
+	 * @return
+	 */
+	public static BarPeriod parse(String text) {
+		String value = (text == null) ? "" : text.trim().toLowerCase(Locale.ROOT);
+		if (value.isEmpty()) {
+			throw new IllegalArgumentException("No period provided");
+		}
+
+		Unit unit;
+		switch (value.charAt(value.length() - 1)) {
+		case 'd':
+			unit = Unit.DAY;
+			break;
+		case 'w':
+			unit = Unit.WEEK;
+			break;
+		case 'm':
+			unit = Unit.MONTH;
+			break;
+		default:
+			throw new IllegalArgumentException("Unknown period '" + text + "'");
+		}
+
+		int count = 1;
+		if (value.length() > 1) {
+			try {
+				count = Integer.parseInt(value.substring(0, value.length() - 1));
+			} catch (NumberFormatException ex) {
+				throw new IllegalArgumentException("Unknown period '" + text + "'");
+			}
+		}
+		if (count < 1 || count > MAX_COUNT) {
+			throw new IllegalArgumentException("Period count must be between 1 and " + MAX_COUNT);
+		}
+
+		return new BarPeriod(unit, count);
+	}
+
+	/**
+	 * isDaily(): Return true if each bar is a single trading day
+	 * 
+	 * @return
+	 */
+	public boolean isDaily() {
+		return this.unit == Unit.DAY && this.count == 1;
+	}
+
+	/**
+	 * getDescription(): Return the period for display such as 'Daily', 'Monthly', or '2 Week'
+	 * 
+	 * @return
+	 */
+	public String getDescription() {
+		if (this.count == 1) {
+			return this.unit.single;
+		}
+		return this.count + " " + this.unit.name;
+	}
+
+	/**
+	 * getPeriodsPerYear(): Return roughly how many bars of this period there are in a year of trading
+	 * 
+	 * @return
+	 */
+	public double getPeriodsPerYear() {
+		return (double) this.unit.perYear / this.count;
+	}
+
+	/**
+	 * resample(): Combine the daily prices into bars of this period in a single pass. Each bar has the open of its first
+	 * day, the highest high, the lowest low, the close of its last day, and the total volume. The bar's day is its first
+	 * trading day. The series must be sorted
+	 * 
+	 * @param daily
+	 * @return
+	 */
+	public PriceSeries resample(PriceSeries daily) {
+		if (isDaily() == true) {
+			return daily;
+		}
+
+		PriceSeries bars = new PriceSeries(daily.size() / Math.max(1, this.count * this.unit.tradingDays) + 1);
+
+		// Trading day buckets are counted back from the last day so the latest bar is complete
+		int offset = (this.count - daily.size() % this.count) % this.count;
+
+		long bucket = 0;
+		int day = 0;
+		long open = 0;
+		long high = 0;
+		long low = 0;
+		long close = 0;
+		long volume = 0;
+
+		for (int i = 0; i < daily.size(); i++) {
+			long current = bucketOf(i + offset, daily.getDay(i));
+
+			if (i == 0 || current != bucket) {
+				if (i > 0) {
+					bars.add(day, open, high, low, close, volume);
+				}
+				bucket = current;
+				day = daily.getDay(i);
+				open = daily.getOpen(i);
+				high = daily.getHigh(i);
+				low = daily.getLow(i);
+				volume = 0;
+			} else {
+				high = Math.max(high, daily.getHigh(i));
+				low = Math.min(low, daily.getLow(i));
+			}
+			close = daily.getClose(i);
+			volume += daily.getVolume(i);
+		}
+
+		if (daily.isEmpty() == false) {
+			bars.add(day, open, high, low, close, volume);
+		}
+		return bars;
+	}
+
+	/**
+	 * bucketOf(): Return the number of the bar the provided day belongs in
+	 * 
+	 * @param position
+	 * @param day
+	 * @return
+	 */
+	private long bucketOf(int position, int day) {
+		switch (this.unit) {
+		case WEEK:
+			// 1970-01-01 was a Thursday so weeks are counted from Monday 1969-12-29
+			return Math.floorDiv(Math.floorDiv(day + 3, 7), this.count);
+		case MONTH:
+			return Math.floorDiv(monthIndex(day), this.count);
+		default:
+			return position / this.count;
+		}
+	}
+
+	/**
+	 * monthIndex(): Return the number of months from year zero to the month containing the provided day
+	 * 
+	 * @param day
+	 * @return
+	 */
+	static long monthIndex(int day) {
+		// Count from March so the leap day is at the end of the year
+		long z = day + 719468L;
+		long era = Math.floorDiv(z, 146097);
+		long dayOfEra = z - era * 146097;
+		long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+		long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+		long monthFromMarch = (5 * dayOfYear + 2) / 153;
+
+		long month = (monthFromMarch < 10) ? monthFromMarch + 3 : monthFromMarch - 9;
+		long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+		return year * 12 + month - 1;
+	}
+
+	/**
+	 * Unit: The units a period can be measured in, roughly how many trading days each contains, and how many are in a year
+	 */
+	private enum Unit {
+		DAY("Daily", "Day", 1, 252), WEEK("Weekly", "Week", 5, 52), MONTH("Monthly", "Month", 21, 12);
+
+		final String single;
+		final String name;
+		final int tradingDays;
+		final int perYear;
+
+		Unit(String single, String name, int tradingDays, int perYear) {
+			this.single = single;
+			this.name = name;
+			this.tradingDays = tradingDays;
+			this.perYear = perYear;
+		}
+	}
+
+}
@@ -36,6 +36,9 @@ import com.beust.jcommander.Parameter;
 import com.beust.jcommander.ParameterException;
 
 public class CommandLineParser {
+	// Class Constants
+	protected static final int MAX_TREND_DURATION = 3650;
+
 	// ---------------------------------------------------------------------------------------------
 	// Define command line options that can be used
 	// ---------------------------------------------------------------------------------------------
@@ -57,6 +60,12 @@ public class CommandLineParser {
 			"--trend-duration" }, description = "Set the number of historical days to include in the trend", validateWith = TrendDurationValidator.class)
 	protected int clTrendDuration = 0;
 
+	@Parameter(names = { "-c", "--concurrency" }, description = "Set the maximum number of quotes to download at the same time", validateWith = ConcurrencyValidator.class)
+	protected int clConcurrency = QuoteFetcher.DEFAULT_MAX_CONCURRENT;
+
+	@Parameter(names = { "-k", "--cache-ttl" }, description = "Reuse quotes saved to disk by a previous run if they are newer than this many seconds", validateWith = CacheTTLValidator.class)
+	protected int clCacheTTL = 0;
+
 	// Saved Favorites
 	@Parameter(names = { "-s", "--save" }, description = " Save securities provided as favorites and show them automatically")
 	protected boolean clSave = false;
@@ -74,6 +83,18 @@ public class CommandLineParser {
 	@Parameter(names = { "-t", "--trend" }, description = "Display daily graph of historical data")
 	protected boolean clTrend = false;
 
+	@Parameter(names = { "-g", "--compact-trend" }, description = "Display the trend as a compact chart that fits the display width")
+	protected boolean clCompactTrend = false;
+
+	@Parameter(names = { "-p", "--period" }, description = "Combine the trend into bars such as d, w, m, 2w, or 3m", validateWith = PeriodValidator.class)
+	protected String clTrendPeriod = "d";
+
+	@Parameter(names = { "-o", "--indicators" }, description = "Display indicators such as sma,ema,bb,rsi,atr,vol or all", validateWith = IndicatorValidator.class)
+	protected String clIndicators = "";
+
+	@Parameter(names = { "-m", "--correlation" }, description = "Display the correlation of returns between the securities and their beta against the S&P 500")
+	protected boolean clCorrelation = false;
+
 	@Parameter(names = { "-x", "--export" }, description = "Export data to the provided filename")
 	protected String clExport = "";
 
@@ -110,7 +131,45 @@ public class CommandLineParser {
 		}
 	}
 
-	// Validate the trending duration value provided is between 1 and 365
+	// Validate the cache time to live is zero or more seconds
+	final static public class CacheTTLValidator implements IParameterValidator {
+		public CacheTTLValidator() {
+		}
+
+		@Override
+		public void validate(String name, String value) {
+			int intVal;
+			try {
+				intVal = Integer.parseInt(value);
+				if (intVal < 0) {
+					throw new ParameterException("");
+				}
+			} catch (Exception e) {
+				Output.fatalError("Cache TTL can not be '" + value + "'.  Value must be a whole number of seconds", 1);
+			}
+		}
+	}
+
+	// Validate the number of concurrent downloads is between 1 and 64
+	final static public class ConcurrencyValidator implements IParameterValidator {
+		public ConcurrencyValidator() {
+		}
+
+		@Override
+		public void validate(String name, String value) {
+			int intVal;
+			try {
+				intVal = Integer.parseInt(value);
+				if (intVal < 1 || intVal > 64) {
+					throw new ParameterException("");
+				}
+			} catch (Exception e) {
+				Output.fatalError("Concurrency can not be '" + value + "'.  Value must be a number between 1 and 64", 1);
+			}
+		}
+	}
+
+	// Validate the trending duration value provided is between 1 and MAX_TREND_DURATION (3650)
 	final static public class TrendDurationValidator implements IParameterValidator {
 		public TrendDurationValidator() {
 		}
@@ -120,11 +179,41 @@ public class CommandLineParser {
 			int intVal;
 			try {
 				intVal = Integer.parseInt(value);
-				if (intVal < 1 || intVal > 365) {
+				if (intVal < 1 || intVal > MAX_TREND_DURATION) {
 					throw new ParameterException("");
 				}
 			} catch (Exception e) {
-				Output.fatalError("Trend duration can not be '" + value + "'.  Value must be a number between 1 and 365", 1);
+				Output.fatalError("Trend duration can not be '" + value + "'.  Value must be a number between 1 and " + MAX_TREND_DURATION, 1);
+			}
+		}
+	}
+
+	// Validate the trend period is a unit of d, w, or m with an optional count
+	final static public class PeriodValidator implements IParameterValidator {
+		public PeriodValidator() {
+		}
+
+		@Override
+		public void validate(String name, String value) {
+			try {
+				BarPeriod.parse(value);
+			} catch (Exception e) {
+				Output.fatalError("Trend period can not be '" + value + "'.  Value must be d, w, or m with an optional count such as 2w", 1);
+			}
+		}
+	}
+
+	// Validate the indicators are a comma separated list of known names
+	final static public class IndicatorValidator implements IParameterValidator {
+		public IndicatorValidator() {
+		}
+
+		@Override
+		public void validate(String name, String value) {
+			try {
+				Indicators.Column.parseList(value);
+			} catch (Exception e) {
+				Output.fatalError("Indicators can not be '" + value + "'.  Value must be a list of sma, ema, bb, rsi, atr, vol, or all", 1);
 			}
 		}
 	}
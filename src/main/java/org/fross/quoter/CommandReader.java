@@ -0,0 +1,196 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.fross.library.Output;
+
+/**
+ * CommandReader: Reads commands typed during auto-refresh. A single background thread reads the console for the whole
+ * session and queues each command so the refresh loop can wait for either a command or its next tick.
+ * 
+ * Commands are entered as a line followed by ENTER:
+ * 
+ * <pre>
+ *   (empty), q, quit    Exit Quoter
+ *   r, refresh          Refresh now
+ *   p, pause            Pause or resume the count down
+ *   n, next             Show the next page of securities
+ *   b, back             Show the previous page of securities
+ *   j, down             Scroll the securities down a row
+ *   k, up               Scroll the securities up a row
+ *   +SYMB [SYMB...]     Add securities to the display
+ *   -SYMB [SYMB...]     Remove securities from the display
+ * </pre>
+ *
+ */
+public class CommandReader {
+	// Class Variables
+	private final BufferedReader reader;
+	private final BlockingQueue<Command> commands = new LinkedBlockingQueue<>();
+	private Thread thread = null;
+
+	/**
+	 * CommandReader Constructor(): Create a reader for the provided input
+	 * 
+	 * @param input
+	 */
+	public CommandReader(InputStream input) {
+		this.reader = new BufferedReader(new InputStreamReader(input));
+	}
+
+	/**
+	 * start(): Start the background thread reading commands. Calling it again has no effect
+	 */
+	public synchronized void start() {
+		if (this.thread != null) {
+			return;
+		}
+
+		this.thread = new Thread(this::readCommands, "CommandReader");
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	/**
+	 * poll(): Wait up to the provided time for a command. Returns null if none was entered
+	 * 
+	 * @param timeout
+	 * @param unit
+	 * @return
+	 */
+	public Command poll(long timeout, TimeUnit unit) {
+		try {
+			return this.commands.poll(timeout, unit);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+	}
+
+	/**
+	 * readCommands(): Queue each line read until the input is closed
+	 */
+	private void readCommands() {
+		try {
+			String line;
+			while ((line = this.reader.readLine()) != null) {
+				Command command = parse(line);
+				Output.debugPrintln("Command entered: " + command.type + " " + command.symbols);
+				this.commands.add(command);
+			}
+		} catch (IOException ex) {
+			Output.debugPrintln("Stopped reading commands: " + ex.getMessage());
+		}
+	}
+
+	/**
+	 * parse(): Convert a line of input into a command
+	 * 
+	 * @param line
+	 * @return
+	 */
+	static Command parse(String line) {
+		String input = line.trim();
+
+		switch (input.toLowerCase()) {
+		case "":
+		case "q":
+		case "quit":
+		case "exit":
+			return new Command(CommandType.QUIT, Collections.emptyList());
+		case "r":
+		case "refresh":
+			return new Command(CommandType.REFRESH, Collections.emptyList());
+		case "p":
+		case "pause":
+			return new Command(CommandType.PAUSE, Collections.emptyList());
+		case "n":
+		case "next":
+			return new Command(CommandType.PAGE_DOWN, Collections.emptyList());
+		case "b":
+		case "back":
+			return new Command(CommandType.PAGE_UP, Collections.emptyList());
+		case "j":
+		case "down":
+			return new Command(CommandType.SCROLL_DOWN, Collections.emptyList());
+		case "k":
+		case "up":
+			return new Command(CommandType.SCROLL_UP, Collections.emptyList());
+		default:
+			break;
+		}
+
+		// Adding or removing securities. Allow a space between the +/- and the symbols
+		char first = input.charAt(0);
+		if (first == '+' || first == '-') {
+			List<String> symbols = new ArrayList<>();
+			for (String i : input.substring(1).trim().split("\\s+")) {
+				if (i.isEmpty() == false) {
+					symbols.add(i.toUpperCase());
+				}
+			}
+
+			if (symbols.isEmpty() == false) {
+				return new Command(first == '+' ? CommandType.ADD : CommandType.REMOVE, Collections.unmodifiableList(symbols));
+			}
+		}
+
+		return new Command(CommandType.UNKNOWN, Collections.emptyList());
+	}
+
+	/**
+	 * CommandType: The actions that can be requested during auto-refresh
+	 */
+	public enum CommandType {
+		QUIT, REFRESH, PAUSE, PAGE_DOWN, PAGE_UP, SCROLL_DOWN, SCROLL_UP, ADD, REMOVE, UNKNOWN
+	}
+
+	/**
+	 * Command: A command entered by the user and the securities it applies to
+	 */
+	public static class Command {
+		final CommandType type;
+		final List<String> symbols;
+
+		Command(CommandType type, List<String> symbols) {
+			this.type = type;
+			this.symbols = symbols;
+		}
+	}
+
+}
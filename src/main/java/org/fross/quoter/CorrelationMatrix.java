@@ -0,0 +1,487 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+import org.fross.library.Output;
+import org.fusesource.jansi.Ansi;
+
+/**
+ * CorrelationMatrix: The correlation of returns between every pair of securities and the beta of each against a
+ * benchmark such as the S&P 500.
+ * 
+ * The series are aligned on the days they have in common, leaving out any that would shorten them too much. Each
+ * security's log returns are centered and scaled to a length of one and stored as a row of a single array, so every
+ * correlation is the dot product of two rows. The pairs are calculated in tiles of rows small enough to stay in the
+ * processor cache. Each pair of tiles in the upper triangle is a task of the same size, and the tasks are spread across
+ * every core with fork-join. The benchmark is included as one more row so its products give the betas.
+ *
+ */
+public final class CorrelationMatrix {
+	// Class Constants
+	protected static final int TILE_ROWS = 32;
+	protected static final int TILE_DAYS = 256;
+
+	// A series is left out if the days in common with the others would fall below this share of the longest history
+	protected static final double MIN_COVERAGE = 0.9;
+
+	// Class Variables
+	private final String[] symbols;
+	private final String[] dropped;
+	private final int[] days;
+	private final double[] correlations;
+	private final double[] betas;
+
+	private CorrelationMatrix(String[] symbols, String[] dropped, int[] days, double[] correlations, double[] betas) {
+		this.symbols = symbols;
+		this.dropped = dropped;
+		this.days = days;
+		this.correlations = correlations;
+		this.betas = betas;
+	}
+
+	/**
+	 * calculate(): Calculate the correlation of every pair of securities and the beta of each against the benchmark. The
+	 * benchmark can be null in which case every beta is NaN. Securities left out by alignDays() are listed by getDropped()
+	 * 
+	 * @param symbols
+	 * @param series
+	 * @param benchmark
+	 * @return
+	 */
+	public static CorrelationMatrix calculate(List<String> symbols, List<PriceSeries> series, PriceSeries benchmark) {
+		// Choose the days to align on, leaving out any series that would shorten them for the others
+		PriceSeries[] candidates = series.toArray(new PriceSeries[series.size() + 1]);
+		candidates[series.size()] = benchmark;
+		boolean[] keep = new boolean[candidates.length];
+		int[] days = alignDays(candidates, keep);
+
+		List<String> kept = new ArrayList<>();
+		List<String> dropped = new ArrayList<>();
+		List<PriceSeries> used = new ArrayList<>();
+		for (int i = 0; i < series.size(); i++) {
+			if (keep[i] == true) {
+				kept.add(symbols.get(i));
+				used.add(candidates[i]);
+			} else {
+				dropped.add(symbols.get(i));
+			}
+		}
+
+		boolean hasBenchmark = keep[series.size()];
+		if (benchmark != null && hasBenchmark == false) {
+			Output.debugPrintln("The benchmark history does not cover the correlation period so there are no betas");
+		}
+		if (hasBenchmark == true) {
+			used.add(benchmark);
+		}
+
+		int count = kept.size();
+		int rows = used.size();
+		PriceSeries[] all = used.toArray(new PriceSeries[0]);
+
+		// Store the returns of each series as rows
+		int returns = Math.max(0, days.length - 1);
+		double[] z = new double[rows * returns];
+		double[] norms = new double[rows];
+		parallelFor(rows, r -> norms[r] = standardize(all[r], days, z, r * returns, returns));
+
+		// Multiply the rows together one pair of tiles at a time. Each task only writes the products of its own pair
+		double[] products = new double[rows * rows];
+		int tiles = (rows + TILE_ROWS - 1) / TILE_ROWS;
+		int[] rowTiles = new int[tiles * (tiles + 1) / 2];
+		int[] columnTiles = new int[rowTiles.length];
+		int pair = 0;
+		for (int rowTile = 0; rowTile < tiles; rowTile++) {
+			for (int columnTile = rowTile; columnTile < tiles; columnTile++) {
+				rowTiles[pair] = rowTile;
+				columnTiles[pair] = columnTile;
+				pair++;
+			}
+		}
+		parallelFor(rowTiles.length, p -> multiplyTiles(z, returns, rows, rowTiles[p], columnTiles[p], products));
+		Output.debugPrintln("Correlated " + count + " securities over " + returns + " returns in " + rowTiles.length + " tile pairs. Left out: " + dropped);
+
+		// Fill in both halves of the matrix. A security that never moved has no correlation
+		double[] correlations = new double[count * count];
+		double[] betas = new double[count];
+		for (int i = 0; i < count; i++) {
+			for (int j = i; j < count; j++) {
+				double value = Double.NaN;
+				if (norms[i] > 0 && norms[j] > 0) {
+					value = Math.max(-1.0, Math.min(1.0, products[i * rows + j]));
+				}
+				correlations[i * count + j] = value;
+				correlations[j * count + i] = value;
+			}
+
+			// Beta is the covariance with the benchmark divided by the benchmark's variance
+			betas[i] = Double.NaN;
+			if (hasBenchmark == true && norms[count] > 0) {
+				betas[i] = products[i * rows + count] * norms[i] / norms[count];
+			}
+		}
+
+		return new CorrelationMatrix(kept.toArray(new String[0]), dropped.toArray(new String[0]), days, correlations, betas);
+	}
+
+	/**
+	 * alignDays(): Return the days the series are aligned on, oldest first, and mark the series that are used in keep.
+	 * Starting with the series with the most days, each one is used if the days in common stay at least MIN_COVERAGE of
+	 * that longest series. A security listed part way through the trend, or one with gaps in its history, is left out
+	 * rather than shortening the period for all the others. Null series are never used
+	 * 
+	 * @param all
+	 * @param keep
+	 * @return
+	 */
+	static int[] alignDays(PriceSeries[] all, boolean[] keep) {
+		List<Integer> order = new ArrayList<>();
+		for (int s = 0; s < all.length; s++) {
+			if (all[s] != null) {
+				order.add(s);
+			}
+		}
+		order.sort(Comparator.comparingInt((Integer s) -> all[s].size()).reversed());
+
+		int[] common = null;
+		int minimum = 0;
+		for (int s : order) {
+			if (common == null) {
+				common = new int[all[s].size()];
+				for (int i = 0; i < common.length; i++) {
+					common[i] = all[s].getDay(i);
+				}
+				minimum = (int) Math.ceil(common.length * MIN_COVERAGE);
+				keep[s] = true;
+				continue;
+			}
+
+			int[] next = intersect(common, all[s]);
+			if (next.length >= minimum) {
+				common = next;
+				keep[s] = true;
+			}
+		}
+		return (common == null) ? new int[0] : common;
+	}
+
+	/**
+	 * intersect(): Return the days that are in both the provided days and the series, oldest first
+	 * 
+	 * @param days
+	 * @param series
+	 * @return
+	 */
+	static int[] intersect(int[] days, PriceSeries series) {
+		int[] common = new int[days.length];
+		int found = 0;
+		int i = 0;
+		int j = 0;
+		while (i < days.length && j < series.size()) {
+			int day = series.getDay(j);
+			if (days[i] == day) {
+				common[found++] = day;
+				i++;
+				j++;
+			} else if (days[i] < day) {
+				i++;
+			} else {
+				j++;
+			}
+		}
+		return Arrays.copyOf(common, found);
+	}
+
+	/**
+	 * standardize(): Write the log returns of a series on the provided days to the array starting at offset, centered on
+	 * their mean and scaled to a length of one. Returns the length before scaling, which is zero if the price never moved
+	 * 
+	 * @param series
+	 * @param days
+	 * @param z
+	 * @param offset
+	 * @param returns
+	 * @return
+	 */
+	private static double standardize(PriceSeries series, int[] days, double[] z, int offset, int returns) {
+		if (returns == 0) {
+			return 0;
+		}
+
+		// Walk the series to each common day. The common days are all in the series so it only moves forward
+		int position = series.indexOf(days[0]);
+		long previous = series.getClose(position);
+		double sum = 0;
+		for (int t = 0; t < returns; t++) {
+			while (series.getDay(position) != days[t + 1]) {
+				position++;
+			}
+			long close = series.getClose(position);
+			double r = (close > 0 && previous > 0) ? Math.log((double) close / previous) : 0;
+			z[offset + t] = r;
+			sum += r;
+			previous = close;
+		}
+
+		double mean = sum / returns;
+		double squares = 0;
+		for (int t = offset; t < offset + returns; t++) {
+			z[t] -= mean;
+			squares += z[t] * z[t];
+		}
+
+		double norm = Math.sqrt(squares);
+		if (norm > 0) {
+			for (int t = offset; t < offset + returns; t++) {
+				z[t] /= norm;
+			}
+		}
+		return norm;
+	}
+
+	/**
+	 * multiplyTiles(): Calculate the dot products of the rows in one tile with the rows in the same or a later tile. Only
+	 * the products on or above the diagonal are calculated. The days are taken a block at a time so the rows being
+	 * multiplied stay in the cache
+	 * 
+	 * @param z
+	 * @param returns
+	 * @param rows
+	 * @param rowTile
+	 * @param columnTile
+	 * @param products
+	 */
+	private static void multiplyTiles(double[] z, int returns, int rows, int rowTile, int columnTile, double[] products) {
+		int firstRow = rowTile * TILE_ROWS;
+		int lastRow = Math.min(rows, firstRow + TILE_ROWS);
+		int firstColumn = columnTile * TILE_ROWS;
+		int lastColumn = Math.min(rows, firstColumn + TILE_ROWS);
+
+		for (int from = 0; from < returns; from += TILE_DAYS) {
+			int to = Math.min(returns, from + TILE_DAYS);
+
+			for (int i = firstRow; i < lastRow; i++) {
+				int rowI = i * returns;
+				for (int j = Math.max(i, firstColumn); j < lastColumn; j++) {
+					int rowJ = j * returns;
+					double dot = 0;
+					for (int t = from; t < to; t++) {
+						dot += z[rowI + t] * z[rowJ + t];
+					}
+					products[i * rows + j] += dot;
+				}
+			}
+		}
+	}
+
+	/**
+	 * parallelFor(): Run the provided body for every number from zero to count on the fork-join pool
+	 * 
+	 * @param count
+	 * @param body
+	 */
+	private static void parallelFor(int count, IntConsumer body) {
+		if (count > 0) {
+			ForkJoinPool.commonPool().invoke(new ParallelRange(0, count, body));
+		}
+	}
+
+	/**
+	 * size(): Return the number of securities in the matrix
+	 * 
+	 * @return
+	 */
+	public int size() {
+		return this.symbols.length;
+	}
+
+	/**
+	 * getSymbol(): Return the security in the provided row
+	 * 
+	 * @param i
+	 * @return
+	 */
+	public String getSymbol(int i) {
+		return this.symbols[i];
+	}
+
+	/**
+	 * getDropped(): Return the securities left out because their history doesn't cover enough of the period
+	 * 
+	 * @return
+	 */
+	public List<String> getDropped() {
+		return Arrays.asList(this.dropped);
+	}
+
+	/**
+	 * get(): Return the correlation between two securities or NaN if one of them never moved
+	 * 
+	 * @param i
+	 * @param j
+	 * @return
+	 */
+	public double get(int i, int j) {
+		return this.correlations[i * this.symbols.length + j];
+	}
+
+	/**
+	 * getBeta(): Return the beta of a security against the benchmark or NaN if there is no benchmark
+	 * 
+	 * @param i
+	 * @return
+	 */
+	public double getBeta(int i) {
+		return this.betas[i];
+	}
+
+	/**
+	 * getObservations(): Return the number of returns the correlations were calculated from
+	 * 
+	 * @return
+	 */
+	public int getObservations() {
+		return Math.max(0, this.days.length - 1);
+	}
+
+	/**
+	 * display(): Add the matrix to a frame. If it's too wide for the display, each security's strongest and weakest
+	 * correlations are shown instead
+	 * 
+	 * @param benchmarkName
+	 * @param frame
+	 */
+	public void display(String benchmarkName, Frame frame) {
+		int count = this.symbols.length;
+		String title = "Correlation of Returns";
+		frame.println(Ansi.Color.WHITE, "\n+--" + title + "-".repeat(Math.max(2, Main.cli.clWidth - title.length() - 5)) + "+");
+
+		if (getObservations() < 2) {
+			frame.println(Ansi.Color.RED, "The securities do not have enough history in common to correlate");
+			return;
+		}
+		frame.println(Ansi.Color.YELLOW, getObservations() + " returns from " + LocalDate.ofEpochDay(this.days[0]) + " to "
+				+ LocalDate.ofEpochDay(this.days[this.days.length - 1]) + ".  Beta is against the " + benchmarkName);
+		if (this.dropped.length > 0) {
+			frame.println(Ansi.Color.YELLOW, "Left out as their history does not cover the period: " + String.join(", ", this.dropped));
+		}
+		frame.println();
+
+		boolean full = (8 + 7 * (count + 1)) <= Main.cli.clWidth;
+		StringBuilder header = new StringBuilder(String.format("%-8s%7s", "Symbol", "Beta"));
+		if (full == true) {
+			for (String symb : this.symbols) {
+				header.append(String.format("%7s", symb.length() > 6 ? symb.substring(0, 6) : symb));
+			}
+		} else {
+			header.append(String.format("%9s  %-8s%9s  %-8s", "Highest", "", "Lowest", ""));
+		}
+		frame.println(Ansi.Color.CYAN, header.toString());
+
+		for (int i = 0; i < count; i++) {
+			frame.print(Ansi.Color.YELLOW, String.format("%-8s", this.symbols[i]));
+			frame.print(Ansi.Color.WHITE, formatValue(this.betas[i], 7));
+
+			if (full == true) {
+				for (int j = 0; j < count; j++) {
+					double value = get(i, j);
+					frame.print(value < 0 ? Ansi.Color.RED : Ansi.Color.WHITE, formatValue(value, 7));
+				}
+			} else {
+				// Find the other securities this one moves most and least like
+				int highest = -1;
+				int lowest = -1;
+				for (int j = 0; j < count; j++) {
+					if (j == i || Double.isNaN(get(i, j))) {
+						continue;
+					}
+					if (highest == -1 || get(i, j) > get(i, highest)) {
+						highest = j;
+					}
+					if (lowest == -1 || get(i, j) < get(i, lowest)) {
+						lowest = j;
+					}
+				}
+				frame.print(Ansi.Color.WHITE, formatValue(highest == -1 ? Double.NaN : get(i, highest), 9) + "  "
+						+ String.format("%-8s", highest == -1 ? "" : this.symbols[highest]));
+				frame.print(Ansi.Color.WHITE, formatValue(lowest == -1 ? Double.NaN : get(i, lowest), 9) + "  "
+						+ String.format("%-8s", lowest == -1 ? "" : this.symbols[lowest]));
+			}
+			frame.println();
+		}
+	}
+
+	/**
+	 * formatValue(): Return a correlation or beta with two decimals right aligned in the provided width. NaN is '-'
+	 * 
+	 * @param value
+	 * @param width
+	 * @return
+	 */
+	protected static String formatValue(double value, int width) {
+		if (Double.isNaN(value)) {
+			return " ".repeat(width - 1) + "-";
+		}
+		return String.format("%" + width + ".2f", value);
+	}
+
+	/**
+	 * ParallelRange: Splits a range of numbers in half until each task runs a single one
+	 */
+	private static class ParallelRange extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final int from;
+		private final int to;
+		private final transient IntConsumer body;
+
+		ParallelRange(int from, int to, IntConsumer body) {
+			this.from = from;
+			this.to = to;
+			this.body = body;
+		}
+
+		@Override
+		protected void compute() {
+			if (this.to - this.from == 1) {
+				this.body.accept(this.from);
+				return;
+			}
+			int middle = (this.from + this.to) >>> 1;
+			invokeAll(new ParallelRange(this.from, middle, this.body), new ParallelRange(middle, this.to, this.body));
+		}
+	}
+
+}
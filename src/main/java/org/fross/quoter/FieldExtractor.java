@@ -0,0 +1,254 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jsoup.nodes.Element;
+
+/**
+ * FieldExtractor: Pulls a group of fields out of a parsed page in a single walk of the document.
+ * 
+ * The field xPaths are merged into a tree of steps so the long prefixes they share are only resolved once. Only the simple
+ * absolute paths used by XPathLookup are supported: '/tag' and '/tag[n]' steps.
+ *
+ */
+public class FieldExtractor {
+	private final Step root = new Step("", 0);
+	private final int numFields;
+
+	/**
+	 * FieldExtractor Constructor(): Build the step tree from the provided map of field names to xPaths
+	 * 
+	 * @param xPaths
+	 */
+	public FieldExtractor(Map<String, String> xPaths) {
+		for (Map.Entry<String, String> i : xPaths.entrySet()) {
+			addPath(i.getKey(), i.getValue());
+		}
+		this.numFields = xPaths.size();
+	}
+
+	/**
+	 * addPath(): Split the xPath into steps and add them to the tree. The field name is stored on the last step
+	 * 
+	 * @param field
+	 * @param xPath
+	 */
+	private void addPath(String field, String xPath) {
+		if (!xPath.startsWith("/") || xPath.startsWith("//")) {
+			throw new IllegalArgumentException("Only absolute xPaths are supported: '" + xPath + "'");
+		}
+
+		Step current = this.root;
+		for (String token : xPath.substring(1).split("/")) {
+			String tag = token;
+			int position = 0;
+
+			// Split 'tag[n]' into the tag name and its 1 based position
+			int bracket = token.indexOf('[');
+			if (bracket >= 0) {
+				if (!token.endsWith("]")) {
+					throw new IllegalArgumentException("Unsupported xPath step '" + token + "' in '" + xPath + "'");
+				}
+				tag = token.substring(0, bracket);
+				try {
+					position = Integer.parseInt(token.substring(bracket + 1, token.length() - 1));
+				} catch (NumberFormatException ex) {
+					throw new IllegalArgumentException("Unsupported xPath step '" + token + "' in '" + xPath + "'");
+				}
+			}
+
+			if (tag.isEmpty() || !tag.matches("[A-Za-z0-9-]+")) {
+				throw new IllegalArgumentException("Unsupported xPath step '" + token + "' in '" + xPath + "'");
+			}
+
+			current = current.child(tag.toLowerCase(), position);
+		}
+
+		current.fields.add(field);
+	}
+
+	/**
+	 * extract(): Walk the document once and return the text of each field that was found. Fields that do not exist in the
+	 * document are not included in the returned map
+	 * 
+	 * @param doc
+	 * @return
+	 */
+	public Map<String, String> extract(Element doc) {
+		Map<String, String> results = new HashMap<>();
+
+		for (Map.Entry<String, Element> i : extractElements(doc).entrySet()) {
+			results.put(i.getKey(), i.getValue().text());
+		}
+
+		return results;
+	}
+
+	/**
+	 * extractComplete(): Used with a partially downloaded page. Returns the field values only if every field was found and
+	 * none of them could still be missing text that hasn't been downloaded yet. Otherwise null is returned
+	 * 
+	 * @param doc
+	 * @return
+	 */
+	public Map<String, String> extractComplete(Element doc) {
+		Map<String, Element> elements = extractElements(doc);
+		if (elements.size() != this.numFields) {
+			return null;
+		}
+
+		Map<String, String> results = new HashMap<>();
+		for (Map.Entry<String, Element> i : elements.entrySet()) {
+			if (isComplete(i.getValue()) == false) {
+				return null;
+			}
+			results.put(i.getKey(), i.getValue().text());
+		}
+
+		return results;
+	}
+
+	/**
+	 * isComplete(): An element is known to be complete once the parser has moved past it. That is true if it, or one of its
+	 * parents, has a following sibling
+	 * 
+	 * @param element
+	 * @return
+	 */
+	private static boolean isComplete(Element element) {
+		for (Element i = element; i != null; i = i.parent()) {
+			if (i.nextElementSibling() != null) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * extractElements(): Walk the document once and return the element found for each field
+	 * 
+	 * @param doc
+	 * @return
+	 */
+	private Map<String, Element> extractElements(Element doc) {
+		Map<String, Element> results = new HashMap<>();
+
+		// The document itself is the parent of the 'html' root step
+		for (Step child : this.root.children) {
+			resolve(doc, child, results);
+		}
+
+		return results;
+	}
+
+	/**
+	 * resolve(): Find the elements under parent matching the step and continue down the tree. Steps without a position can
+	 * match several elements. Like the xPath evaluator, the first match in document order wins
+	 * 
+	 * @param parent
+	 * @param step
+	 * @param results
+	 */
+	private void resolve(Element parent, Step step, Map<String, Element> results) {
+		int count = 0;
+
+		for (Element candidate : parent.children()) {
+			if (!candidate.normalName().equals(step.tag)) {
+				continue;
+			}
+			count++;
+
+			if (step.position != 0 && count != step.position) {
+				continue;
+			}
+
+			for (String field : step.fields) {
+				results.putIfAbsent(field, candidate);
+			}
+
+			for (Step child : step.children) {
+				resolve(candidate, child, results);
+			}
+
+			// Stop once the positioned element is processed or every field has been found
+			if (step.position != 0 || results.size() == this.numFields) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * required(): Return the value of a field from an extract() result. Throws an exception if the field was not found
+	 * 
+	 * @param results
+	 * @param field
+	 * @return
+	 */
+	public static String required(Map<String, String> results, String field) {
+		String value = results.get(field);
+		if (value == null) {
+			throw new IllegalStateException("Field '" + field + "' was not found on the page");
+		}
+		return value;
+	}
+
+	/**
+	 * Step: A single '/tag[n]' element of an xPath along with the steps that follow it
+	 */
+	private static class Step {
+		final String tag;
+		final int position;
+		final List<Step> children = new ArrayList<>();
+		final List<String> fields = new ArrayList<>();
+
+		Step(String tag, int position) {
+			this.tag = tag;
+			this.position = position;
+		}
+
+		/**
+		 * child(): Return the existing child step matching the tag and position or create a new one
+		 */
+		Step child(String tag, int position) {
+			for (Step i : this.children) {
+				if (i.tag.equals(tag) && i.position == position) {
+					return i;
+				}
+			}
+
+			Step newStep = new Step(tag, position);
+			this.children.add(newStep);
+			return newStep;
+		}
+	}
+
+}
@@ -29,7 +29,10 @@ package org.fross.quoter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.time.LocalDate;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Locale;
 
 import org.fross.library.Output;
 import org.fusesource.jansi.Ansi;
@@ -39,6 +42,7 @@ public class FileExporter {
 	FileWriter exportFileFW = null;
 	boolean exportSymbolHeaderWritten = false;
 	boolean exportIndexHeaderWritten = false;
+	boolean exportTrendHeaderWritten = false;
 
 	/**
 	 * FileExporter(): FileExporter Constructor
@@ -140,6 +144,81 @@ public class FileExporter {
 		}
 	}
 
+	/**
+	 * exportTrend(): Dump the trend bars for a security to the export file along with the requested indicators
+	 * 
+	 * @param symb
+	 * @param period
+	 * @param series
+	 * @param indicators
+	 * @param columns
+	 */
+	public void exportTrend(String symb, BarPeriod period, PriceSeries series, Indicators indicators, EnumSet<Indicators.Column> columns) {
+		try {
+			this.exportFileFW.append("\n");
+			if (this.exportTrendHeaderWritten == false) {
+				this.exportFileFW.append("symbol,period,date,open,high,low,close,volume,");
+				for (Indicators.Column c : columns) {
+					this.exportFileFW.append(c.header.toLowerCase() + ",");
+				}
+				this.exportFileFW.append("\n");
+				this.exportTrendHeaderWritten = true;
+			}
+
+			// Dump one row per bar, oldest first
+			for (int i = 0; i < series.size(); i++) {
+				this.exportFileFW.append(symb.toUpperCase() + "," + period.getDescription() + "," + LocalDate.ofEpochDay(series.getDay(i)) + ",");
+				this.exportFileFW.append(Price.toString(series.getOpen(i)) + "," + Price.toString(series.getHigh(i)) + ",");
+				this.exportFileFW.append(Price.toString(series.getLow(i)) + "," + Price.toString(series.getClose(i)) + ",");
+				this.exportFileFW.append(series.getVolume(i) + ",");
+				for (Indicators.Column c : columns) {
+					this.exportFileFW.append(Price.toString(indicators.get(c, i)) + ",");
+				}
+				this.exportFileFW.append("\n");
+			}
+
+		} catch (IOException ex) {
+			Output.printColorln(Ansi.Color.RED, "Error writing to export file: " + ex.getMessage());
+		}
+	}
+
+	/**
+	 * exportCorrelation(): Dump the correlation matrix and the beta of each security to the export file
+	 * 
+	 * @param correlation
+	 */
+	public void exportCorrelation(CorrelationMatrix correlation) {
+		try {
+			this.exportFileFW.append("\nsymbol,beta,");
+			for (int i = 0; i < correlation.size(); i++) {
+				this.exportFileFW.append(correlation.getSymbol(i).toUpperCase() + ",");
+			}
+			this.exportFileFW.append("\n");
+
+			// Dump one row per security. A value that could not be calculated is left empty
+			for (int i = 0; i < correlation.size(); i++) {
+				this.exportFileFW.append(correlation.getSymbol(i).toUpperCase() + "," + formatDouble(correlation.getBeta(i)) + ",");
+				for (int j = 0; j < correlation.size(); j++) {
+					this.exportFileFW.append(formatDouble(correlation.get(i, j)) + ",");
+				}
+				this.exportFileFW.append("\n");
+			}
+
+		} catch (IOException ex) {
+			Output.printColorln(Ansi.Color.RED, "Error writing to export file: " + ex.getMessage());
+		}
+	}
+
+	/**
+	 * formatDouble(): Return a value with four decimals or an empty string if it is NaN
+	 * 
+	 * @param value
+	 * @return
+	 */
+	private static String formatDouble(double value) {
+		return Double.isNaN(value) ? "" : String.format(Locale.ROOT, "%.4f", value);
+	}
+
 	/**
 	 * close(): Flush and close the export file
 	 */
@@ -0,0 +1,184 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.fross.library.Output;
+import org.fusesource.jansi.Ansi;
+
+/**
+ * Frame: An off-screen copy of the console output. Text is collected line by line with the color of every character so it
+ * can be printed normally or compared with the previous refresh by the FrameRenderer.
+ *
+ */
+public class Frame {
+	private final List<Line> lines = new ArrayList<>();
+
+	/**
+	 * Frame Constructor(): Create an empty frame
+	 */
+	public Frame() {
+		this.lines.add(new Line());
+	}
+
+	/**
+	 * print(): Add text in the provided color. A '\n' in the text starts a new line
+	 * 
+	 * @param color
+	 * @param text
+	 */
+	public void print(Ansi.Color color, String text) {
+		Line current = this.lines.get(this.lines.size() - 1);
+
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c == '\n') {
+				current = new Line();
+				this.lines.add(current);
+			} else {
+				current.append(c, color);
+			}
+		}
+	}
+
+	/**
+	 * println(): Add text in the provided color and start a new line
+	 * 
+	 * @param color
+	 * @param text
+	 */
+	public void println(Ansi.Color color, String text) {
+		print(color, text);
+		this.lines.add(new Line());
+	}
+
+	/**
+	 * println(): Start a new line
+	 */
+	public void println() {
+		this.lines.add(new Line());
+	}
+
+	/**
+	 * getLineCount(): Return the number of lines including the line currently being added to
+	 * 
+	 * @return
+	 */
+	public int getLineCount() {
+		return this.lines.size();
+	}
+
+	/**
+	 * getLineLength(): Return the number of characters in the provided line
+	 * 
+	 * @param line
+	 * @return
+	 */
+	public int getLineLength(int line) {
+		return this.lines.get(line).length;
+	}
+
+	/**
+	 * getLine(): Return the text of the provided line without colors
+	 * 
+	 * @param line
+	 * @return
+	 */
+	public String getLine(int line) {
+		Line l = this.lines.get(line);
+		return new String(l.chars, 0, l.length);
+	}
+
+	/**
+	 * charAt(): Return the character at the provided line and column
+	 * 
+	 * @param line
+	 * @param column
+	 * @return
+	 */
+	public char charAt(int line, int column) {
+		return this.lines.get(line).chars[column];
+	}
+
+	/**
+	 * colorAt(): Return the color of the character at the provided line and column
+	 * 
+	 * @param line
+	 * @param column
+	 * @return
+	 */
+	public Ansi.Color colorAt(int line, int column) {
+		return this.lines.get(line).colors[column];
+	}
+
+	/**
+	 * display(): Print the frame to the console. Each run of characters in the same color is written at once
+	 */
+	public void display() {
+		for (int i = 0; i < this.lines.size(); i++) {
+			Line line = this.lines.get(i);
+
+			int start = 0;
+			while (start < line.length) {
+				int end = start + 1;
+				while (end < line.length && line.colors[end] == line.colors[start]) {
+					end++;
+				}
+				Output.printColor(line.colors[start], new String(line.chars, start, end - start));
+				start = end;
+			}
+
+			// The last line is still open so no new line is needed after it
+			if (i < this.lines.size() - 1) {
+				Output.println("");
+			}
+		}
+	}
+
+	/**
+	 * Line: The characters of one line of the frame and the color of each one
+	 */
+	private static class Line {
+		char[] chars = new char[96];
+		Ansi.Color[] colors = new Ansi.Color[96];
+		int length = 0;
+
+		void append(char c, Ansi.Color color) {
+			if (this.length == this.chars.length) {
+				this.chars = Arrays.copyOf(this.chars, this.length * 2);
+				this.colors = Arrays.copyOf(this.colors, this.length * 2);
+			}
+			this.chars[this.length] = c;
+			this.colors[this.length] = color;
+			this.length++;
+		}
+	}
+
+}
@@ -0,0 +1,285 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import static org.fusesource.jansi.Ansi.ansi;
+
+import java.io.PrintStream;
+
+import org.fusesource.jansi.Ansi;
+
+/**
+ * FrameRenderer: Repaints the console for auto-refresh. Each new frame is compared with the one on screen and only the
+ * characters that changed are written, using cursor positioning, in a single write to the console. A frame too large for
+ * the console, or any frame when the size of the console isn't known, can't be positioned on it so it is printed from
+ * the top and left to scroll instead.
+ *
+ */
+public class FrameRenderer {
+	// Class Constants
+	private static final String ESC = "\u001B[";
+
+	// Unchanged characters shorter than this between two changes are rewritten rather than jumping the cursor over them
+	private static final int MAX_GAP = 6;
+
+	// Class Variables
+	private final PrintStream out;
+	private final boolean colorEnabled;
+	private final String[] colorCodes;
+	private final String resetCode;
+	private final StringBuilder buffer = new StringBuilder(8192);
+	private Frame onScreen = null;
+	private Ansi.Color currentColor = null;
+	private int screenRows = 0;
+	private int screenColumns = 0;
+
+	/**
+	 * FrameRenderer Constructor(): Create a renderer writing to the provided stream
+	 * 
+	 * @param out
+	 * @param colorEnabled
+	 */
+	public FrameRenderer(PrintStream out, boolean colorEnabled) {
+		this.out = out;
+		this.colorEnabled = colorEnabled;
+
+		Ansi.Color[] colors = Ansi.Color.values();
+		this.colorCodes = new String[colors.length];
+		for (int i = 0; i < colors.length; i++) {
+			this.colorCodes[i] = ansi().fg(colors[i]).toString();
+		}
+		this.resetCode = ansi().reset().toString();
+	}
+
+	/**
+	 * invalidate(): Forget what is on the screen so the next frame is painted in full
+	 */
+	public void invalidate() {
+		this.onScreen = null;
+	}
+
+	/**
+	 * setScreenSize(): Set the size of the console the frames are displayed in. Zero is used when it isn't known
+	 * 
+	 * @param rows
+	 * @param columns
+	 */
+	public void setScreenSize(int rows, int columns) {
+		if (rows != this.screenRows || columns != this.screenColumns) {
+			this.screenRows = rows;
+			this.screenColumns = columns;
+			invalidate();
+		}
+	}
+
+	/**
+	 * fits(): Return true if the frame and the status line below it fit on the screen without scrolling or wrapping. Nothing
+	 * is known to fit when the size of the screen isn't known
+	 * 
+	 * @param frame
+	 * @return
+	 */
+	private boolean fits(Frame frame) {
+		if (this.screenRows <= 0 || this.screenColumns <= 0 || frame.getLineCount() + 1 > this.screenRows) {
+			return false;
+		}
+		for (int row = 0; row < frame.getLineCount(); row++) {
+			if (frame.getLineLength(row) > this.screenColumns) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * render(): Bring the screen up to date with the provided frame
+	 * 
+	 * @param frame
+	 */
+	public void render(Frame frame) {
+		this.buffer.setLength(0);
+		this.currentColor = null;
+		boolean fits = fits(frame);
+
+		if (fits == false) {
+			// Positions past the edge of the screen would land on the wrong lines. Print the lines in order from the top and
+			// let the console scroll. What is on screen is then unknown so the next frame is painted in full too
+			this.buffer.append(ESC).append("2J").append(ESC).append('H');
+			for (int row = 0; row < frame.getLineCount(); row++) {
+				writeCells(frame, row, 0, frame.getLineLength(row));
+				this.buffer.append('\n');
+			}
+
+		} else if (this.onScreen == null) {
+			// Nothing to compare against. Clear the screen and paint every line
+			this.buffer.append(ESC).append("2J");
+			for (int row = 0; row < frame.getLineCount(); row++) {
+				if (frame.getLineLength(row) > 0) {
+					moveTo(row, 0);
+					writeCells(frame, row, 0, frame.getLineLength(row));
+				}
+			}
+
+		} else {
+			int rows = Math.max(this.onScreen.getLineCount(), frame.getLineCount());
+			for (int row = 0; row < rows; row++) {
+				renderLine(frame, row);
+			}
+		}
+
+		// Leave the cursor at the start of the last line
+		if (this.colorEnabled == true && this.currentColor != null) {
+			this.buffer.append(this.resetCode);
+		}
+		if (fits == true) {
+			moveTo(frame.getLineCount() - 1, 0);
+		}
+
+		this.out.print(this.buffer);
+		this.out.flush();
+		this.onScreen = (fits == true) ? frame : null;
+	}
+
+	/**
+	 * renderStatus(): Replace the line below the frame with the provided text
+	 * 
+	 * @param color
+	 * @param text
+	 */
+	public void renderStatus(Ansi.Color color, String text) {
+		this.buffer.setLength(0);
+		this.currentColor = null;
+
+		// Without a frame on screen the cursor is already on the status line
+		if (this.onScreen != null) {
+			moveTo(this.onScreen.getLineCount(), 0);
+		} else {
+			this.buffer.append('\r');
+		}
+		this.buffer.append(ESC).append("2K");
+
+		// A status line that wrapped would scroll the screen
+		if (this.screenColumns > 0 && text.length() >= this.screenColumns) {
+			text = text.substring(0, this.screenColumns - 1);
+		}
+
+		if (this.colorEnabled == true) {
+			this.buffer.append(this.colorCodes[color.ordinal()]);
+		}
+		this.buffer.append(text);
+		if (this.colorEnabled == true) {
+			this.buffer.append(this.resetCode);
+		}
+
+		this.out.print(this.buffer);
+		this.out.flush();
+	}
+
+	/**
+	 * renderLine(): Write the changes between the line on screen and the same line of the new frame
+	 * 
+	 * @param frame
+	 * @param row
+	 */
+	private void renderLine(Frame frame, int row) {
+		int newLength = (row < frame.getLineCount()) ? frame.getLineLength(row) : 0;
+		int oldLength = (row < this.onScreen.getLineCount()) ? this.onScreen.getLineLength(row) : 0;
+
+		int column = 0;
+		while (column < newLength) {
+			if (isUnchanged(frame, row, column, oldLength)) {
+				column++;
+				continue;
+			}
+
+			// Extend the run over later changes that are only separated by a short gap of unchanged characters
+			int end = column + 1;
+			for (int scan = end; scan < newLength && scan - end < MAX_GAP; scan++) {
+				if (isUnchanged(frame, row, scan, oldLength) == false) {
+					end = scan + 1;
+				}
+			}
+
+			moveTo(row, column);
+			writeCells(frame, row, column, end);
+			column = end;
+		}
+
+		// Erase anything left over from a longer line
+		if (oldLength > newLength) {
+			moveTo(row, newLength);
+			this.buffer.append(ESC).append('K');
+		}
+	}
+
+	/**
+	 * isUnchanged(): Return true if the character and color on screen already match the new frame
+	 * 
+	 * @param frame
+	 * @param row
+	 * @param column
+	 * @param oldLength
+	 * @return
+	 */
+	private boolean isUnchanged(Frame frame, int row, int column, int oldLength) {
+		if (column >= oldLength) {
+			return false;
+		}
+		return this.onScreen.charAt(row, column) == frame.charAt(row, column)
+				&& (this.colorEnabled == false || this.onScreen.colorAt(row, column) == frame.colorAt(row, column));
+	}
+
+	/**
+	 * writeCells(): Add the characters of a line from start up to end, changing color only when needed
+	 * 
+	 * @param frame
+	 * @param row
+	 * @param start
+	 * @param end
+	 */
+	private void writeCells(Frame frame, int row, int start, int end) {
+		for (int column = start; column < end; column++) {
+			Ansi.Color color = frame.colorAt(row, column);
+			if (this.colorEnabled == true && color != this.currentColor) {
+				this.buffer.append(this.colorCodes[color.ordinal()]);
+				this.currentColor = color;
+			}
+			this.buffer.append(frame.charAt(row, column));
+		}
+	}
+
+	/**
+	 * moveTo(): Add the sequence to move the cursor to the provided zero based row and column
+	 * 
+	 * @param row
+	 * @param column
+	 */
+	private void moveTo(int row, int column) {
+		this.buffer.append(ESC).append(row + 1).append(';').append(column + 1).append('H');
+	}
+
+}
@@ -58,7 +58,14 @@ public class Help {
 		Output.printColorln(Ansi.Color.WHITE, "  -w WIDTH  Width, in columns, of the trending display");
 		Output.printColorln(Ansi.Color.WHITE, "  -n        Hide the Index information and just show the stock quotes");
 		Output.printColorln(Ansi.Color.WHITE, "  -a SEC    Set a auto-refresh time for quotes in seconds. Ex: '-a 300' is a 5 min refresh");
+		Output.printColorln(Ansi.Color.WHITE, "            Refreshes slow down outside of regular trading hours");
+		Output.printColorln(Ansi.Color.WHITE, "            While refreshing type a command and press ENTER: 'r' refresh now, 'p' pause/resume,");
+		Output.printColorln(Ansi.Color.WHITE, "            '+SYMB' add a security, '-SYMB' remove a security, or just ENTER to exit");
+		Output.printColorln(Ansi.Color.WHITE, "            Securities that don't fit on screen are scrolled with 'n'/'b' by page and 'j'/'k' by row");
 		Output.printColorln(Ansi.Color.WHITE, "  -d DAYS   Set persistent duration of trend display. Default is 90 days of historical data");
+		Output.printColorln(Ansi.Color.WHITE, "            The maximum is " + CommandLineParser.MAX_TREND_DURATION + " days");
+		Output.printColorln(Ansi.Color.WHITE, "  -k SEC    Reuse quotes saved by another run of Quoter if they are less than SEC seconds old");
+		Output.printColorln(Ansi.Color.WHITE, "  -c NUM    Maximum number of quotes to download at the same time. Default is " + QuoteFetcher.DEFAULT_MAX_CONCURRENT);
 
 		Output.printColorln(Ansi.Color.YELLOW, "\nSaved Favorites:");
 		Output.printColorln(Ansi.Color.WHITE, "  -s        Save the securities provided as favorites and show them automatically");
@@ -68,6 +75,12 @@ public class Help {
 
 		Output.printColorln(Ansi.Color.YELLOW, "\nAdditional Features:");
 		Output.printColorln(Ansi.Color.WHITE, "  -t        Display daily trending historical data with a duration set with '-d'");
+		Output.printColorln(Ansi.Color.WHITE, "  -g        Display the trend as a compact chart that fits the width set with '-w'");
+		Output.printColorln(Ansi.Color.WHITE, "  -p PER    Combine the trend into periods such as d, w, m, 2w, or 3m. Default is d");
+		Output.printColorln(Ansi.Color.WHITE, "  -o LIST   Display indicators: sma,ema,bb,rsi,atr,vol or all. Added to the table and trend");
+		Output.printColorln(Ansi.Color.WHITE, "  -m        Display the correlation of returns between securities and their beta against the S&P 500");
+		Output.printColorln(Ansi.Color.WHITE, "            Securities are aligned on their common days. One that would leave under 90% of the longest");
+		Output.printColorln(Ansi.Color.WHITE, "            history in common, such as a recent listing, is left out and named below the matrix");
 		Output.printColorln(Ansi.Color.WHITE, "  -x FILE   Export data to the provided filename. Export will contain a header row");
 
 		Output.printColorln(Ansi.Color.YELLOW, "\nMisc:");
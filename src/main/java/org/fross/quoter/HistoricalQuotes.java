@@ -26,190 +26,330 @@
  ***************************************************************************************************************/
 package org.fross.quoter;
 
-import java.time.LocalDateTime;
-import java.util.Map;
-import java.util.TreeMap;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.Future;
 
-import org.fross.library.Date;
 import org.fross.library.Output;
-import org.fross.library.URLOperations;
 import org.fusesource.jansi.Ansi;
 
 public class HistoricalQuotes {
-	// Key is a date string
-	// Value is an array: [0]=DayHigh [1]=DayLow [2]=DayClose
-	Map<String, Float[]> resultMap = new TreeMap<String, Float[]>();
+	// Prices in the trend duration with one bar per period, oldest first
+	PriceSeries series = new PriceSeries();
+	Indicators indicators = null;
+
+	// Class Constants
+	protected static final int CHUNK_DAYS = 180;
+	protected static final int MAX_CONCURRENT_CHUNKS = 4;
+	protected static final int COMPACT_CHART_ROWS = 8;
+
+	// History of the S&P 500 index. Indexes are given with their MarketWatch path so they aren't mistaken for a stock
+	public static final String SP500 = "index/spx";
+
+	// Long trends are downloaded in chunks at the same time. They use their own downloads so a trend waiting for its chunks
+	// never holds up the chunks of another
+	private static final QuoteFetcher chunkFetcher = new QuoteFetcher(MAX_CONCURRENT_CHUNKS);
 
 	// Number of days to go back from today in the trend
 	final int NUM_DAYS_IN_TREND = Prefs.queryInt("trendduration");
 
+	// Length of each bar in the trend. Daily prices are combined into longer bars after they are downloaded
+	final BarPeriod PERIOD = BarPeriod.parse(Main.cli.clTrendPeriod);
+
+	// Indicators to display with the trend
+	final EnumSet<Indicators.Column> INDICATORS = Indicators.Column.parseList(Main.cli.clIndicators);
+
 	/**
-	 * Constructor
-	 * 
-	 * @param symb
+	 * Constructor: Create an empty history that is filled by update()
 	 */
-	public HistoricalQuotes(String symb) {
-		this.resultMap = getHistoricalQuotes(symb);
+	public HistoricalQuotes() {
 	}
 
 	/**
-	 * GetHistoricalQuotes(): Return map of date/closePrice for 3 months
-	 * 
-	 * In the value portion of the returned map:
+	 * download(): Return the bars in the trend duration for the provided security. The history isn't changed so the
+	 * download can run in the background while it's displayed
 	 * 
+	 * @param symb
 	 * @return
 	 */
-	public Map<String, Float[]> getHistoricalQuotes(String symb) {
-		Map<String, Float[]> map = new TreeMap<String, Float[]>();
-		String quoteURL = "https://www.marketwatch.com/investing/stock/SYMBOL/downloaddatapartial?startdate=STARTDATE%2000:00:00&enddate=ENDDATE%2023:59:59&daterange=d30&frequency=p1d&csvdownload=true&downloadpartial=false&newdates=false";
-
-		// Set the end date to today's date
-		String endDate = Date.getCurrentMonth() + "/" + Date.getCurrentDay() + "/" + Date.getCurrentYear();
-		Output.debugPrintln("Trending End Date set to: " + endDate);
-
-		// Set the start date to today minus NUM_DAYS_IN_TREND
-		LocalDateTime now = LocalDateTime.now();
-		now = now.minusDays(NUM_DAYS_IN_TREND);
-		String startDate = String.format("%02d", now.getMonthValue()) + "/" + now.getDayOfMonth() + "/" + now.getYear();
-		Output.debugPrintln("Trending Start Date set to: " + startDate);
-
-		// Add the symbol, start, and end dates to the URL
-		quoteURL = quoteURL.replaceAll("SYMBOL", symb);
-		quoteURL = quoteURL.replaceAll("STARTDATE", startDate);
-		quoteURL = quoteURL.replaceAll("ENDDATE", endDate);
-		Output.debugPrintln("Rewritten trending URL:\n" + quoteURL);
-
-		// Download the historical data. Fields: Date,Open,High,Low,Close,Volume
-		String historicalDataBlob = "";
-		try {
-			historicalDataBlob = URLOperations.ReadURL(quoteURL);
+	public PriceSeries download(String symb) {
+		return PERIOD.resample(getHistoricalQuotes(symb));
+	}
 
-		} catch (Exception ex) {
-			Output.printColorln(Ansi.Color.RED, "Could not read historical data for '" + symb + "'");
+	/**
+	 * update(): Replace the bars with the ones provided. The latest bar is downloaded again each time, so when only it has
+	 * changed or bars were added after it, just those bars are calculated. Anything else, such as the trend moving forward
+	 * a day, calculates the indicators again from the start
+	 * 
+	 * @param bars
+	 */
+	public void update(PriceSeries bars) {
+		int matching = this.series.countMatching(bars);
+		if (this.indicators != null && matching == this.series.size() - 1 && this.indicators.removeLast() == true) {
+			this.series.removeLast();
 		}
 
-		// Split each row (day) into an array
-		String[] historicalData = historicalDataBlob.split("\n");
-
-		// Loop through each day and populate the hash. Data order: Date,Open,High,Low,Close,Volume
-		for (int rowRead = (historicalData.length - 1); rowRead > 0; rowRead--) {
-			// Change the date field to be ISO format instead of US format so the sorted display works
-			// Also quote the date so the future split will work
-			historicalData[rowRead] = historicalData[rowRead].replaceFirst("^(\\d+)\\/(\\d+)\\/(\\d+),", "\"$3-$1-$2\",");
+		if (this.indicators == null || matching < this.series.size()) {
+			this.series = bars;
+			this.indicators = new Indicators(this.series, PERIOD.getPeriodsPerYear()).update();
+			return;
+		}
 
-			// Pull the first field (date) and set as the hash key
-			String dateKey = historicalData[rowRead].split(",")[0].replaceAll("\"", "");
+		for (int i = matching; i < bars.size(); i++) {
+			this.series.add(bars.getDay(i), bars.getOpen(i), bars.getHigh(i), bars.getLow(i), bars.getClose(i), bars.getVolume(i));
+		}
+		this.indicators.update();
+	}
 
-			// Split the fields of the line read by commas into an array
-			String lineRead[] = historicalData[rowRead].split("\",\"");
+	/**
+	 * GetHistoricalQuotes(): Return the daily prices for the trend duration
+	 * 
+	 * Days that were saved by a previous run are loaded from the HistoryStore and only the days before the saved ones and
+	 * since the last saved day are downloaded. The last saved day is downloaded again as it may have been saved before the
+	 * market closed. The new days are saved unless part of the download failed, in which case it's retried next time.
+	 * 
+	 * @return
+	 */
+	public PriceSeries getHistoricalQuotes(String symb) {
+		LocalDate today = LocalDate.now();
+		LocalDate startDate = today.minusDays(NUM_DAYS_IN_TREND);
+		LocalDate coveredFrom = startDate;
+		PriceSeries allDays = new PriceSeries();
+		List<LocalDate[]> missing = new ArrayList<>();
+
+		// Use the saved history if it is recent enough to connect to the new data
+		HistoryStore.StoredHistory stored = HistoryStore.load(symb);
+		if (stored != null && !stored.series.isEmpty() && stored.series.getLastDay() >= startDate.toEpochDay()) {
+			allDays = stored.series;
+			coveredFrom = stored.coveredFrom;
+
+			// Days older than the saved ones are needed if the trend duration has been increased
+			if (stored.coveredFrom.isAfter(startDate)) {
+				missing.add(new LocalDate[] { startDate, stored.coveredFrom.minusDays(1) });
+				coveredFrom = startDate;
+			}
+			missing.add(new LocalDate[] { LocalDate.ofEpochDay(stored.series.getLastDay()), today });
 
-			Float[] temp = new Float[3];
-			temp[0] = Float.valueOf(lineRead[2].replace("[,\"]", ""));		// High
-			temp[1] = Float.valueOf(lineRead[3].replace("[,\"]", ""));		// Low
-			temp[2] = Float.valueOf(lineRead[4].replace("[,\"]", ""));		// Close
+		} else {
+			missing.add(new LocalDate[] { startDate, today });
+		}
 
-			// Add the historical data to the hashmap with the date as the key
-			map.put(dateKey, temp);
+		// Download the missing days in chunks and merge them with the saved days
+		List<LocalDate[]> chunks = new ArrayList<>();
+		for (LocalDate[] range : missing) {
+			chunks.addAll(splitRange(range[0], range[1], CHUNK_DAYS));
 		}
+		boolean complete = true;
+		PriceSeries downloaded = new PriceSeries();
+		for (PriceSeries part : downloadChunks(symb, chunks)) {
+			if (part == null) {
+				complete = false;
+			} else {
+				downloaded = downloaded.merge(part);
+			}
+		}
+		allDays = allDays.merge(downloaded);
 
-		return map;
+		// Only save complete downloads so a missing chunk is downloaded again next time
+		if (complete == true && !downloaded.isEmpty()) {
+			HistoryStore.save(symb, coveredFrom, allDays);
+		}
 
+		// Return only the days in the trend duration
+		return allDays.range((int) startDate.toEpochDay(), (int) today.toEpochDay());
 	}
 
 	/**
-	 * get(): Return array with results. [0]=DayHigh [1]=DayLow [2]=DayClose
+	 * splitRange(): Split the days from start to end, inclusive, into ranges of at most the provided number of days
 	 * 
-	 * @param key
+	 * @param start
+	 * @param end
+	 * @param days
 	 * @return
 	 */
-	public Float[] get(String key) {
-		return resultMap.get(key);
+	protected static List<LocalDate[]> splitRange(LocalDate start, LocalDate end, int days) {
+		List<LocalDate[]> ranges = new ArrayList<>();
+		for (LocalDate from = start; !from.isAfter(end); from = from.plusDays(days)) {
+			LocalDate to = from.plusDays(days - 1);
+			ranges.add(new LocalDate[] { from, to.isAfter(end) ? end : to });
+		}
+		return ranges;
 	}
 
 	/**
-	 * getDayHigh(): Return the day's highest value on the provided date
+	 * downloadChunks(): Download each date range at the same time and return the results in the same order. A chunk that
+	 * could not be downloaded is null
 	 * 
-	 * @param key
+	 * @param symb
+	 * @param chunks
 	 * @return
 	 */
-	public Float getDayHigh(String key) {
-		try {
-			return resultMap.get(key)[0];
-		} catch (Exception ex) {
-			return -999f;
+	protected static List<PriceSeries> downloadChunks(String symb, List<LocalDate[]> chunks) {
+		// A single chunk is downloaded directly
+		if (chunks.size() == 1) {
+			return Collections.singletonList(downloadHistoricalQuotes(symb, chunks.get(0)[0], chunks.get(0)[1]));
+		}
+
+		Output.debugPrintln("Downloading " + chunks.size() + " chunks of history for '" + symb + "'");
+		List<Future<PriceSeries>> futures = new ArrayList<>();
+		for (LocalDate[] chunk : chunks) {
+			futures.add(chunkFetcher.submitHistoryRange(symb, chunk[0], chunk[1]));
 		}
+
+		List<PriceSeries> parts = new ArrayList<>();
+		for (Future<PriceSeries> future : futures) {
+			parts.add(QuoteFetcher.await(future));
+		}
+		return parts;
 	}
 
 	/**
-	 * getDayLow(): Return the day's lowest values on the provided date
+	 * downloadHistoricalQuotes(): Download the daily data for the provided symbol between the start and end dates. Returns
+	 * null if it could not be downloaded
 	 * 
-	 * @param key
+	 * @param symb
+	 * @param start
+	 * @param end
 	 * @return
 	 */
-	public Float getDayLow(String key) {
+	protected static PriceSeries downloadHistoricalQuotes(String symb, LocalDate start, LocalDate end) {
+		String quoteURL = "https://www.marketwatch.com/investing/SYMBOL/downloaddatapartial?startdate=STARTDATE%2000:00:00&enddate=ENDDATE%2023:59:59&daterange=d30&frequency=p1d&csvdownload=true&downloadpartial=false&newdates=false";
+		DateTimeFormatter urlDateFormat = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+
+		// Set the start and end dates
+		String startDate = start.format(urlDateFormat);
+		String endDate = end.format(urlDateFormat);
+		Output.debugPrintln("Trending Start Date set to: " + startDate);
+		Output.debugPrintln("Trending End Date set to: " + endDate);
+
+		// Add the symbol, start, and end dates to the URL. Everything other than an index is a stock
+		quoteURL = quoteURL.replaceAll("SYMBOL", symb.startsWith("index/") ? symb : "stock/" + symb);
+		quoteURL = quoteURL.replaceAll("STARTDATE", startDate);
+		quoteURL = quoteURL.replaceAll("ENDDATE", endDate);
+		Output.debugPrintln("Rewritten trending URL:\n" + quoteURL);
+
+		// Download the historical data and parse it as it arrives. Fields: Date,Open,High,Low,Close,Volume
 		try {
-			return resultMap.get(key)[1];
+			HttpTransport.Response response = HttpTransport.getShared().get(quoteURL);
+			try (InputStream body = response.body) {
+				return HistoryCsvParser.parse(body);
+			}
+
 		} catch (Exception ex) {
-			return -999f;
+			// The trend reports the failure if there is no saved history to display instead
+			Output.debugPrintln("Could not read historical data for '" + symb + "': " + ex.getMessage());
+			return null;
 		}
+
 	}
 
 	/**
-	 * getDayClose(): Return the close price on the provided date
+	 * getSeries(): Return the bars in the trend duration, oldest first
 	 * 
-	 * @param key
 	 * @return
 	 */
-	public Float getDayClose(String key) {
-		try {
-			return resultMap.get(key)[2];
-		} catch (Exception ex) {
-			return -999f;
-		}
+	public PriceSeries getSeries() {
+		return this.series;
 	}
 
 	/**
-	 * getKeySet(): Return a set of the hash keys (dates)
+	 * getIndicators(): Return the indicators calculated from the bars in the trend or null if it hasn't been downloaded
 	 * 
 	 * @return
 	 */
-	public String[] getKeySet() {
-		String[] keyArray = new String[resultMap.size()];
-		return resultMap.keySet().toArray(keyArray);
+	public Indicators getIndicators() {
+		return this.indicators;
 	}
 
 	/**
-	 * LargestMapValue(): Return largest daily high value of the provided map
+	 * getPeriod(): Return the length of each bar in the trend
 	 * 
-	 * @param map
+	 * @return
 	 */
-	public Float largestMapValue(Map<String, Float[]> map) {
-		Float largestValue = Float.MIN_VALUE;
+	public BarPeriod getPeriod() {
+		return this.PERIOD;
+	}
 
-		for (Map.Entry<String, Float[]> i : map.entrySet()) {
-			String key = i.getKey();
-			if (this.getDayHigh(key) > largestValue)
-				largestValue = this.getDayHigh(key);
+	/**
+	 * queryTrendTitle(): Return the title of the trend such as '90 Day Trend' or '365 Day Weekly Trend'
+	 * 
+	 * @return
+	 */
+	private String queryTrendTitle() {
+		String days = String.format("%02d", NUM_DAYS_IN_TREND) + " Day ";
+		if (PERIOD.isDaily() == true) {
+			return days + "Trend";
+		}
+		return days + PERIOD.getDescription() + " Trend";
+	}
+
+	/**
+	 * displayIndicatorSummary(): Add the latest value of each indicator requested to a frame
+	 * 
+	 * @param frame
+	 */
+	private void displayIndicatorSummary(Frame frame) {
+		if (INDICATORS.isEmpty() == true) {
+			return;
 		}
-		return largestValue;
 
+		StringBuilder summary = new StringBuilder("Indicators:");
+		for (Indicators.Column c : INDICATORS) {
+			long value = indicators.getLatest(c);
+			summary.append("  ").append(c.header).append(" ").append(c.format(value, 0));
+		}
+		frame.println(Ansi.Color.YELLOW, summary.toString());
 	}
 
 	/**
-	 * SmallestMapValue(): Return smallest daily low value of the provided map
+	 * displayCompactTrend(): Add a compact chart of the trend that fits in the display width to a frame
 	 * 
-	 * @param map
+	 * @param symb
+	 * @param quote
+	 * @param frame
 	 */
-	public Float smallestMapValue(Map<String, Float[]> map) {
-		Float smallestValue = Float.MAX_VALUE;
+	public void displayCompactTrend(String symb, Quote quote, Frame frame) {
+		String lowStr = Price.format(series.minLow(0, series.size()), 2, 0, false, true);
+		String highStr = Price.format(series.maxHigh(0, series.size()), 2, 0, false, true);
+		int labelWidth = Math.max(lowStr.length(), highStr.length());
 
-		for (Map.Entry<String, Float[]> i : map.entrySet()) {
-			String key = i.getKey();
-			if (this.getDayLow(key) < smallestValue)
-				smallestValue = this.getDayLow(key);
+		TrendChart chart = new TrendChart(series, Main.cli.clWidth - labelWidth - 2, COMPACT_CHART_ROWS);
+		Output.debugPrintln("Compact trend chart of " + series.size() + " bars is " + chart.getColumns() + " columns wide");
+
+		// Display the symbol informational header
+		String title = queryTrendTitle();
+		frame.println(Ansi.Color.WHITE, "\n+--" + title + "-".repeat(Math.max(2, chart.getColumns() - title.length())) + "+");
+		frame.println(Ansi.Color.YELLOW, symb.toUpperCase() + " : " + quote.get("fullname") + "   Current Price: " + quote.get("latestPrice"));
+		displayIndicatorSummary(frame);
+
+		// The chart is green if the security closed higher at the end of the trend than at the start
+		Ansi.Color chartColor = Ansi.Color.GREEN;
+		if (series.getClose(series.size() - 1) < series.getClose(0)) {
+			chartColor = Ansi.Color.RED;
+		}
+
+		// Display the chart with the high and low on the left
+		for (int row = 0; row < chart.getRows(); row++) {
+			String label = "";
+			if (row == 0) {
+				label = highStr;
+			} else if (row == chart.getRows() - 1) {
+				label = lowStr;
+			}
+			frame.print(Ansi.Color.CYAN, " ".repeat(labelWidth - label.length()) + label + (label.isEmpty() ? " \u2502" : " \u2524"));
+			frame.println(chartColor, chart.getLine(row));
 		}
-		return smallestValue;
 
+		// Display the first and last dates below the chart
+		String firstDate = LocalDate.ofEpochDay(series.getFirstDay()).toString();
+		String lastDate = LocalDate.ofEpochDay(series.getLastDay()).toString();
+		frame.println(Ansi.Color.CYAN, " ".repeat(labelWidth + 1) + "\u2514" + "\u2500".repeat(chart.getColumns()));
+		frame.println(Ansi.Color.CYAN, " ".repeat(labelWidth + 2) + firstDate + " ".repeat(Math.max(1, chart.getColumns() - firstDate.length() - lastDate.length())) + lastDate);
 	}
 
 	/**
@@ -218,90 +358,173 @@ public class HistoricalQuotes {
 	 * @param symb, token
 	 */
 	public void displayTrend(String symb) {
+		Frame frame = new Frame();
+		displayTrend(symb, new QuoteContext(MarketState.getSnapshot()).getSymbol(symb), frame);
+		frame.display();
+	}
+
+	/**
+	 * DisplayTrending(): Add the trending data for the provided stock to a frame. The current price and name are taken from
+	 * the quote already downloaded for this refresh
+	 * 
+	 * @param symb
+	 * @param quote
+	 * @param frame
+	 */
+	public void displayTrend(String symb, Quote quote, Frame frame) {
 		int graphWidth;
-		Float slotsPerCostUnit;
+		long costRange;
 		int lengthOfCurrentPrice;
 
-		// Calculate the largest value and smallest value for the security in the historical data
-		Float lv = largestMapValue(resultMap);
-		String lvStr = String.format("%.2f", lv);		// lv String to 2 decimals
-		Float sv = smallestMapValue(resultMap);
-		String svStr = String.format("%.2f", sv);		// sv String to 2 decimals
+		// Nothing to graph if the history could not be downloaded and none was saved
+		if (series.isEmpty()) {
+			frame.println(Ansi.Color.RED, "\nCould not read historical data for '" + symb + "'");
+			return;
+		}
+
+		if (Main.cli.clCompactTrend == true) {
+			displayCompactTrend(symb, quote, frame);
+			return;
+		}
 
-		Output.debugPrintln("Largest Value in Historical Data:  " + lv);
-		Output.debugPrintln("Smallest Value in Historical Data: " + sv);
+		// Calculate the largest value and smallest value for the security in the historical data
+		long trendHigh = series.maxHigh(0, series.size());
+		long trendLow = series.minLow(0, series.size());
+
+		// The graph also covers the indicators drawn on it. The rest are displayed as columns
+		long lv = trendHigh;
+		long sv = trendLow;
+		int columnsWidth = 0;
+		for (Indicators.Column c : INDICATORS) {
+			if (c.overlay == false) {
+				columnsWidth += c.width;
+				continue;
+			}
+			for (int i = 0; i < series.size(); i++) {
+				long value = indicators.get(c, i);
+				if (Price.isMissing(value) == false) {
+					lv = Math.max(lv, value);
+					sv = Math.min(sv, value);
+				}
+			}
+		}
+		String lvStr = Price.format(lv, 2, 0, false, false);		// lv String to 2 decimals
+		String svStr = Price.format(sv, 2, 0, false, false);		// sv String to 2 decimals
 
-		// Create a symbol object with IEXCloud Data
-		Symbol symbolData = new Symbol(symb);
+		Output.debugPrintln("Largest Value in Historical Data:  " + Price.toString(lv));
+		Output.debugPrintln("Smallest Value in Historical Data: " + Price.toString(sv));
 
-		// Determine the output width. GraphWidth is TotalWidth - DateWidth - dailyLow/Close/High
-		lengthOfCurrentPrice = symbolData.get("latestPrice").toString().length();
-		graphWidth = Main.cli.clWidth - 10 - (lengthOfCurrentPrice * 3 + 10);
+		// Determine the output width. GraphWidth is TotalWidth - DateWidth - dailyLow/Close/High - indicator columns
+		lengthOfCurrentPrice = quote.get("latestPrice").length();
+		graphWidth = Main.cli.clWidth - 10 - (lengthOfCurrentPrice * 3 + 10) - columnsWidth;
 
 		Output.debugPrintln("Trending Graph Width set to: " + graphWidth);
 
-		// Determine how many spaces per dollar
-		slotsPerCostUnit = graphWidth / (lv - sv);
+		// Determine the price range the graph covers. Slots are calculated exactly as (value * graphWidth / costRange)
+		costRange = Math.max(lv - sv, 1);
 		Output.debugPrintln("Map Slots: " + graphWidth);
-		Output.debugPrintln("Slots per Cost Unit: " + slotsPerCostUnit);
+		Output.debugPrintln("Cost Range: " + Price.toString(costRange));
 
 		// Display the symbol informational header
-		Output.printColorln(Ansi.Color.WHITE, "\n\n+--" + String.format("%02d", NUM_DAYS_IN_TREND) + " Day Trend" + "-".repeat(graphWidth - 2) + "+");
-		Output.printColorln(Ansi.Color.YELLOW, symb.toUpperCase() + " : " + symbolData.get("fullname"));
-		Output.printColorln(Ansi.Color.YELLOW, "Current Price:   " + symbolData.get("latestPrice"));
-		Output.printColorln(Ansi.Color.YELLOW, NUM_DAYS_IN_TREND + " Day Low:     " + String.format("%,.2f", sv));
-		Output.printColorln(Ansi.Color.YELLOW, NUM_DAYS_IN_TREND + " Day High:    " + String.format("%,.2f", lv));
-		Output.printColorln(Ansi.Color.WHITE, "+" + "-".repeat(graphWidth + 12) + "+\n");
+		String title = queryTrendTitle();
+		frame.println(Ansi.Color.WHITE, "\n\n+--" + title + "-".repeat(Math.max(2, graphWidth + 10 - title.length())) + "+");
+		frame.println(Ansi.Color.YELLOW, symb.toUpperCase() + " : " + quote.get("fullname"));
+		frame.println(Ansi.Color.YELLOW, "Current Price:   " + quote.get("latestPrice"));
+		frame.println(Ansi.Color.YELLOW, NUM_DAYS_IN_TREND + " Day Low:     " + Price.format(trendLow, 2, 0, false, true));
+		frame.println(Ansi.Color.YELLOW, NUM_DAYS_IN_TREND + " Day High:    " + Price.format(trendHigh, 2, 0, false, true));
+		displayIndicatorSummary(frame);
+		frame.println(Ansi.Color.WHITE, "+" + "-".repeat(graphWidth + 12) + "+\n");
 
 		// Display trending title bar
-		String midNumber = String.format("%.2f", ((sv + lv) / 2));
+		String midNumber = Price.format(sv + (lv - sv) / 2, 2, 0, false, false);
 		int titleSpaces1 = (graphWidth / 2) - svStr.length() - ((int) midNumber.length() / 2);
 		int titleSpaces2 = graphWidth - svStr.length() - titleSpaces1 - lvStr.length() - lvStr.length();
 
-		Output.printColorln(Ansi.Color.WHITE, " ".repeat(12) + svStr + " ".repeat(titleSpaces1) + midNumber + " ".repeat(titleSpaces2) + lvStr);
-		Output.printColor(Ansi.Color.CYAN, " ".repeat(11) + "+" + "-".repeat(graphWidth / 2) + "+" + "-".repeat(graphWidth / 2) + "+");
-		Output.printColorln(Ansi.Color.WHITE, "  Low" + " ".repeat(lengthOfCurrentPrice - 1) + "Close" + " ".repeat(lengthOfCurrentPrice - 3) + "High");
+		frame.println(Ansi.Color.WHITE, " ".repeat(12) + svStr + " ".repeat(titleSpaces1) + midNumber + " ".repeat(titleSpaces2) + lvStr);
+		frame.print(Ansi.Color.CYAN, " ".repeat(11) + "+" + "-".repeat(graphWidth / 2) + "+" + "-".repeat(graphWidth / 2) + "+");
+		StringBuilder columnHeaders = new StringBuilder();
+		for (Indicators.Column c : INDICATORS) {
+			if (c.overlay == false) {
+				columnHeaders.append(" ".repeat(c.width - c.header.length())).append(c.header);
+			}
+		}
+		frame.println(Ansi.Color.WHITE, "  Low" + " ".repeat(lengthOfCurrentPrice - 1) + "Close" + " ".repeat(lengthOfCurrentPrice - 3) + "High" + columnHeaders);
 
 		// Loop through the sorted data and display the graph
-		for (Map.Entry<String, Float[]> i : resultMap.entrySet()) {
-			String date = i.getKey();
-			Float close = this.getDayClose(date);
-			Float dailyHigh = this.getDayHigh(date);
-			Float dailyLow = this.getDayLow(date);
+		for (int i = 0; i < series.size(); i++) {
+			String date = LocalDate.ofEpochDay(series.getDay(i)).toString();
+			long close = series.getClose(i);
+			long dailyHigh = series.getHigh(i);
+			long dailyLow = series.getLow(i);
 
 			// Calculate the number of spaces (slots) until we get to daily low value
-			int numInitialSpaces = (int) ((dailyLow - sv) * slotsPerCostUnit);
+			int numInitialSpaces = (int) ((dailyLow - sv) * graphWidth / costRange);
 
 			// Calculate number of dashes from low to close
-			int numLowSpaces = (int) ((close - dailyLow) * slotsPerCostUnit);
+			int numLowSpaces = (int) ((close - dailyLow) * graphWidth / costRange);
 
 			// Calculate number of dashes from close to high
-			int numHighSpaces = (int) ((dailyHigh - close) * slotsPerCostUnit);
+			int numHighSpaces = (int) ((dailyHigh - close) * graphWidth / costRange);
 
 			// Calculate number of spaces at the end
 			int numFinalSpaces = graphWidth - numInitialSpaces - numLowSpaces - numHighSpaces;
 
 			try {
-				Output.printColor(Ansi.Color.CYAN, date + " |");
-				Output.print(" ".repeat(numInitialSpaces));
-				Output.printColor(Ansi.Color.WHITE, "-".repeat(numLowSpaces));
-				Output.printColor(Ansi.Color.YELLOW, "o");
-				Output.printColor(Ansi.Color.WHITE, "-".repeat(numHighSpaces));
-				Output.print(" ".repeat(numFinalSpaces));
-				Output.printColorln(Ansi.Color.CYAN,
-						"| " + String.format("%7.2f ", dailyLow) + String.format("%7.2f ", close) + String.format("%7.2f", dailyHigh));
-			} catch (IllegalArgumentException ex) {
-				System.out.println("**ERROR**");
+				// Draw the range of the bar and then mark the indicators over it
+				char[] cells = (" ".repeat(numInitialSpaces) + "-".repeat(numLowSpaces) + "o" + "-".repeat(numHighSpaces) + " ".repeat(numFinalSpaces)).toCharArray();
+				Ansi.Color[] colors = new Ansi.Color[cells.length];
+				for (int n = 0; n < cells.length; n++) {
+					colors[n] = (cells[n] == ' ') ? Ansi.Color.DEFAULT : Ansi.Color.WHITE;
+				}
+				colors[numInitialSpaces + numLowSpaces] = Ansi.Color.YELLOW;
+
+				StringBuilder columns = new StringBuilder();
+				for (Indicators.Column c : INDICATORS) {
+					long value = indicators.get(c, i);
+					if (c.overlay == false) {
+						columns.append(c.format(value, c.width));
+					} else if (Price.isMissing(value) == false) {
+						int slot = (int) ((value - sv) * graphWidth / costRange);
+						if (cells[slot] != 'o') {
+							cells[slot] = c.marker;
+							colors[slot] = Ansi.Color.MAGENTA;
+						}
+					}
+				}
+
+				frame.print(Ansi.Color.CYAN, date + " |");
+				int start = 0;
+				for (int n = 1; n <= cells.length; n++) {
+					if (n == cells.length || colors[n] != colors[start]) {
+						frame.print(colors[start], new String(cells, start, n - start));
+						start = n;
+					}
+				}
+				frame.println(Ansi.Color.CYAN, "| " + Price.format(dailyLow, 2, 7, false, false) + " " + Price.format(close, 2, 7, false, false) + " "
+						+ Price.format(dailyHigh, 2, 7, false, false) + columns);
+			} catch (IllegalArgumentException | IndexOutOfBoundsException ex) {
+				frame.println(Ansi.Color.RED, "**ERROR**");
 			}
 		}
 
 		// Display the Footer
-		Output.printColorln(Ansi.Color.CYAN, " ".repeat(11) + "+" + "-".repeat(graphWidth / 2) + "+" + "-".repeat(graphWidth / 2) + "+");
-		Output.printColorln(Ansi.Color.WHITE, " ".repeat(12) + svStr + " ".repeat(titleSpaces1) + midNumber + " ".repeat(titleSpaces2) + lvStr + "\n");
+		frame.println(Ansi.Color.CYAN, " ".repeat(11) + "+" + "-".repeat(graphWidth / 2) + "+" + "-".repeat(graphWidth / 2) + "+");
+		frame.println(Ansi.Color.WHITE, " ".repeat(12) + svStr + " ".repeat(titleSpaces1) + midNumber + " ".repeat(titleSpaces2) + lvStr + "\n");
+
+		// Show which marks on the graph are indicators
+		StringBuilder legend = new StringBuilder();
+		for (Indicators.Column c : INDICATORS) {
+			if (c.overlay == true) {
+				legend.append("  ").append(c.marker).append(" = ").append(c.header);
+			}
+		}
+		if (legend.length() > 0) {
+			frame.println(Ansi.Color.MAGENTA, " ".repeat(10) + legend + "\n");
+		}
 
 		// Show the dollars / space in the graph
-		String costPerSlotStr = String.format("Note: Each space on the graph is $%.2f\n", ((lv - sv) / graphWidth));
-		Output.printColorln(Ansi.Color.CYAN, " ".repeat(12 + graphWidth / 2 - costPerSlotStr.length() / 2) + costPerSlotStr);
+		String costPerSlotStr = "Note: Each space on the graph is $" + Price.format(costRange / graphWidth, 2, 0, false, false) + "\n";
+		frame.println(Ansi.Color.CYAN, " ".repeat(12 + graphWidth / 2 - costPerSlotStr.length() / 2) + costPerSlotStr);
 
 	}
 }
\ No newline at end of file
@@ -0,0 +1,329 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.fross.library.Output;
+
+/**
+ * HistoryCsvParser: Reads the daily history CSV download from MarketWatch a byte at a time as it arrives. The date,
+ * open, high, low, close, and volume columns are decoded directly into a PriceSeries without creating a String for each
+ * row. Rows look like:
+ * 
+ * <pre>
+ *   Date,Open,High,Low,Close,Volume
+ *   02/14/2024,"185.00","186.50","183.20","184.15","12,345,678"
+ * </pre>
+ * 
+ * Dates may also be given as YYYY-MM-DD. Rows without a valid date, high, low, and close, such as the header, are skipped.
+ *
+ */
+public final class HistoryCsvParser {
+	// Class Constants
+	private static final int BUFFER_SIZE = 8192;
+	private static final int DATE = 0;
+	private static final int OPEN = 1;
+	private static final int HIGH = 2;
+	private static final int LOW = 3;
+	private static final int CLOSE = 4;
+	private static final int VOLUME = 5;
+	private static final int FIELDS = 6;
+	private static final int[] DAYS_IN_MONTH = { 31, 29, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31 };
+
+	// Class Variables
+	private final PriceSeries series = new PriceSeries();
+	private final long[] values = new long[FIELDS];
+	private int field = 0;
+	private boolean inQuotes = false;
+	private boolean rowStarted = false;
+	private int skippedRows = 0;
+
+	// The date being read
+	private final int[] dateParts = new int[3];
+	private final int[] dateDigits = new int[3];
+	private int datePart = 0;
+	private boolean dateInvalid = false;
+
+	// The number being read
+	private long units = 0;
+	private int decimals = 0;
+	private boolean negative = false;
+	private boolean signSeen = false;
+	private boolean pointSeen = false;
+	private boolean digitSeen = false;
+	private boolean roundUp = false;
+	private boolean numberInvalid = false;
+
+	/**
+	 * parse(): Read the entire stream and return the days found in ascending order
+	 * 
+	 * @param input
+	 * @return
+	 * @throws IOException
+	 */
+	public static PriceSeries parse(InputStream input) throws IOException {
+		HistoryCsvParser parser = new HistoryCsvParser();
+		byte[] buffer = new byte[BUFFER_SIZE];
+
+		int bytesRead;
+		while ((bytesRead = input.read(buffer)) != -1) {
+			parser.feed(buffer, 0, bytesRead);
+		}
+		return parser.finish();
+	}
+
+	/**
+	 * feed(): Parse the next block of the download. Rows may be split across blocks
+	 * 
+	 * @param buffer
+	 * @param offset
+	 * @param length
+	 */
+	public void feed(byte[] buffer, int offset, int length) {
+		for (int i = offset; i < offset + length; i++) {
+			byte b = buffer[i];
+
+			if (b == '\n') {
+				endField();
+				endRow();
+				continue;
+			}
+			if (b == '\r') {
+				continue;
+			}
+			this.rowStarted = true;
+
+			if (b == '"') {
+				this.inQuotes = !this.inQuotes;
+			} else if (b == ',' && this.inQuotes == false) {
+				endField();
+			} else if (this.field == DATE) {
+				readDate(b);
+			} else if (this.field < FIELDS) {
+				readNumber(b);
+			}
+		}
+	}
+
+	/**
+	 * finish(): Complete the last row and return the days found in ascending order
+	 * 
+	 * @return
+	 */
+	public PriceSeries finish() {
+		if (this.rowStarted == true) {
+			endField();
+			endRow();
+		}
+
+		if (this.skippedRows > 0) {
+			Output.debugPrintln("Skipped " + this.skippedRows + " incomplete rows of historical data");
+		}
+
+		this.series.sortByDay();
+		return this.series;
+	}
+
+	/**
+	 * readDate(): Add a character to the date. Either MM/DD/YYYY or YYYY-MM-DD
+	 * 
+	 * @param b
+	 */
+	private void readDate(byte b) {
+		if (b >= '0' && b <= '9') {
+			if (this.dateDigits[this.datePart] >= 4) {
+				this.dateInvalid = true;
+			} else {
+				this.dateParts[this.datePart] = this.dateParts[this.datePart] * 10 + (b - '0');
+				this.dateDigits[this.datePart]++;
+			}
+		} else if (b == '/' || b == '-') {
+			if (this.datePart == 2) {
+				this.dateInvalid = true;
+			} else {
+				this.datePart++;
+			}
+		} else if (b != ' ' && b != '\t') {
+			this.dateInvalid = true;
+		}
+	}
+
+	/**
+	 * readNumber(): Add a character to the number. '$', ',' and spaces are ignored
+	 * 
+	 * @param b
+	 */
+	private void readNumber(byte b) {
+		if (b >= '0' && b <= '9') {
+			if (this.pointSeen == false || this.decimals < Price.SCALE) {
+				this.decimals += this.pointSeen ? 1 : 0;
+				this.units = Price.appendDigit(this.units, this.decimals, b - '0');
+				if (this.units < 0) {
+					this.numberInvalid = true;
+					this.units = 0;
+				}
+			} else if (this.decimals == Price.SCALE) {
+				// Only the first digit past the scale decides the rounding
+				this.roundUp = (b >= '5');
+				this.decimals++;
+			}
+			this.digitSeen = true;
+
+		} else if (b == '.') {
+			this.numberInvalid |= this.pointSeen;
+			this.pointSeen = true;
+
+		} else if (b == '-' || b == '+') {
+			this.numberInvalid |= (this.signSeen || this.digitSeen || this.pointSeen);
+			this.signSeen = true;
+			this.negative = (b == '-');
+
+		} else if (b != '$' && b != ',' && b != ' ' && b != '\t') {
+			this.numberInvalid = true;
+		}
+	}
+
+	/**
+	 * endField(): Store the value of the field just read and move to the next one
+	 */
+	private void endField() {
+		if (this.field == DATE) {
+			this.values[DATE] = finishDate();
+		} else if (this.field < FIELDS) {
+			this.values[this.field] = finishNumber();
+		}
+		this.field++;
+	}
+
+	/**
+	 * endRow(): Add the row to the series if it has a valid date, high, low, and close
+	 */
+	private void endRow() {
+		if (this.rowStarted == true) {
+			boolean complete = this.field > CLOSE && this.values[DATE] != Long.MIN_VALUE && Price.isMissing(this.values[HIGH]) == false
+					&& Price.isMissing(this.values[LOW]) == false && Price.isMissing(this.values[CLOSE]) == false;
+
+			if (complete == true) {
+				long volume = (this.field > VOLUME && Price.isMissing(this.values[VOLUME]) == false) ? this.values[VOLUME] / Price.ONE : 0;
+				this.series.add((int) this.values[DATE], this.values[OPEN], this.values[HIGH], this.values[LOW], this.values[CLOSE], volume);
+			} else {
+				this.skippedRows++;
+			}
+		}
+
+		this.field = 0;
+		this.inQuotes = false;
+		this.rowStarted = false;
+	}
+
+	/**
+	 * finishDate(): Return the date read as days since 1970-01-01 and reset for the next one. Long.MIN_VALUE is returned if
+	 * it isn't a valid date
+	 * 
+	 * @return
+	 */
+	private long finishDate() {
+		long result = Long.MIN_VALUE;
+
+		if (this.dateInvalid == false && this.datePart == 2 && this.dateDigits[0] > 0 && this.dateDigits[1] > 0 && this.dateDigits[2] > 0) {
+			int year;
+			int month;
+			int day;
+			if (this.dateDigits[0] == 4) {
+				year = this.dateParts[0];
+				month = this.dateParts[1];
+				day = this.dateParts[2];
+			} else {
+				month = this.dateParts[0];
+				day = this.dateParts[1];
+				year = (this.dateDigits[2] <= 2) ? 2000 + this.dateParts[2] : this.dateParts[2];
+			}
+			result = epochDay(year, month, day);
+		}
+
+		for (int i = 0; i < 3; i++) {
+			this.dateParts[i] = 0;
+			this.dateDigits[i] = 0;
+		}
+		this.datePart = 0;
+		this.dateInvalid = false;
+		return result;
+	}
+
+	/**
+	 * finishNumber(): Return the number read as a fixed point value and reset for the next one. Price.MISSING is returned
+	 * if it isn't a number
+	 * 
+	 * @return
+	 */
+	private long finishNumber() {
+		long result = Price.MISSING;
+
+		if (this.numberInvalid == false && this.digitSeen == true) {
+			result = Price.toFixedPoint(this.units, Math.min(this.decimals, Price.SCALE), this.roundUp, this.negative);
+		}
+
+		this.units = 0;
+		this.decimals = 0;
+		this.negative = false;
+		this.signSeen = false;
+		this.pointSeen = false;
+		this.digitSeen = false;
+		this.roundUp = false;
+		this.numberInvalid = false;
+		return result;
+	}
+
+	/**
+	 * epochDay(): Return the number of days from 1970-01-01 to the provided date or Long.MIN_VALUE if it doesn't exist
+	 * 
+	 * @param year
+	 * @param month
+	 * @param day
+	 * @return
+	 */
+	static long epochDay(int year, int month, int day) {
+		if (month < 1 || month > 12 || day < 1 || day > DAYS_IN_MONTH[month - 1]) {
+			return Long.MIN_VALUE;
+		}
+		boolean leapYear = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+		if (month == 2 && day == 29 && leapYear == false) {
+			return Long.MIN_VALUE;
+		}
+
+		// Count from March so the leap day is at the end of the year
+		long y = (month <= 2) ? year - 1 : year;
+		long era = Math.floorDiv(y, 400);
+		long yearOfEra = y - era * 400;
+		long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+		long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+		return era * 146097 + dayOfEra - 719468;
+	}
+
+}
@@ -0,0 +1,175 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+
+import org.fross.library.Output;
+
+/**
+ * HistoryStore: Saves the daily historical data for each symbol to disk so later trend displays only need to download the
+ * days that are missing.
+ * 
+ * Each symbol is stored in its own file with the values held in columns: a header, then every date, then every open,
+ * every high, every low, every close, and every volume. Dates are stored as the number of days since 1970-01-01 and prices as fixed point values
+ * (see Price). Files written by an older version are ignored and the history is downloaded again.
+ *
+ */
+public class HistoryStore {
+	// Class Constants
+	public static final Path DEFAULT_DIRECTORY = Paths.get(System.getProperty("user.home"), ".quoter", "history");
+	private static final int MAGIC = 0x51485354;		// "QHST"
+	private static final int VERSION = 3;
+
+	// Class Variables
+	private static Path storeDirectory = DEFAULT_DIRECTORY;
+
+	/**
+	 * setDirectory(): Change the location the history files are stored
+	 * 
+	 * @param directory
+	 */
+	public static synchronized void setDirectory(Path directory) {
+		storeDirectory = directory;
+	}
+
+	/**
+	 * load(): Return the saved history for the provided symbol or null if there isn't any
+	 * 
+	 * @param symb
+	 * @return
+	 */
+	public static StoredHistory load(String symb) {
+		try (DataInputStream dis = new DataInputStream(Files.newInputStream(historyPath(symb)))) {
+			if (dis.readInt() != MAGIC || dis.readInt() != VERSION) {
+				Output.debugPrintln("Ignoring history file for '" + symb + "' in an unknown format");
+				return null;
+			}
+
+			LocalDate coveredFrom = LocalDate.ofEpochDay(dis.readInt());
+			int count = dis.readInt();
+
+			int[] days = new int[count];
+			long[][] columns = new long[5][count];
+
+			for (int i = 0; i < count; i++)
+				days[i] = dis.readInt();
+			for (long[] column : columns) {
+				for (int i = 0; i < count; i++)
+					column[i] = dis.readLong();
+			}
+
+			PriceSeries series = new PriceSeries(count);
+			for (int i = 0; i < count; i++) {
+				series.add(days[i], columns[0][i], columns[1][i], columns[2][i], columns[3][i], columns[4][i]);
+			}
+			series.sortByDay();
+
+			Output.debugPrintln("Loaded " + count + " saved days of history for '" + symb + "' covering from " + coveredFrom);
+			return new StoredHistory(coveredFrom, series);
+
+		} catch (NoSuchFileException ex) {
+			return null;
+		} catch (IOException ex) {
+			Output.debugPrintln("Could not read history file for '" + symb + "': " + ex.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * save(): Write the history for the provided symbol. coveredFrom is the earliest date that has been downloaded, which
+	 * may be before the first bar if the market was closed. Failures are ignored as the store is only an optimization
+	 * 
+	 * @param symb
+	 * @param coveredFrom
+	 * @param series
+	 */
+	public static void save(String symb, LocalDate coveredFrom, PriceSeries series) {
+		int count = series.size();
+
+		try {
+			ByteArrayOutputStream content = new ByteArrayOutputStream(16 + count * 44);
+			DataOutputStream dos = new DataOutputStream(content);
+
+			dos.writeInt(MAGIC);
+			dos.writeInt(VERSION);
+			dos.writeInt((int) coveredFrom.toEpochDay());
+			dos.writeInt(count);
+
+			for (int i = 0; i < count; i++)
+				dos.writeInt(series.getDay(i));
+			for (int i = 0; i < count; i++)
+				dos.writeLong(series.getOpen(i));
+			for (int i = 0; i < count; i++)
+				dos.writeLong(series.getHigh(i));
+			for (int i = 0; i < count; i++)
+				dos.writeLong(series.getLow(i));
+			for (int i = 0; i < count; i++)
+				dos.writeLong(series.getClose(i));
+			for (int i = 0; i < count; i++)
+				dos.writeLong(series.getVolume(i));
+
+			dos.flush();
+			QuoteCache.replaceFile(historyPath(symb), content.toByteArray());
+
+		} catch (IOException ex) {
+			Output.debugPrintln("Could not write history file for '" + symb + "': " + ex.getMessage());
+		}
+	}
+
+	/**
+	 * historyPath(): Return the file used to store the provided symbol
+	 * 
+	 * @param symb
+	 * @return
+	 */
+	private static synchronized Path historyPath(String symb) {
+		return storeDirectory.resolve(QuoteCache.safeName(symb) + ".bin");
+	}
+
+	/**
+	 * StoredHistory: The saved days for a symbol and the earliest date that was downloaded
+	 */
+	public static class StoredHistory {
+		final LocalDate coveredFrom;
+		final PriceSeries series;
+
+		StoredHistory(LocalDate coveredFrom, PriceSeries series) {
+			this.coveredFrom = coveredFrom;
+			this.series = series;
+		}
+	}
+
+}
@@ -0,0 +1,259 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.fross.library.Output;
+import org.jsoup.HttpStatusException;
+
+/**
+ * HttpTransport: A single HTTP client shared by everything that downloads data. Connections are pooled and kept alive
+ * between requests to the same host, HTTP/2 is used when the server supports it, and compressed responses are decoded.
+ *
+ */
+public class HttpTransport {
+	// Class Constants
+	protected static final String USER_AGENT = "Mozilla";
+	protected static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+	// Shared transport used by the whole program
+	private static final HttpTransport shared = new HttpTransport(
+			HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).followRedirects(HttpClient.Redirect.NORMAL).connectTimeout(TIMEOUT).build());
+
+	// Class Variables
+	private final HttpClient client;
+	private final Map<String, Validators> validators = new ConcurrentHashMap<>();
+
+	/**
+	 * HttpTransport Constructor(): Wrap the provided client
+	 * 
+	 * @param client
+	 */
+	protected HttpTransport(HttpClient client) {
+		this.client = client;
+	}
+
+	/**
+	 * getShared(): Return the transport shared by the whole program
+	 * 
+	 * @return
+	 */
+	public static HttpTransport getShared() {
+		return shared;
+	}
+
+	/**
+	 * get(): Request the provided URL and return the response. The body is decompressed if needed and must be closed by the
+	 * caller. A HttpStatusException is thrown if the server does not return a success status
+	 * 
+	 * @param url
+	 * @return
+	 * @throws IOException
+	 */
+	public Response get(String url) throws IOException {
+		return get(url, false);
+	}
+
+	/**
+	 * get(): Request the provided URL. If conditional is true and the ETag or Last-Modified values saved with
+	 * saveValidators() for this URL are known, they are sent to the server. If the page has not changed the returned response
+	 * has isNotModified() set and an empty body
+	 * 
+	 * @param url
+	 * @param conditional
+	 * @return
+	 * @throws IOException
+	 */
+	public Response get(String url, boolean conditional) throws IOException {
+		HttpRequest.Builder requestBuilder = HttpRequest.newBuilder(URI.create(url)).timeout(TIMEOUT).header("User-Agent", USER_AGENT)
+				.header("Accept-Encoding", "gzip, deflate").GET();
+
+		// Add the saved validators so the server can respond with 304 Not Modified
+		Validators saved = conditional ? this.validators.get(url) : null;
+		if (saved != null) {
+			if (saved.eTag != null) {
+				requestBuilder.header("If-None-Match", saved.eTag);
+			}
+			if (saved.lastModified != null) {
+				requestBuilder.header("If-Modified-Since", saved.lastModified);
+			}
+		}
+
+		HttpResponse<InputStream> httpResponse;
+		try {
+			httpResponse = this.client.send(requestBuilder.build(), HttpResponse.BodyHandlers.ofInputStream());
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Request interrupted: '" + url + "'", ex);
+		}
+
+		Output.debugPrintln("HTTP " + httpResponse.statusCode() + " (" + httpResponse.version() + ") for '" + url + "'");
+
+		if (httpResponse.statusCode() == 304 && saved != null) {
+			httpResponse.body().close();
+			return new Response(304, InputStream.nullInputStream(), StandardCharsets.UTF_8, null, null);
+		}
+
+		if (httpResponse.statusCode() < 200 || httpResponse.statusCode() > 299) {
+			httpResponse.body().close();
+			throw new HttpStatusException("HTTP error fetching URL", httpResponse.statusCode(), url);
+		}
+
+		// The validators are returned with the response and only saved once the caller has read the whole page
+		String eTag = httpResponse.headers().firstValue("ETag").orElse(null);
+		String lastModified = httpResponse.headers().firstValue("Last-Modified").orElse(null);
+		return new Response(httpResponse.statusCode(), decode(httpResponse), charset(httpResponse), eTag, lastModified);
+	}
+
+	/**
+	 * saveValidators(): Remember the ETag and Last-Modified values of a response for the next conditional request of the
+	 * URL. Call this only after the body has been read successfully, otherwise a 304 would be answered for a page that was
+	 * never read
+	 * 
+	 * @param url
+	 * @param response
+	 */
+	public void saveValidators(String url, Response response) {
+		if (response.eTag != null || response.lastModified != null) {
+			this.validators.put(url, new Validators(response.eTag, response.lastModified));
+		} else {
+			this.validators.remove(url);
+		}
+	}
+
+	/**
+	 * getString(): Request the provided URL and return the entire body as a string
+	 * 
+	 * @param url
+	 * @return
+	 * @throws IOException
+	 */
+	public String getString(String url) throws IOException {
+		Response response = get(url);
+		try (InputStream body = response.body) {
+			return new String(body.readAllBytes(), response.charset);
+		}
+	}
+
+	/**
+	 * decode(): Wrap the body in a decompressing stream if the server compressed it
+	 * 
+	 * @param httpResponse
+	 * @return
+	 * @throws IOException
+	 */
+	private static InputStream decode(HttpResponse<InputStream> httpResponse) throws IOException {
+		String encoding = httpResponse.headers().firstValue("Content-Encoding").orElse("").trim().toLowerCase(Locale.ROOT);
+
+		switch (encoding) {
+		case "gzip":
+		case "x-gzip":
+			return new GZIPInputStream(httpResponse.body());
+		case "deflate":
+			return new InflaterInputStream(httpResponse.body());
+		default:
+			return httpResponse.body();
+		}
+	}
+
+	/**
+	 * charset(): Determine the character set from the Content-Type header. Defaults to UTF-8
+	 * 
+	 * @param httpResponse
+	 * @return
+	 */
+	private static Charset charset(HttpResponse<InputStream> httpResponse) {
+		String contentType = httpResponse.headers().firstValue("Content-Type").orElse("");
+
+		for (String param : contentType.split(";")) {
+			param = param.trim();
+			if (param.toLowerCase(Locale.ROOT).startsWith("charset=")) {
+				try {
+					return Charset.forName(param.substring(8).replace("\"", "").trim());
+				} catch (Exception ex) {
+					Output.debugPrintln("Unknown charset '" + param + "'. Using UTF-8");
+				}
+			}
+		}
+
+		return StandardCharsets.UTF_8;
+	}
+
+	/**
+	 * Response: The status, decoded body stream, character set, and validators of a successful request
+	 */
+	public static class Response {
+		final int statusCode;
+		final InputStream body;
+		final Charset charset;
+		final String eTag;
+		final String lastModified;
+
+		Response(int statusCode, InputStream body, Charset charset, String eTag, String lastModified) {
+			this.statusCode = statusCode;
+			this.body = body;
+			this.charset = charset;
+			this.eTag = eTag;
+			this.lastModified = lastModified;
+		}
+
+		/**
+		 * isNotModified(): Return true if the server reported the page has not changed since the last request
+		 */
+		boolean isNotModified() {
+			return this.statusCode == 304;
+		}
+	}
+
+	/**
+	 * Validators: The ETag and Last-Modified values returned with a page
+	 */
+	private static class Validators {
+		final String eTag;
+		final String lastModified;
+
+		Validators(String eTag, String lastModified) {
+			this.eTag = eTag;
+			this.lastModified = lastModified;
+		}
+	}
+
+}
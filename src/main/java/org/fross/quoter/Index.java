@@ -28,22 +28,16 @@
 package org.fross.quoter;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.fross.library.Debug;
 import org.fross.library.Output;
-import org.fusesource.jansi.Ansi;
+import org.fross.quoter.XPathLookup.PageType;
 import org.jsoup.HttpStatusException;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
-
-import us.codecraft.xsoup.Xsoup;
 
 public class Index {
-	HashMap<String, String> indexData = new HashMap<>();
-	XPathLookup xPathLookup = new XPathLookup();
+	private Quote quote;
 
 	/**
 	 * Symbol Constructor(): Initialize class with a symbol to process
@@ -51,39 +45,40 @@ public class Index {
 	 * @param symb
 	 */
 	public Index(String idx) {
-		getIndex(idx);
+		this(idx, MarketState.getSnapshot());
 	}
 
+	/**
+	 * Index Constructor(): Initialize class with an index to process using an already retrieved market state
+	 * 
+	 * @param idx
+	 * @param marketState
+	 */
+	public Index(String idx, MarketState marketState) {
+		this.quote = getIndex(idx, marketState);
+	}
 
 	/**
-	 * queryPageItem():Find the specific value in the provided doc with the xPath given
+	 * getQuote(): Returns the parsed index details
 	 * 
-	 * @param doc
-	 * @param xPath
 	 * @return
 	 */
-	protected static String queryPageItem(Document doc, String xPath) {
-		List<Element> elements = Xsoup.compile(xPath).evaluate(doc).getElements();
-		return elements.get(0).text();
+	protected Quote getQuote() {
+		return this.quote;
 	}
 
 	/**
-	 * get(): Returns security detail based on passed field
+	 * get(): Returns index detail based on passed field
 	 * 
 	 * @param field
 	 * @return
 	 */
 	protected String get(String field) {
-		try {
-			return this.indexData.get(field);
-		} catch (Exception ex) {
-			Output.printColorln(Ansi.Color.RED, "Could not query '" + field + "' field in security data");
-			throw new IllegalArgumentException();
-		}
+		return this.quote.get(field);
 	}
 
 	/**
-	 * put(): Update a value in the objects symbolData HashMap
+	 * put(): Update a value in the index details
 	 * 
 	 * @param field
 	 * @param value
@@ -91,7 +86,7 @@ public class Index {
 	 */
 	protected boolean put(String field, String value) {
 		try {
-			indexData.put(field, value);
+			this.quote = this.quote.with(field, value);
 		} catch (Exception ex) {
 			return false;
 		}
@@ -99,18 +94,12 @@ public class Index {
 	}
 
 	/**
-	 * getAllFieldNames(): Return an array of all of the keys in the HashMap
+	 * getAllFieldNames(): Return a list of all of the index detail fields
 	 * 
 	 * @return
 	 */
 	protected List<String> getAllFieldNames() {
-		List<String> returnList = new ArrayList<String>();
-
-		for (String i : this.indexData.keySet()) {
-			returnList.add(i);
-		}
-
-		return returnList;
+		return new ArrayList<String>(this.quote.getFieldNames());
 	}
 
 	/**
@@ -120,11 +109,11 @@ public class Index {
 	 * The XPaths were determined by using the dev tools in Chrome, selecting the element, and using copy XPath
 	 * 
 	 * @param idx
+	 * @param marketState
 	 * @return
 	 */
-	private void getIndex(String idx) {
+	private Quote getIndex(String idx, MarketState marketState) {
 		String URL = "https://www.marketwatch.com/investing/index/SYMBOLHERE";
-		Document htmlPage = null;
 
 		// Ensure a valid value was passed
 		switch (idx.toUpperCase()) {
@@ -142,126 +131,51 @@ public class Index {
 			break;
 		}
 
+		// Use the saved copy if another run of Quoter fetched this index recently
+		String cacheKey = QuoteCache.key("index", idx, marketState.isOpen());
+		Map<String, String> cached = QuoteCache.get(cacheKey);
+		if (cached != null) {
+			return Quote.fromMap(PageType.INDEX, cached);
+		}
+
 		Output.debugPrintln("Index URL rewritten to: " + URL);
-		// Add index name to hash
-		indexData.put("index", idx);
 
 		try {
-			// Download and parse the the webpage with xSoup
-			try {
-				htmlPage = Jsoup.connect(URL).userAgent("Mozilla").get();
-			} catch (HttpStatusException ex) {
-				this.indexData.put("status", "error");
-				return;
-			}
-
-			// Add the name to the hash
-			this.indexData.put("index", idx);
-			this.indexData.put("status", "ok");
-
 			// MarketWatch has different XPaths depending if the market is open or closed
-			if (MarketState.queryMarketOpen() == false) {
-				// Market is CLOSED
+			if (marketState.isOpen() == false) {
 				Output.debugPrintln("Market is currently CLOSED");
-
-				// Current Price
-				String key = "latestPrice";
-				String result = queryPageItem(htmlPage, this.xPathLookup.lookupIndexClosed(key));
-				indexData.put(key, result.replaceAll("[,%]", "").trim());
-
-				// Change
-				key = "change";
-				result = queryPageItem(htmlPage, this.xPathLookup.lookupIndexClosed(key));
-				indexData.put(key, result.replaceAll("[,%]", "").trim());
-
-				// Change Percent
-				key = "changePercent";
-				result = queryPageItem(htmlPage, this.xPathLookup.lookupIndexClosed(key));
-				indexData.put(key, result.replaceAll("[,%]", "").trim());
-
-				// 52 Week Range
-				key = "52weekRange";
-				result = queryPageItem(htmlPage, this.xPathLookup.lookupIndexClosed(key));
-
-				String w52Low = result.split(" - ")[0];
-				String w52High = result.split(" - ")[1];
-
-				indexData.put("week52Low", w52Low.replaceAll("[,%]", "").trim());
-				indexData.put("week52High", w52High.replaceAll("[,%]", "").trim());
-
-				// Year to Date Change Percent
-				key = "ytdChangePercent";
-				result = queryPageItem(htmlPage, this.xPathLookup.lookupIndexClosed(key));
-				indexData.put(key, result.replaceAll("[,%]", "").trim());
-
-				// One Year Change Percent
-				key = "oneYearChangePercent";
-				result = queryPageItem(htmlPage, this.xPathLookup.lookupIndexClosed(key));
-				indexData.put(key, result.replaceAll("[,%]", "").trim());
-
-				// TimeStamp
-				key = "timeStamp";
-				result = queryPageItem(htmlPage, this.xPathLookup.lookupIndexClosed(key));
-				indexData.put(key, result.replaceAll("[,%]", "").trim());
-
 			} else {
-				// Market is OPEN
 				Output.debugPrintln("Market is currently OPEN");
+			}
 
-				// Current Price
-				String key = "latestPrice";
-				String result = queryPageItem(htmlPage, this.xPathLookup.lookupIndexOpen(key));
-				indexData.put(key, result.replaceAll("[,%]", "").trim());
-
-				// Change
-				key = "change";
-				result = queryPageItem(htmlPage, this.xPathLookup.lookupIndexOpen(key));
-				indexData.put("change", result.replaceAll("[,%]", "").trim());
-
-				// Change Percent
-				key = "changePercent";
-				result = queryPageItem(htmlPage, this.xPathLookup.lookupIndexOpen(key));
-				indexData.put(key, result.replaceAll("[,%]", "").trim());
-
-				// 52 Week Range
-				key = "52weekRange";
-				result = queryPageItem(htmlPage, this.xPathLookup.lookupIndexOpen(key));
-
-				String w52Low = result.split(" - ")[0];
-				String w52High = result.split(" - ")[1];
-
-				indexData.put("week52Low", w52Low.replaceAll("[,%]", "").trim());
-				indexData.put("week52High", w52High.replaceAll("[,%]", "").trim());
-
-				// Year to Date
-				key = "ytdChangePercent";
-				result = queryPageItem(htmlPage, this.xPathLookup.lookupIndexOpen(key));
-				indexData.put(key, result.replaceAll("[,%]", "").trim());
-
-				// One Year Change Percent
-				key = "oneYearChangePercent";
-				result = queryPageItem(htmlPage, this.xPathLookup.lookupIndexOpen(key));
-				indexData.put(key, result.replaceAll("[,%]", "").trim());
+			// Download the webpage and pull out the fields as it arrives. The download stops once they have all been found
+			Map<String, String> pageItems = null;
+			try {
+				pageItems = PageReader.readFields(URL, XPathLookup.extractor(PageType.INDEX, marketState.isOpen()));
+			} catch (HttpStatusException ex) {
+				return Quote.error(PageType.INDEX, idx);
+			}
 
-				// TimeStamp
-				key = "timeStamp";
-				result = queryPageItem(htmlPage, this.xPathLookup.lookupIndexOpen(key));
-				indexData.put(key, result.replaceAll("[,%]", "").trim());
+			// Parse the page text into numbers once
+			Quote result = Quote.fromPage(PageType.INDEX, idx, pageItems);
 
-			}
+			// Save the results so other runs of Quoter can use them
+			QuoteCache.put(cacheKey, result.toMap());
 
 			// If we are in debug mode, display the values we are returning
 			if (Debug.query() == true) {
 				Output.debugPrintln("Index Data Results:");
-				for (String i : indexData.keySet()) {
-					Output.debugPrintln("  - " + i + ": " + this.get(i));
+				for (String i : result.getFieldNames()) {
+					Output.debugPrintln("  - " + i + ": " + result.get(i));
 				}
 			}
 
+			return result;
+
 		} catch (Exception ex) {
-			indexData.put("status", "error");
+			return Quote.error(PageType.INDEX, idx);
 		}
 
 	}
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,391 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Locale;
+
+/**
+ * Indicators: Technical indicators calculated from a PriceSeries. Each indicator is a column of fixed point values with
+ * one entry per bar, and Price.MISSING until there are enough bars to calculate it.
+ * 
+ * The indicators are calculated in a single pass using running sums and smoothed averages so each bar takes the same
+ * amount of work no matter how long the windows are. Calling update() after bars are added to the end of the series only
+ * calculates the new bars. The running totals from before the last bar are kept so a last bar that changes, such as
+ * today's prices during the day, can be removed with removeLast() and calculated again.
+ *
+ */
+public final class Indicators {
+	// Class Constants
+	public static final int DEFAULT_WINDOW = 20;
+	public static final int DEFAULT_WILDER_PERIOD = 14;
+	protected static final double BAND_WIDTH = 2.0;
+
+	// Class Variables
+	private final PriceSeries series;
+	private final int window;
+	private final int wilderPeriod;
+	private final double periodsPerYear;
+	private long[][] values = new long[Column.values().length][0];
+	private int computed = 0;
+
+	// Running totals of the closes in the window. Squares are taken from the first close to keep the doubles accurate
+	private long closeSum = 0;
+	private double shift = 0;
+	private double shiftedSquareSum = 0;
+	private double ema = 0;
+
+	// Wilder's smoothed averages for RSI and ATR
+	private double averageGain = 0;
+	private double averageLoss = 0;
+	private double averageRange = 0;
+
+	// The latest returns in a circular buffer along with their running totals
+	private final double[] returns;
+	private double returnSum = 0;
+	private double returnSquareSum = 0;
+
+	// The running totals from before the last bar was calculated, or null once they can't be used
+	private long savedCloseSum = 0;
+	private double[] savedTotals = null;
+
+	/**
+	 * Indicators Constructor(): Calculate indicators with the default windows
+	 * 
+	 * @param series
+	 * @param periodsPerYear Used to annualize the volatility
+	 */
+	public Indicators(PriceSeries series, double periodsPerYear) {
+		this(series, DEFAULT_WINDOW, DEFAULT_WILDER_PERIOD, periodsPerYear);
+	}
+
+	/**
+	 * Indicators Constructor(): Calculate indicators with the provided windows. The window is used for the moving averages,
+	 * the Bollinger bands, and the volatility. The Wilder period is used for RSI and ATR
+	 * 
+	 * @param series
+	 * @param window
+	 * @param wilderPeriod
+	 * @param periodsPerYear
+	 */
+	public Indicators(PriceSeries series, int window, int wilderPeriod, double periodsPerYear) {
+		if (window < 2 || wilderPeriod < 1) {
+			throw new IllegalArgumentException("Indicator windows are too short");
+		}
+		this.series = series;
+		this.window = window;
+		this.wilderPeriod = wilderPeriod;
+		this.periodsPerYear = periodsPerYear;
+		this.returns = new double[window];
+	}
+
+	/**
+	 * update(): Calculate the indicators for the bars added to the series since the last update
+	 * 
+	 * @return
+	 */
+	public Indicators update() {
+		int size = this.series.size();
+		if (size > this.values[0].length) {
+			int capacity = Math.max(size, this.values[0].length * 2);
+			for (int c = 0; c < this.values.length; c++) {
+				this.values[c] = Arrays.copyOf(this.values[c], capacity);
+			}
+		}
+
+		for (int i = this.computed; i < size; i++) {
+			if (i == size - 1) {
+				saveTotals(i);
+			}
+			calculate(i);
+		}
+		this.computed = size;
+		return this;
+	}
+
+	/**
+	 * removeLast(): Forget the last bar calculated so update() calculates it again once it has been replaced in the series.
+	 * Only one bar can be removed between updates. Returns false if it can't be removed, in which case the indicators need
+	 * to be calculated from the start
+	 * 
+	 * @return
+	 */
+	public boolean removeLast() {
+		if (this.savedTotals == null || this.computed == 0) {
+			return false;
+		}
+
+		int i = this.computed - 1;
+		this.closeSum = this.savedCloseSum;
+		this.shift = this.savedTotals[0];
+		this.shiftedSquareSum = this.savedTotals[1];
+		this.ema = this.savedTotals[2];
+		this.averageGain = this.savedTotals[3];
+		this.averageLoss = this.savedTotals[4];
+		this.averageRange = this.savedTotals[5];
+		this.returnSum = this.savedTotals[6];
+		this.returnSquareSum = this.savedTotals[7];
+		this.returns[returnSlot(i)] = this.savedTotals[8];
+
+		this.computed = i;
+		this.savedTotals = null;
+		return true;
+	}
+
+	/**
+	 * saveTotals(): Keep the running totals before the provided bar is calculated so it can be removed later
+	 * 
+	 * @param i
+	 */
+	private void saveTotals(int i) {
+		this.savedCloseSum = this.closeSum;
+		this.savedTotals = new double[] { this.shift, this.shiftedSquareSum, this.ema, this.averageGain, this.averageLoss, this.averageRange,
+				this.returnSum, this.returnSquareSum, this.returns[returnSlot(i)] };
+	}
+
+	/**
+	 * returnSlot(): Return the position in the circular buffer of the return ending at the provided bar
+	 * 
+	 * @param i
+	 * @return
+	 */
+	private int returnSlot(int i) {
+		return (i > 0) ? (i - 1) % this.window : 0;
+	}
+
+	/**
+	 * size(): Return the number of bars that have been calculated
+	 * 
+	 * @return
+	 */
+	public int size() {
+		return this.computed;
+	}
+
+	/**
+	 * get(): Return the value of an indicator for the provided bar or Price.MISSING if there aren't enough bars yet
+	 * 
+	 * @param column
+	 * @param i
+	 * @return
+	 */
+	public long get(Column column, int i) {
+		if (i < 0 || i >= this.computed) {
+			throw new IndexOutOfBoundsException("Bar " + i + " has not been calculated");
+		}
+		return this.values[column.ordinal()][i];
+	}
+
+	/**
+	 * getLatest(): Return the value of an indicator for the last bar or Price.MISSING if it isn't available
+	 * 
+	 * @param column
+	 * @return
+	 */
+	public long getLatest(Column column) {
+		return (this.computed == 0) ? Price.MISSING : get(column, this.computed - 1);
+	}
+
+	/**
+	 * calculate(): Calculate every indicator for the provided bar from the running totals
+	 * 
+	 * @param i
+	 */
+	private void calculate(int i) {
+		long close = this.series.getClose(i);
+		long high = this.series.getHigh(i);
+		long low = this.series.getLow(i);
+		long previousClose = (i > 0) ? this.series.getClose(i - 1) : close;
+
+		for (int c = 0; c < this.values.length; c++) {
+			this.values[c][i] = Price.MISSING;
+		}
+
+		// Moving averages and Bollinger bands
+		if (i == 0) {
+			this.shift = close;
+		}
+		this.closeSum += close;
+		this.shiftedSquareSum += square(close - this.shift);
+		if (i >= this.window) {
+			long dropped = this.series.getClose(i - this.window);
+			this.closeSum -= dropped;
+			this.shiftedSquareSum -= square(dropped - this.shift);
+		}
+
+		if (i >= this.window - 1) {
+			double mean = (double) this.closeSum / this.window;
+			double shiftedMean = mean - this.shift;
+			double deviation = Math.sqrt(Math.max(0, this.shiftedSquareSum / this.window - shiftedMean * shiftedMean));
+
+			this.ema = (i == this.window - 1) ? mean : this.ema + (close - this.ema) * 2.0 / (this.window + 1);
+
+			set(Column.SMA, i, mean);
+			set(Column.EMA, i, this.ema);
+			set(Column.BB_LOWER, i, mean - BAND_WIDTH * deviation);
+			set(Column.BB_UPPER, i, mean + BAND_WIDTH * deviation);
+		}
+
+		// RSI uses the change in close and starts once there are enough changes to average
+		if (i > 0) {
+			long change = close - previousClose;
+			double gain = Math.max(change, 0);
+			double loss = Math.max(-change, 0);
+
+			if (i <= this.wilderPeriod) {
+				this.averageGain += gain / this.wilderPeriod;
+				this.averageLoss += loss / this.wilderPeriod;
+			} else {
+				this.averageGain += (gain - this.averageGain) / this.wilderPeriod;
+				this.averageLoss += (loss - this.averageLoss) / this.wilderPeriod;
+			}
+
+			if (i >= this.wilderPeriod) {
+				double total = this.averageGain + this.averageLoss;
+				double rsi = (total == 0) ? 50.0 : 100.0 * this.averageGain / total;
+				this.values[Column.RSI.ordinal()][i] = Price.valueOf(rsi);
+			}
+		}
+
+		// ATR averages the true range which includes any gap from the previous close
+		long trueRange = Math.max(high - low, Math.max(Math.abs(high - previousClose), Math.abs(low - previousClose)));
+		if (i < this.wilderPeriod) {
+			this.averageRange += (double) trueRange / this.wilderPeriod;
+		} else {
+			this.averageRange += (trueRange - this.averageRange) / this.wilderPeriod;
+		}
+		if (i >= this.wilderPeriod - 1) {
+			set(Column.ATR, i, this.averageRange);
+		}
+
+		// Volatility is the annualized standard deviation of the log returns in the window
+		if (i > 0) {
+			double r = (close > 0 && previousClose > 0) ? Math.log((double) close / previousClose) : 0;
+			int slot = returnSlot(i);
+			if (i > this.window) {
+				this.returnSum -= this.returns[slot];
+				this.returnSquareSum -= this.returns[slot] * this.returns[slot];
+			}
+			this.returns[slot] = r;
+			this.returnSum += r;
+			this.returnSquareSum += r * r;
+
+			if (i >= this.window) {
+				double mean = this.returnSum / this.window;
+				double variance = Math.max(0, (this.returnSquareSum - mean * this.returnSum) / (this.window - 1));
+				this.values[Column.VOLATILITY.ordinal()][i] = Price.valueOf(Math.sqrt(variance * this.periodsPerYear) * 100);
+			}
+		}
+	}
+
+	/**
+	 * set(): Store a price that was calculated as a double in fixed point units
+	 * 
+	 * @param column
+	 * @param i
+	 * @param units
+	 */
+	private void set(Column column, int i, double units) {
+		this.values[column.ordinal()][i] = Math.round(units);
+	}
+
+	private static double square(double value) {
+		return value * value;
+	}
+
+	/**
+	 * Column: The indicators that can be displayed. Prices are drawn on the trend graph and the rest are added as columns
+	 */
+	public enum Column {
+		SMA("sma", "SMA", 9, 'm', false), EMA("ema", "EMA", 9, 'e', false), BB_LOWER("bb", "BBLow", 9, '(', false),
+		BB_UPPER("bb", "BBHigh", 9, ')', false), RSI("rsi", "RSI", 7, ' ', false), ATR("atr", "ATR", 8, ' ', false),
+		VOLATILITY("vol", "Vol%", 8, ' ', true);
+
+		final String option;
+		final String header;
+		final int width;
+		final char marker;
+		final boolean overlay;
+		final boolean percent;
+
+		Column(String option, String header, int width, char marker, boolean percent) {
+			this.option = option;
+			this.header = header;
+			this.width = width;
+			this.marker = marker;
+			this.overlay = (marker != ' ');
+			this.percent = percent;
+		}
+
+		/**
+		 * format(): Return a value of this column right aligned in the provided width
+		 * 
+		 * @param value
+		 * @param width
+		 * @return
+		 */
+		public String format(long value, int width) {
+			return (this.percent == true) ? Price.formatPercent(value, width, false, true) : Price.format(value, 2, width, false, true);
+		}
+
+		/**
+		 * parseList(): Convert a comma separated list such as 'sma,bb,rsi' into the columns to display. 'all' selects every
+		 * indicator. An IllegalArgumentException is thrown for an unknown name
+		 * 
+		 * @param text
+		 * @return
+		 */
+		public static EnumSet<Column> parseList(String text) {
+			EnumSet<Column> columns = EnumSet.noneOf(Column.class);
+			if (text == null || text.isBlank()) {
+				return columns;
+			}
+
+			for (String name : text.toLowerCase(Locale.ROOT).split(",")) {
+				name = name.trim();
+				if (name.equals("all")) {
+					columns.addAll(EnumSet.allOf(Column.class));
+					continue;
+				}
+
+				boolean found = false;
+				for (Column c : values()) {
+					if (c.option.equals(name)) {
+						columns.add(c);
+						found = true;
+					}
+				}
+				if (found == false) {
+					throw new IllegalArgumentException("Unknown indicator '" + name + "'");
+				}
+			}
+			return columns;
+		}
+	}
+
+}
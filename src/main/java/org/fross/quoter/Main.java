@@ -26,8 +26,6 @@
  ***************************************************************************************************************/
 package org.fross.quoter;
 
-import static org.fusesource.jansi.Ansi.ansi;
-
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Properties;
@@ -104,6 +102,13 @@ public class Main {
 			Debug.enable();
 		}
 
+		// -----------------------------------------------------------------
+		// CLI: Compact trend display implies the trend display
+		// -----------------------------------------------------------------
+		if (cli.clCompactTrend == true) {
+			cli.clTrend = true;
+		}
+
 		// -----------------------------------------------------------------
 		// CLI: list Favorites
 		// -----------------------------------------------------------------
@@ -119,6 +124,13 @@ public class Main {
 			System.exit(0);
 		}
 
+		// -----------------------------------------------------------------
+		// CLI: Quote Cache
+		// -----------------------------------------------------------------
+		if (cli.clCacheTTL > 0) {
+			QuoteCache.configure(QuoteCache.DEFAULT_DIRECTORY, cli.clCacheTTL);
+		}
+
 		// -----------------------------------------------------------------
 		// CLI: Export Data
 		// -----------------------------------------------------------------
@@ -206,56 +218,160 @@ public class Main {
 		}
 
 		// Fetch and display the ticker / index information
-		quoteConsoleOutput.displayOutput(exporter);
+		if (cli.clAutoRefresh <= 0) {
+			quoteConsoleOutput.displayOutput(exporter);
+
+		} else {
+			// Auto-refresh is enabled. Re-display the data every cli.clAutoRefresh seconds. Each refresh is built off-screen and
+			// only the changes from the previous one are written to the console
+			// Only the securities that fit in the console are displayed and downloaded each refresh
+			FrameRenderer frameRenderer = new FrameRenderer(System.out, cli.clNoColor == false);
+			// The size is checked again before each refresh
+			int terminalRows = fitToTerminal(-1, frameRenderer);
+			Frame frame = quoteConsoleOutput.buildFrame(exporter);
 
-		// Auto-refresh is enabled. Re-display the data every cli.clAutoRefresh seconds
-		if (cli.clAutoRefresh > 0) {
 			// Ensure export is not turned on as it will fail after the first iteration
 			// TODO: Maybe split index info and symbol info and keep updating each file?  Fix this.
 			if (!cli.clExport.isEmpty()) {
-				Output.printColor(Ansi.Color.RED, "\nExport not compatable for for refreshed values.  Disabling Export...\n");
+				frame.println(Ansi.Color.RED, "\nExport not compatable for for refreshed values.  Disabling Export...");
 				cli.clExport = "";
 			}
+			frameRenderer.render(frame);
 
-			// Continuous loop displaying the output until user hits enter. The EnterPressed thread picks that up and exits the program
-			while (true) {
-				int countDown = cli.clAutoRefresh;
+			// The wait between refreshes adapts to the US market session and is aligned to the wall clock. The next refresh is
+			// downloaded in the background shortly before it is due so it can be displayed right on time
+			RefreshScheduler refreshScheduler = new RefreshScheduler(cli.clAutoRefresh);
+			RefreshPipeline refreshPipeline = new RefreshPipeline(() -> quoteConsoleOutput.buildFrame(null));
 
-				Output.println("");
+			// Commands typed while refreshing are read by a single background thread for the whole session
+			CommandReader commandReader = new CommandReader(System.in);
+			commandReader.start();
+			boolean paused = false;
 
-				// Start a thread and look for the 'ENTER' key to be hit - then exit quoter
-				EnterPressed ep = new EnterPressed();
-				ep.start();
+			// Continuous loop displaying the output. Wait for either the next one second tick or a command to be entered
+			while (true) {
+				// Fit the securities to the console size before each refresh
+				terminalRows = fitToTerminal(terminalRows, frameRenderer);
+
+				int secondsUntilRefresh = refreshScheduler.secondsUntilNextRefresh();
+				long refreshTime = System.currentTimeMillis() + secondsUntilRefresh * 1000L;
+				int leadTime = refreshPipeline.leadSeconds(secondsUntilRefresh);
+				boolean refreshNow = false;
+
+				while (refreshNow == false) {
+					long remainingMillis = refreshTime - System.currentTimeMillis();
+					if (paused == false && remainingMillis <= 0) {
+						break;
+					}
+					int countDown = (int) ((remainingMillis + 999) / 1000);
 
-				while (countDown > 0) {
-					// Erase the line. Use a large number so it hits the front of the line
-					System.out.print(ansi().cursorLeft(5000));
+					// Start the next refresh once it is close enough to be ready in time
+					if (paused == false && countDown <= leadTime) {
+						refreshPipeline.prefetch();
+					}
 
-					Output.printColor(Ansi.Color.CYAN,
-							Format.CenterText(88, String.format("----- Quoter auto-refreshing in %02d seconds.  Press 'ENTER' to exit -----", countDown)));
+					// Replace the count down line below the output
+					if (paused == true) {
+						frameRenderer.renderStatus(Ansi.Color.YELLOW, Format.CenterText(88, "----- Paused.  'p' to resume, 'r' to refresh, ENTER to exit -----"));
+					} else {
+						frameRenderer.renderStatus(Ansi.Color.CYAN, Format.CenterText(88,
+								String.format("--- Refresh in %02ds  ENTER: exit  r: refresh  p: pause  +SYMB/-SYMB: add/remove ---", countDown)));
+					}
 
-					// Sleep for 1 second
-					try {
-						TimeUnit.MILLISECONDS.sleep(1000);
-					} catch (InterruptedException ex) {
-						Output.fatalError("Error during auto-refresh count down", 0);
+					// Sleep until the count down changes unless a command arrives first
+					long waitMillis = (paused == true) ? 1000 : Math.max(1, (remainingMillis - 1) % 1000 + 1);
+					CommandReader.Command command = commandReader.poll(waitMillis, TimeUnit.MILLISECONDS);
+					if (command == null) {
+						continue;
 					}
 
-					// Decrement the count down timer by 1 second
-					countDown--;
+					// The ENTER that ended the command may have scrolled the console so what is on screen is no longer known
+					frameRenderer.invalidate();
+
+					switch (command.type) {
+					case QUIT:
+						Output.printColorln(Ansi.Color.DEFAULT, "\nExiting...");
+						System.exit(0);
+						break;
+
+					case REFRESH:
+						refreshNow = true;
+						break;
+
+					case PAUSE:
+						// Resuming refreshes right away and then returns to the schedule
+						paused = !paused;
+						refreshNow = (paused == false);
+						break;
+
+					case PAGE_DOWN:
+					case PAGE_UP:
+					case SCROLL_DOWN:
+					case SCROLL_UP:
+						if (command.type == CommandReader.CommandType.PAGE_DOWN || command.type == CommandReader.CommandType.PAGE_UP) {
+							quoteConsoleOutput.page(command.type == CommandReader.CommandType.PAGE_DOWN ? 1 : -1);
+						} else {
+							quoteConsoleOutput.scroll(command.type == CommandReader.CommandType.SCROLL_DOWN ? 1 : -1);
+						}
+
+						// Show the new position right away from the quotes already downloaded. Download now if some have never been
+						frameRenderer.render(quoteConsoleOutput.buildCachedFrame());
+						if (quoteConsoleOutput.isWindowLoaded() == false) {
+							refreshPipeline.invalidate();
+							refreshNow = true;
+						}
+						break;
+
+					case ADD:
+					case REMOVE:
+						for (String symb : command.symbols) {
+							if (command.type == CommandReader.CommandType.ADD) {
+								quoteConsoleOutput.addSymbol(symb);
+							} else {
+								quoteConsoleOutput.removeSymbol(symb);
+							}
+						}
+						refreshPipeline.invalidate();
+						refreshNow = true;
+						break;
+
+					default:
+						Output.debugPrintln("Ignoring unknown command");
+						break;
+					}
 				}
 
-				// Clear the screen before we display the next iteration
-				Output.clearScreen();
-				System.out.flush();
-
-				// Display another set of output
-				quoteConsoleOutput.displayOutput(exporter);
+				// Debug output is written directly to the console so the screen can't be compared. Repaint all of it
+				if (Debug.query() == true) {
+					frameRenderer.invalidate();
+				}
 
+				// Display the refresh that was prepared in the background
+				frameRenderer.render(refreshPipeline.take());
 			}
 
 		}
 
 	}
 
+	/**
+	 * fitToTerminal(): Fit the securities displayed to the console if its height has changed and repaint the whole screen.
+	 * The renderer is told the size too so it doesn't position frames that are too large. Returns the current number of
+	 * rows
+	 * 
+	 * @param terminalRows
+	 * @param frameRenderer
+	 * @return
+	 */
+	private static int fitToTerminal(int terminalRows, FrameRenderer frameRenderer) {
+		int[] size = TerminalSize.query();
+		int currentRows = (size == null) ? 0 : size[0];
+		frameRenderer.setScreenSize(currentRows, (size == null) ? 0 : size[1]);
+		if (currentRows != terminalRows) {
+			quoteConsoleOutput.setTerminalRows(currentRows);
+			frameRenderer.invalidate();
+		}
+		return currentRows;
+	}
+
 }
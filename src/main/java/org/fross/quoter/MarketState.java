@@ -27,12 +27,56 @@
 package org.fross.quoter;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
 
 import org.fross.library.Output;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 
 public class MarketState {
+	// Number of seconds a market state snapshot is considered current
+	protected static final int DEFAULT_TTL_SECONDS = 60;
+	private static final String CACHE_KEY = "marketstate";
+
+	// Shared snapshot for the current refresh cycle
+	private static MarketState cachedSnapshot = null;
+
+	private final boolean marketOpen;
+	private final long timeFetched;
+
+	/**
+	 * MarketState Constructor(): Holds a market open/closed result and the time it was retrieved
+	 * 
+	 * @param marketOpen
+	 * @param timeFetched
+	 */
+	protected MarketState(boolean marketOpen, long timeFetched) {
+		this.marketOpen = marketOpen;
+		this.timeFetched = timeFetched;
+	}
+
+	/**
+	 * getSnapshot(): Return the current market state. The website is only queried if the saved snapshot is older than the TTL
+	 * 
+	 * @return
+	 */
+	protected static synchronized MarketState getSnapshot() {
+		if (cachedSnapshot == null || cachedSnapshot.isExpired(DEFAULT_TTL_SECONDS) == true) {
+			cachedSnapshot = new MarketState(loadMarketOpen(), System.currentTimeMillis());
+		} else {
+			Output.debugPrintln("Using cached market state snapshot");
+		}
+
+		return cachedSnapshot;
+	}
+
+	/**
+	 * invalidate(): Discard the saved snapshot so the next getSnapshot() call queries the website
+	 */
+	protected static synchronized void invalidate() {
+		cachedSnapshot = null;
+	}
 
 	/**
 	 * queryMarketOpen(): Returns if the US index market is currently open
@@ -40,19 +84,65 @@ public class MarketState {
 	 * @return
 	 */
 	protected static boolean queryMarketOpen() {
+		return getSnapshot().isOpen();
+	}
+
+	/**
+	 * isOpen(): Return true if the market was open when this snapshot was taken
+	 * 
+	 * @return
+	 */
+	protected boolean isOpen() {
+		return this.marketOpen;
+	}
+
+	/**
+	 * isExpired(): Return true if this snapshot is older than the provided number of seconds
+	 * 
+	 * @param ttlSeconds
+	 * @return
+	 */
+	protected boolean isExpired(int ttlSeconds) {
+		return (System.currentTimeMillis() - this.timeFetched) >= (ttlSeconds * 1000L);
+	}
+
+	/**
+	 * loadMarketOpen(): Use the market state saved by another run of Quoter if it's recent. Otherwise fetch it
+	 * 
+	 * @return
+	 */
+	private static boolean loadMarketOpen() {
+		Map<String, String> cached = QuoteCache.get(CACHE_KEY);
+		if (cached != null && cached.containsKey("open")) {
+			return Boolean.parseBoolean(cached.get("open"));
+		}
+
+		boolean marketOpen = fetchMarketOpen();
+		QuoteCache.put(CACHE_KEY, Map.of("open", String.valueOf(marketOpen)));
+		return marketOpen;
+	}
+
+	/**
+	 * fetchMarketOpen(): Download the index page and determine if the US index market is currently open
+	 * 
+	 * @return
+	 */
+	private static boolean fetchMarketOpen() {
 		String URL = "https://www.marketwatch.com/investing/index/comp";
 		Document htmlPage = null;
-		XPathLookup xPathLookup = new XPathLookup();
 
 		// Download and parse the the webpage with xSoup
 		try {
-			htmlPage = Jsoup.connect(URL).userAgent("Mozilla").get();
+			HttpTransport.Response response = HttpTransport.getShared().get(URL);
+			try (InputStream body = response.body) {
+				htmlPage = Jsoup.parse(body, response.charset.name(), URL);
+			}
 
 		} catch (IOException ex) {
 			Output.fatalError("FATAL ERROR: Could not determine if the market is open or closed", 7);
 		}
 
-		String marketOpenResult = Symbol.queryPageItem(htmlPage, xPathLookup.lookupIndexOpen("marketStatus")).toLowerCase();
+		String marketOpenResult = Symbol.queryPageItem(htmlPage, XPathLookup.compiled(XPathLookup.PageType.INDEX, true, "marketStatus")).toLowerCase();
 		Output.debugPrintln("MarketOpen result: '" + marketOpenResult + "'");
 
 		if (marketOpenResult.contains("closed") == true) {
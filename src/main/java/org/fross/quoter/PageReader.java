@@ -0,0 +1,194 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.fross.library.Output;
+import org.jsoup.Jsoup;
+
+/**
+ * PageReader: Downloads a page and pulls out the requested fields. The page is read as it arrives and the download is
+ * stopped as soon as every field has been found, so the bottom of large pages is never transferred or parsed.
+ * 
+ * The fields from the last read of each URL are remembered. If the server reports the page is unchanged, or the bytes
+ * the fields were found in are identical to last time, the saved fields are returned without parsing the page again.
+ *
+ */
+public class PageReader {
+	// Amount of the page to read before the first attempt to find the fields. Doubles after each attempt
+	protected static final int FIRST_CHECK_BYTES = 64 * 1024;
+
+	// Size of each read from the network
+	private static final int BUFFER_SIZE = 16 * 1024;
+
+	// Results of the last read of each URL
+	private static final Map<String, ReadResult> lastRead = new ConcurrentHashMap<>();
+
+	/**
+	 * readFields(): Download the provided URL and return the fields defined in the extractor
+	 * 
+	 * @param url
+	 * @param extractor
+	 * @return
+	 * @throws IOException
+	 */
+	public static Map<String, String> readFields(String url, FieldExtractor extractor) throws IOException {
+		// The saved result can only be reused if it was pulled out with the same extractor
+		ReadResult previous = lastRead.get(url);
+		if (previous != null && previous.extractor != extractor) {
+			previous = null;
+		}
+
+		HttpTransport.Response response = HttpTransport.getShared().get(url, previous != null);
+		if (response.isNotModified()) {
+			Output.debugPrintln("Page not modified. Reusing fields from the last read of '" + url + "'");
+			return previous.fields;
+		}
+
+		// The validators are only saved with the fields read from the page they belong to
+		try (InputStream bodyStream = response.body) {
+			ReadResult result = readPage(bodyStream, response.charset, url, extractor, previous);
+			lastRead.put(url, result);
+			HttpTransport.getShared().saveValidators(url, response);
+			return result.fields;
+		}
+	}
+
+	/**
+	 * readFields(): Read the page from the provided stream. The portion read so far is checked each time it doubles in size.
+	 * Once all fields are found the remainder of the stream is not read
+	 * 
+	 * @param bodyStream
+	 * @param charset
+	 * @param url
+	 * @param extractor
+	 * @return
+	 * @throws IOException
+	 */
+	protected static Map<String, String> readFields(InputStream bodyStream, Charset charset, String url, FieldExtractor extractor) throws IOException {
+		return readPage(bodyStream, charset, url, extractor, null).fields;
+	}
+
+	/**
+	 * readPage(): Read the page from the provided stream and return the fields along with a hash of the bytes they were
+	 * found in. If a previous result is provided and the same bytes are read again, it is returned without parsing
+	 * 
+	 * @param bodyStream
+	 * @param charset
+	 * @param url
+	 * @param extractor
+	 * @param previous
+	 * @return
+	 * @throws IOException
+	 */
+	protected static ReadResult readPage(InputStream bodyStream, Charset charset, String url, FieldExtractor extractor, ReadResult previous)
+			throws IOException {
+		ByteArrayOutputStream page = new ByteArrayOutputStream();
+		byte[] buffer = new byte[BUFFER_SIZE];
+		int nextCheck = FIRST_CHECK_BYTES;
+		boolean previousChecked = (previous == null || previous.prefixReusable == false);
+		int bytesRead;
+
+		while ((bytesRead = bodyStream.read(buffer)) != -1) {
+			page.write(buffer, 0, bytesRead);
+
+			// Compare the start of the page with the bytes the previous fields were found in
+			if (previousChecked == false && page.size() >= previous.length) {
+				previousChecked = true;
+				if (Arrays.equals(digest(page.toByteArray(), previous.length), previous.digest)) {
+					Output.debugPrintln("Page content unchanged. Reusing fields from the last read of '" + url + "'");
+					return previous;
+				}
+			}
+
+			if (page.size() >= nextCheck) {
+				nextCheck *= 2;
+
+				byte[] pageBytes = page.toByteArray();
+				Map<String, String> results = extractor.extractComplete(Jsoup.parse(new String(pageBytes, charset), url));
+				if (results != null) {
+					Output.debugPrintln("All fields found after reading " + pageBytes.length + " bytes of '" + url + "'");
+					return new ReadResult(extractor, results, pageBytes.length, digest(pageBytes, pageBytes.length), true);
+				}
+			}
+		}
+
+		// Reached the end of the page. Return whatever could be found
+		byte[] pageBytes = page.toByteArray();
+		Output.debugPrintln("Read entire page of " + pageBytes.length + " bytes from '" + url + "'");
+		Map<String, String> results = extractor.extract(Jsoup.parse(new String(pageBytes, charset), url));
+		return new ReadResult(extractor, results, pageBytes.length, digest(pageBytes, pageBytes.length), false);
+	}
+
+	/**
+	 * digest(): Return the SHA-256 hash of the first length bytes of the provided array
+	 * 
+	 * @param bytes
+	 * @param length
+	 * @return
+	 */
+	private static byte[] digest(byte[] bytes, int length) {
+		try {
+			MessageDigest md = MessageDigest.getInstance("SHA-256");
+			md.update(bytes, 0, length);
+			return md.digest();
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("SHA-256 is not available", ex);
+		}
+	}
+
+	/**
+	 * ReadResult: The fields read from a page and a hash of the bytes they were found in. If the fields were found before
+	 * the end of the page, any later page starting with the same bytes will produce the same fields
+	 */
+	protected static class ReadResult {
+		final FieldExtractor extractor;
+		final Map<String, String> fields;
+		final int length;
+		final byte[] digest;
+		final boolean prefixReusable;
+
+		ReadResult(FieldExtractor extractor, Map<String, String> fields, int length, byte[] digest, boolean prefixReusable) {
+			this.extractor = extractor;
+			this.fields = Collections.unmodifiableMap(fields);
+			this.length = length;
+			this.digest = digest;
+			this.prefixReusable = prefixReusable;
+		}
+	}
+
+}
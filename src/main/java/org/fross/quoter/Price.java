@@ -0,0 +1,337 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+/**
+ * Price: Exact fixed point prices and percentages. A value is held in a long as the number of ten thousandths, so 1234.56
+ * is stored as 12345600. Values that could not be read are MISSING.
+ *
+ */
+public final class Price {
+	// Class Constants
+	public static final int SCALE = 4;
+	public static final long ONE = 10000L;
+	public static final long MISSING = Long.MIN_VALUE;
+	private static final long[] POW10 = { 1L, 10L, 100L, 1000L, 10000L };
+
+	// The largest digits that can be read with each number of decimals and still fit in a long once scaled to ten
+	// thousandths with room to round up
+	private static final long[] MAX_UNITS = { (Long.MAX_VALUE - 1) / 10000L, (Long.MAX_VALUE - 1) / 1000L, (Long.MAX_VALUE - 1) / 100L,
+			(Long.MAX_VALUE - 1) / 10L, Long.MAX_VALUE - 1 };
+
+	// The longest formatted value: a sign, 15 integer digits with 4 separators, a point, and 4 decimals
+	public static final int MAX_LENGTH = 25;
+
+	private Price() {
+	}
+
+	/**
+	 * isMissing(): Return true if the value could not be read
+	 * 
+	 * @param value
+	 * @return
+	 */
+	public static boolean isMissing(long value) {
+		return value == MISSING;
+	}
+
+	/**
+	 * parse(): Convert website text such as '$1,234.56', '+0.45%', or '-17' into a fixed point value. Digits past the fourth
+	 * decimal place are rounded. Returns MISSING if the text is not a number
+	 * 
+	 * @param text
+	 * @return
+	 */
+	public static long parse(CharSequence text) {
+		if (text == null) {
+			return MISSING;
+		}
+
+		long units = 0;
+		int decimals = 0;
+		boolean negative = false;
+		boolean signSeen = false;
+		boolean pointSeen = false;
+		boolean digitSeen = false;
+		boolean roundUp = false;
+
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+
+			if (c >= '0' && c <= '9') {
+				if (pointSeen == false || decimals < SCALE) {
+					decimals += pointSeen ? 1 : 0;
+					units = appendDigit(units, decimals, c - '0');
+					if (units < 0) {
+						return MISSING;
+					}
+				} else if (decimals == SCALE) {
+					// Only the first digit past the scale decides the rounding
+					roundUp = (c >= '5');
+					decimals++;
+				}
+				digitSeen = true;
+
+			} else if (c == '.') {
+				if (pointSeen == true) {
+					return MISSING;
+				}
+				pointSeen = true;
+
+			} else if (c == '-' || c == '+' || c == '\u2212') {
+				if (signSeen == true || digitSeen == true || pointSeen == true) {
+					return MISSING;
+				}
+				signSeen = true;
+				negative = (c != '+');
+
+			} else if (c != '$' && c != ',' && c != '%' && Character.isWhitespace(c) == false) {
+				return MISSING;
+			}
+		}
+
+		if (digitSeen == false) {
+			return MISSING;
+		}
+
+		return toFixedPoint(units, Math.min(decimals, SCALE), roundUp, negative);
+	}
+
+	/**
+	 * appendDigit(): Add the next digit to a number being read. Units are the digits read so far and decimals is how many of
+	 * them, including this one, are after the point. Returns -1 if the number would be too large to hold once scaled
+	 * 
+	 * @param units
+	 * @param decimals
+	 * @param digit
+	 * @return
+	 */
+	static long appendDigit(long units, int decimals, int digit) {
+		long next = units * 10 + digit;
+		return (next > MAX_UNITS[decimals]) ? -1 : next;
+	}
+
+	/**
+	 * toFixedPoint(): Scale the digits read with appendDigit() to ten thousandths. Digits are always in range so this
+	 * can't overflow
+	 * 
+	 * @param units
+	 * @param decimals
+	 * @param roundUp
+	 * @param negative
+	 * @return
+	 */
+	static long toFixedPoint(long units, int decimals, boolean roundUp, boolean negative) {
+		long value = units * POW10[SCALE - decimals] + (roundUp ? 1 : 0);
+		return negative ? -value : value;
+	}
+
+	/**
+	 * valueOf(): Convert a double into a fixed point value rounding to the nearest ten thousandth. NaN is MISSING
+	 * 
+	 * @param value
+	 * @return
+	 */
+	public static long valueOf(double value) {
+		if (Double.isNaN(value)) {
+			return MISSING;
+		}
+		return Math.round(value * ONE);
+	}
+
+	/**
+	 * toString(): Return the plain text of a value with between two and four decimal places. MISSING is returned as '-'
+	 * 
+	 * @param value
+	 * @return
+	 */
+	public static String toString(long value) {
+		if (value == MISSING) {
+			return "-";
+		}
+
+		// Drop trailing zeros from the decimals, but keep at least two
+		int decimals = SCALE;
+		long fraction = Math.abs(value % ONE);
+		while (decimals > 2 && fraction % 10 == 0) {
+			fraction /= 10;
+			decimals--;
+		}
+
+		return format(value, decimals, 0, false, false);
+	}
+
+	/**
+	 * format(): Return a value rounded to the number of decimals and right aligned in the provided width
+	 * 
+	 * @param value
+	 * @param decimals
+	 * @param width
+	 * @param showSign
+	 * @param grouping
+	 * @return
+	 */
+	public static String format(long value, int decimals, int width, boolean showSign, boolean grouping) {
+		char[] buffer = new char[Math.max(width, MAX_LENGTH)];
+		int end = formatTo(buffer, 0, value, decimals, width, showSign, grouping);
+		return new String(buffer, 0, end);
+	}
+
+	/**
+	 * formatPercent(): Return a percentage with two decimals and a trailing '%' right aligned in the provided width
+	 * 
+	 * @param value
+	 * @param width
+	 * @param showSign
+	 * @param grouping
+	 * @return
+	 */
+	public static String formatPercent(long value, int width, boolean showSign, boolean grouping) {
+		char[] buffer = new char[Math.max(width, MAX_LENGTH + 1)];
+		int end = formatPercentTo(buffer, 0, value, width, showSign, grouping);
+		return new String(buffer, 0, end);
+	}
+
+	/**
+	 * formatPercentTo(): Write a percentage with two decimals and a trailing '%' right aligned in the provided width. Returns
+	 * the position after the last character written
+	 * 
+	 * @param dest
+	 * @param pos
+	 * @param value
+	 * @param width
+	 * @param showSign
+	 * @param grouping
+	 * @return
+	 */
+	public static int formatPercentTo(char[] dest, int pos, long value, int width, boolean showSign, boolean grouping) {
+		if (value == MISSING) {
+			return formatTo(dest, pos, value, 2, width, showSign, grouping);
+		}
+
+		int end = formatTo(dest, pos, value, 2, width - 1, showSign, grouping);
+		dest[end] = '%';
+		return end + 1;
+	}
+
+	/**
+	 * formatTo(): Write a value rounded to the number of decimals and right aligned in the provided width. Rounding is half
+	 * away from zero and MISSING is shown as '-'. Nothing is allocated; dest must have room for the larger of width and
+	 * MAX_LENGTH characters. Returns the position after the last character written
+	 * 
+	 * @param dest
+	 * @param pos
+	 * @param value
+	 * @param decimals
+	 * @param width
+	 * @param showSign   Show a '+' in front of positive values
+	 * @param grouping   Separate thousands with a ','
+	 * @return
+	 */
+	public static int formatTo(char[] dest, int pos, long value, int decimals, int width, boolean showSign, boolean grouping) {
+		if (decimals < 0 || decimals > SCALE) {
+			throw new IllegalArgumentException("Decimals must be between 0 and " + SCALE);
+		}
+
+		if (value == MISSING) {
+			pos = pad(dest, pos, width - 1);
+			dest[pos] = '-';
+			return pos + 1;
+		}
+
+		// Round to the requested number of decimals. The remainder is compared rather than adding half first so the largest
+		// values can't overflow
+		long divisor = POW10[SCALE - decimals];
+		long magnitude = Math.abs(value);
+		long rounded = magnitude / divisor;
+		if (divisor > 1 && magnitude % divisor >= divisor / 2) {
+			rounded++;
+		}
+		boolean negative = (value < 0 && rounded != 0);
+
+		// Work out the length so the digits can be written in place from the right
+		long integerPart = rounded / POW10[decimals];
+		int integerDigits = 1;
+		for (long i = integerPart; i >= 10; i /= 10) {
+			integerDigits++;
+		}
+
+		int length = integerDigits + (decimals > 0 ? decimals + 1 : 0);
+		if (grouping == true) {
+			length += (integerDigits - 1) / 3;
+		}
+		if (negative == true || showSign == true) {
+			length++;
+		}
+
+		pos = pad(dest, pos, width - length);
+		int end = pos + length;
+		int i = end;
+
+		for (int d = 0; d < decimals; d++) {
+			dest[--i] = (char) ('0' + rounded % 10);
+			rounded /= 10;
+		}
+		if (decimals > 0) {
+			dest[--i] = '.';
+		}
+
+		int digits = 0;
+		do {
+			if (grouping == true && digits > 0 && digits % 3 == 0) {
+				dest[--i] = ',';
+			}
+			dest[--i] = (char) ('0' + rounded % 10);
+			rounded /= 10;
+			digits++;
+		} while (rounded > 0);
+
+		if (negative == true) {
+			dest[--i] = '-';
+		} else if (showSign == true) {
+			dest[--i] = '+';
+		}
+
+		return end;
+	}
+
+	/**
+	 * pad(): Write the number of spaces requested. Returns the position after the last space
+	 * 
+	 * @param dest
+	 * @param pos
+	 * @param count
+	 * @return
+	 */
+	private static int pad(char[] dest, int pos, int count) {
+		for (int i = 0; i < count; i++) {
+			dest[pos++] = ' ';
+		}
+		return pos;
+	}
+
+}
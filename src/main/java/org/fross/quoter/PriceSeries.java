@@ -0,0 +1,397 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import java.util.Arrays;
+
+/**
+ * PriceSeries: Daily prices held in parallel primitive columns. Days are stored as the number of days since 1970-01-01
+ * and prices as fixed point values (see Price). Volume is zero when it was not provided.
+ * 
+ * Once sorted, days are found with a binary search and the highest high and lowest low of any range of days are returned
+ * in constant time from tables built the first time they are needed.
+ *
+ */
+public class PriceSeries {
+	// Class Constants
+	private static final int DEFAULT_CAPACITY = 64;
+
+	// Class Variables
+	private int size = 0;
+	private int[] days;
+	private long[] open;
+	private long[] high;
+	private long[] low;
+	private long[] close;
+	private long[] volume;
+
+	// Sparse tables of the position of the highest high and lowest low. Level k covers ranges of 2^k days
+	private int[][] highTable = null;
+	private int[][] lowTable = null;
+
+	/**
+	 * PriceSeries Constructor(): Create an empty series
+	 */
+	public PriceSeries() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * PriceSeries Constructor(): Create an empty series with room for the provided number of days
+	 * 
+	 * @param capacity
+	 */
+	public PriceSeries(int capacity) {
+		capacity = Math.max(1, capacity);
+		this.days = new int[capacity];
+		this.open = new long[capacity];
+		this.high = new long[capacity];
+		this.low = new long[capacity];
+		this.close = new long[capacity];
+		this.volume = new long[capacity];
+	}
+
+	/**
+	 * add(): Add a day to the end of the series
+	 * 
+	 * @param day
+	 * @param open
+	 * @param high
+	 * @param low
+	 * @param close
+	 * @param volume
+	 */
+	public void add(int day, long open, long high, long low, long close, long volume) {
+		if (this.size == this.days.length) {
+			int capacity = this.size * 2;
+			this.days = Arrays.copyOf(this.days, capacity);
+			this.open = Arrays.copyOf(this.open, capacity);
+			this.high = Arrays.copyOf(this.high, capacity);
+			this.low = Arrays.copyOf(this.low, capacity);
+			this.close = Arrays.copyOf(this.close, capacity);
+			this.volume = Arrays.copyOf(this.volume, capacity);
+		}
+
+		this.days[this.size] = day;
+		this.open[this.size] = open;
+		this.high[this.size] = high;
+		this.low[this.size] = low;
+		this.close[this.size] = close;
+		this.volume[this.size] = volume;
+		this.size++;
+		this.highTable = null;
+		this.lowTable = null;
+	}
+
+	/**
+	 * removeLast(): Remove the latest day from the series
+	 */
+	public void removeLast() {
+		if (this.size == 0) {
+			throw new IndexOutOfBoundsException("The series is empty");
+		}
+		this.size--;
+		this.highTable = null;
+		this.lowTable = null;
+	}
+
+	/**
+	 * countMatching(): Return the number of days at the start of this series that are identical in the other series
+	 * 
+	 * @param other
+	 * @return
+	 */
+	public int countMatching(PriceSeries other) {
+		int limit = Math.min(this.size, other.size);
+		for (int i = 0; i < limit; i++) {
+			if (this.days[i] != other.days[i] || this.open[i] != other.open[i] || this.high[i] != other.high[i] || this.low[i] != other.low[i]
+					|| this.close[i] != other.close[i] || this.volume[i] != other.volume[i]) {
+				return i;
+			}
+		}
+		return limit;
+	}
+
+	/**
+	 * size(): Return the number of days in the series
+	 * 
+	 * @return
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * isEmpty(): Return true if the series has no days
+	 * 
+	 * @return
+	 */
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	public int getFirstDay() {
+		return this.days[0];
+	}
+
+	public int getLastDay() {
+		return this.days[this.size - 1];
+	}
+
+	public int getDay(int i) {
+		return this.days[i];
+	}
+
+	public long getOpen(int i) {
+		return this.open[i];
+	}
+
+	public long getHigh(int i) {
+		return this.high[i];
+	}
+
+	public long getLow(int i) {
+		return this.low[i];
+	}
+
+	public long getClose(int i) {
+		return this.close[i];
+	}
+
+	public long getVolume(int i) {
+		return this.volume[i];
+	}
+
+	/**
+	 * sortByDay(): Put the days in ascending order. If a day was added more than once only the last one added is kept.
+	 * Downloads arrive newest first so a series in descending order is simply reversed
+	 */
+	public void sortByDay() {
+		boolean ascending = true;
+		boolean descending = true;
+		for (int i = 1; i < this.size; i++) {
+			ascending &= this.days[i - 1] < this.days[i];
+			descending &= this.days[i - 1] > this.days[i];
+		}
+
+		if (ascending == true) {
+			return;
+		}
+
+		// Sort the positions by day, then by the order they were added, and keep the last of each day
+		long[] order = new long[this.size];
+		if (descending == true) {
+			for (int i = 0; i < this.size; i++) {
+				order[i] = this.size - 1 - i;
+			}
+		} else {
+			for (int i = 0; i < this.size; i++) {
+				order[i] = ((long) this.days[i] << 32) | i;
+			}
+			Arrays.sort(order);
+		}
+
+		PriceSeries sorted = new PriceSeries(this.size);
+		for (int n = 0; n < this.size; n++) {
+			int i = (int) order[n];
+			if (n + 1 < this.size && this.days[(int) order[n + 1]] == this.days[i]) {
+				continue;
+			}
+			sorted.add(this.days[i], this.open[i], this.high[i], this.low[i], this.close[i], this.volume[i]);
+		}
+
+		this.size = sorted.size;
+		this.days = sorted.days;
+		this.open = sorted.open;
+		this.high = sorted.high;
+		this.low = sorted.low;
+		this.close = sorted.close;
+		this.volume = sorted.volume;
+		this.highTable = null;
+		this.lowTable = null;
+	}
+
+	/**
+	 * indexOf(): Return the position of the first day on or after the provided day. Returns size() if there isn't one. The
+	 * series must be sorted
+	 * 
+	 * @param day
+	 * @return
+	 */
+	public int indexOf(int day) {
+		int low = 0;
+		int high = this.size;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (this.days[mid] < day) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * range(): Return a new series with the days from the first day through the last day, inclusive
+	 * 
+	 * @param firstDay
+	 * @param lastDay
+	 * @return
+	 */
+	public PriceSeries range(int firstDay, int lastDay) {
+		int from = indexOf(firstDay);
+		int to = Math.max(from, (lastDay == Integer.MAX_VALUE) ? this.size : indexOf(lastDay + 1));
+
+		PriceSeries result = new PriceSeries(to - from);
+		result.size = to - from;
+		System.arraycopy(this.days, from, result.days, 0, result.size);
+		System.arraycopy(this.open, from, result.open, 0, result.size);
+		System.arraycopy(this.high, from, result.high, 0, result.size);
+		System.arraycopy(this.low, from, result.low, 0, result.size);
+		System.arraycopy(this.close, from, result.close, 0, result.size);
+		System.arraycopy(this.volume, from, result.volume, 0, result.size);
+		return result;
+	}
+
+	/**
+	 * merge(): Return a new series with the days of both sorted series. If both have the same day the newer one is used
+	 * 
+	 * @param newer
+	 * @return
+	 */
+	public PriceSeries merge(PriceSeries newer) {
+		PriceSeries result = new PriceSeries(this.size + newer.size);
+		int i = 0;
+		int j = 0;
+
+		while (i < this.size || j < newer.size) {
+			if (j == newer.size || (i < this.size && this.days[i] < newer.days[j])) {
+				result.add(this.days[i], this.open[i], this.high[i], this.low[i], this.close[i], this.volume[i]);
+				i++;
+			} else {
+				if (i < this.size && this.days[i] == newer.days[j]) {
+					i++;
+				}
+				result.add(newer.days[j], newer.open[j], newer.high[j], newer.low[j], newer.close[j], newer.volume[j]);
+				j++;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * maxHigh(): Return the highest high from position 'from' up to but not including position 'to'
+	 * 
+	 * @param from
+	 * @param to
+	 * @return
+	 */
+	public long maxHigh(int from, int to) {
+		if (this.highTable == null) {
+			this.highTable = buildTable(this.high, true);
+		}
+		return this.high[query(this.highTable, this.high, from, to, true)];
+	}
+
+	/**
+	 * minLow(): Return the lowest low from position 'from' up to but not including position 'to'
+	 * 
+	 * @param from
+	 * @param to
+	 * @return
+	 */
+	public long minLow(int from, int to) {
+		if (this.lowTable == null) {
+			this.lowTable = buildTable(this.low, false);
+		}
+		return this.low[query(this.lowTable, this.low, from, to, false)];
+	}
+
+	/**
+	 * buildTable(): Build the sparse table of the position of the largest (or smallest) value in each range of 2^k days
+	 * 
+	 * @param values
+	 * @param largest
+	 * @return
+	 */
+	private int[][] buildTable(long[] values, boolean largest) {
+		int levels = 32 - Integer.numberOfLeadingZeros(Math.max(1, this.size));
+		int[][] table = new int[levels][];
+
+		table[0] = new int[this.size];
+		for (int i = 0; i < this.size; i++) {
+			table[0][i] = i;
+		}
+
+		for (int k = 1; k < levels; k++) {
+			int half = 1 << (k - 1);
+			int[] previous = table[k - 1];
+			int[] level = new int[this.size - (1 << k) + 1];
+			for (int i = 0; i < level.length; i++) {
+				level[i] = better(values, previous[i], previous[i + half], largest);
+			}
+			table[k] = level;
+		}
+		return table;
+	}
+
+	/**
+	 * query(): Return the position of the largest (or smallest) value in the range using two overlapping table entries
+	 * 
+	 * @param table
+	 * @param values
+	 * @param from
+	 * @param to
+	 * @param largest
+	 * @return
+	 */
+	private int query(int[][] table, long[] values, int from, int to, boolean largest) {
+		if (from < 0 || to > this.size || from >= to) {
+			throw new IndexOutOfBoundsException("Invalid range " + from + " to " + to + " of " + this.size + " days");
+		}
+		int k = 31 - Integer.numberOfLeadingZeros(to - from);
+		return better(values, table[k][from], table[k][to - (1 << k)], largest);
+	}
+
+	/**
+	 * better(): Return the position of the larger (or smaller) of the two values
+	 * 
+	 * @param values
+	 * @param a
+	 * @param b
+	 * @param largest
+	 * @return
+	 */
+	private static int better(long[] values, int a, int b, boolean largest) {
+		if (largest == true) {
+			return values[b] > values[a] ? b : a;
+		}
+		return values[b] < values[a] ? b : a;
+	}
+
+}
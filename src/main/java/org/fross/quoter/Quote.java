@@ -0,0 +1,325 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.fross.quoter.XPathLookup.PageType;
+
+/**
+ * Quote: Immutable results of a security or index lookup. Prices and percentages are parsed once when the page is read and
+ * kept as exact fixed point values (see Price). Values that could not be read are Price.MISSING
+ */
+public final class Quote {
+	public static final String STATUS_OK = "ok";
+	public static final String STATUS_ERROR = "error";
+
+	// Field names available through get(), in the order they are exported
+	private static final List<String> SYMBOL_FIELDS = Collections.unmodifiableList(Arrays.asList("symbol", "status", "fullname", "latestPrice", "change",
+			"changePercent", "dayHigh", "dayLow", "week52High", "week52Low", "ytdChangePercent", "oneYearChangePercent", "timeStamp"));
+	private static final List<String> INDEX_FIELDS = Collections.unmodifiableList(Arrays.asList("index", "status", "latestPrice", "change", "changePercent",
+			"week52High", "week52Low", "ytdChangePercent", "oneYearChangePercent", "timeStamp"));
+
+	private final PageType type;
+	private final String name;
+	private final boolean ok;
+	private final String fullname;
+	private final String timeStamp;
+	private final long latestPrice;
+	private final long change;
+	private final long changePercent;
+	private final long dayHigh;
+	private final long dayLow;
+	private final long week52High;
+	private final long week52Low;
+	private final long ytdChangePercent;
+	private final long oneYearChangePercent;
+
+	private Quote(PageType type, String name, boolean ok, String fullname, String timeStamp, long latestPrice, long change, long changePercent,
+			long dayHigh, long dayLow, long week52High, long week52Low, long ytdChangePercent, long oneYearChangePercent) {
+		this.type = type;
+		this.name = name;
+		this.ok = ok;
+		this.fullname = fullname;
+		this.timeStamp = timeStamp;
+		this.latestPrice = latestPrice;
+		this.change = change;
+		this.changePercent = changePercent;
+		this.dayHigh = dayHigh;
+		this.dayLow = dayLow;
+		this.week52High = week52High;
+		this.week52Low = week52Low;
+		this.ytdChangePercent = ytdChangePercent;
+		this.oneYearChangePercent = oneYearChangePercent;
+	}
+
+	/**
+	 * error(): Return a quote for a security or index that could not be retrieved
+	 * 
+	 * @param type
+	 * @param name
+	 * @return
+	 */
+	public static Quote error(PageType type, String name) {
+		return new Quote(type, name, false, "", "", Price.MISSING, Price.MISSING, Price.MISSING, Price.MISSING, Price.MISSING, Price.MISSING, Price.MISSING, Price.MISSING,
+				Price.MISSING);
+	}
+
+	/**
+	 * fromPage(): Build a quote from the text pulled off of a MarketWatch page. Throws an exception if a required field is
+	 * missing
+	 * 
+	 * @param type
+	 * @param name
+	 * @param pageItems
+	 * @return
+	 */
+	public static Quote fromPage(PageType type, String name, Map<String, String> pageItems) {
+		long latestPrice = Price.parse(FieldExtractor.required(pageItems, "latestPrice"));
+		long change = Price.parse(FieldExtractor.required(pageItems, "change"));
+		long changePercent = Price.parse(FieldExtractor.required(pageItems, "changePercent"));
+
+		if (type == PageType.INDEX) {
+			// Indexes have no day range and every field must be present
+			long[] week52 = parseRange(FieldExtractor.required(pageItems, "52weekRange"), true);
+			long ytd = Price.parse(FieldExtractor.required(pageItems, "ytdChangePercent"));
+			long oneYear = Price.parse(FieldExtractor.required(pageItems, "oneYearChangePercent"));
+			String timeStamp = cleanTimeStamp(FieldExtractor.required(pageItems, "timeStamp"));
+
+			return new Quote(type, name, true, "", timeStamp, latestPrice, change, changePercent, Price.MISSING, Price.MISSING, week52[1], week52[0], ytd, oneYear);
+		}
+
+		long[] week52 = parseRange(FieldExtractor.required(pageItems, "52weekRange"), false);
+		long[] day = parseRange(FieldExtractor.required(pageItems, "dayRange"), false);
+
+		// The year to date and one year changes are not shown for every security
+		long ytd = Price.parse(pageItems.get("ytdChangePercent"));
+		long oneYear = Price.parse(pageItems.get("oneYearChangePercent"));
+
+		String timeStamp = cleanTimeStamp(FieldExtractor.required(pageItems, "timeStamp"));
+		String fullname = FieldExtractor.required(pageItems, "fullname").trim();
+
+		return new Quote(type, name.toUpperCase(), true, fullname, timeStamp, latestPrice, change, changePercent, day[1], day[0], week52[1], week52[0], ytd,
+				oneYear);
+	}
+
+	/**
+	 * fromMap(): Build a quote from the field / value pairs produced by toMap()
+	 * 
+	 * @param type
+	 * @param values
+	 * @return
+	 */
+	public static Quote fromMap(PageType type, Map<String, String> values) {
+		String name = values.get(type == PageType.INDEX ? "index" : "symbol");
+		String fullname = values.get("fullname");
+		String timeStamp = values.get("timeStamp");
+
+		return new Quote(type, name == null ? "" : name, STATUS_OK.equalsIgnoreCase(values.get("status")), fullname == null ? "" : fullname,
+				timeStamp == null ? "" : timeStamp, Price.parse(values.get("latestPrice")), Price.parse(values.get("change")),
+				Price.parse(values.get("changePercent")), Price.parse(values.get("dayHigh")), Price.parse(values.get("dayLow")),
+				Price.parse(values.get("week52High")), Price.parse(values.get("week52Low")), Price.parse(values.get("ytdChangePercent")),
+				Price.parse(values.get("oneYearChangePercent")));
+	}
+
+	/**
+	 * toMap(): Return every field of this quote as text, the same values returned by get()
+	 * 
+	 * @return
+	 */
+	public Map<String, String> toMap() {
+		Map<String, String> values = new HashMap<>();
+		for (String i : getFieldNames()) {
+			values.put(i, get(i));
+		}
+		return values;
+	}
+
+	/**
+	 * with(): Return a copy of this quote with a single field replaced
+	 * 
+	 * @param field
+	 * @param value
+	 * @return
+	 */
+	public Quote with(String field, String value) {
+		if (getFieldNames().contains(field) == false) {
+			throw new IllegalArgumentException("'" + field + "' is not a quote field");
+		}
+
+		Map<String, String> values = toMap();
+		values.put(field, value);
+		return fromMap(this.type, values);
+	}
+
+	/**
+	 * getFieldNames(): Return the names of the fields available through get()
+	 * 
+	 * @return
+	 */
+	public List<String> getFieldNames() {
+		return this.type == PageType.INDEX ? INDEX_FIELDS : SYMBOL_FIELDS;
+	}
+
+	/**
+	 * get(): Return a field as text. Missing numbers are returned as '-' and unknown fields as null
+	 * 
+	 * @param field
+	 * @return
+	 */
+	public String get(String field) {
+		switch (field) {
+		case "symbol":
+			return this.type == PageType.SYMBOL ? this.name : null;
+		case "index":
+			return this.type == PageType.INDEX ? this.name : null;
+		case "status":
+			return this.ok ? STATUS_OK : STATUS_ERROR;
+		case "fullname":
+			return this.type == PageType.SYMBOL ? this.fullname : null;
+		case "timeStamp":
+			return this.timeStamp;
+		case "latestPrice":
+			return Price.toString(this.latestPrice);
+		case "change":
+			return Price.toString(this.change);
+		case "changePercent":
+			return Price.toString(this.changePercent);
+		case "dayHigh":
+			return this.type == PageType.SYMBOL ? Price.toString(this.dayHigh) : null;
+		case "dayLow":
+			return this.type == PageType.SYMBOL ? Price.toString(this.dayLow) : null;
+		case "week52High":
+			return Price.toString(this.week52High);
+		case "week52Low":
+			return Price.toString(this.week52Low);
+		case "ytdChangePercent":
+			return Price.toString(this.ytdChangePercent);
+		case "oneYearChangePercent":
+			return Price.toString(this.oneYearChangePercent);
+		default:
+			return null;
+		}
+	}
+
+	public PageType getType() {
+		return this.type;
+	}
+
+	public String getName() {
+		return this.name;
+	}
+
+	public boolean isOk() {
+		return this.ok;
+	}
+
+	public String getFullname() {
+		return this.fullname;
+	}
+
+	public String getTimeStamp() {
+		return this.timeStamp;
+	}
+
+	public long getLatestPrice() {
+		return this.latestPrice;
+	}
+
+	public long getChange() {
+		return this.change;
+	}
+
+	public long getChangePercent() {
+		return this.changePercent;
+	}
+
+	public long getDayHigh() {
+		return this.dayHigh;
+	}
+
+	public long getDayLow() {
+		return this.dayLow;
+	}
+
+	public long getWeek52High() {
+		return this.week52High;
+	}
+
+	public long getWeek52Low() {
+		return this.week52Low;
+	}
+
+	public long getYtdChangePercent() {
+		return this.ytdChangePercent;
+	}
+
+	public long getOneYearChangePercent() {
+		return this.oneYearChangePercent;
+	}
+
+	/**
+	 * parseRange(): Split a 'low - high' range into {low, high}. If it can't be split both are MISSING unless it is required
+	 * 
+	 * @param text
+	 * @param required
+	 * @return
+	 */
+	static long[] parseRange(String text, boolean required) {
+		int separator = text.indexOf(" - ");
+		if (separator < 0) {
+			if (required == true) {
+				throw new IllegalStateException("'" + text + "' is not a range");
+			}
+			return new long[] { Price.MISSING, Price.MISSING };
+		}
+
+		return new long[] { Price.parse(text.substring(0, separator)), Price.parse(text.substring(separator + 3)) };
+	}
+
+	/**
+	 * cleanTimeStamp(): Remove the commas from the website time stamp so it can be parsed for display
+	 * 
+	 * @param text
+	 * @return
+	 */
+	private static String cleanTimeStamp(String text) {
+		StringBuilder sb = new StringBuilder(text.length());
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c != ',' && c != '%') {
+				sb.append(c);
+			}
+		}
+		return sb.toString().trim();
+	}
+
+}
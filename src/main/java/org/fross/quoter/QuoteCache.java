@@ -0,0 +1,210 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.fross.library.Output;
+
+/**
+ * QuoteCache: Saves downloaded quote data to disk so repeated runs of Quoter within the time to live skip the website.
+ * 
+ * Each entry is a small properties file. Entries are written to a temporary file and then renamed into place, so several
+ * copies of Quoter can share the cache and a reader only ever sees a complete entry. The cache is disabled unless a time
+ * to live has been set.
+ *
+ */
+public class QuoteCache {
+	// Class Constants
+	public static final Path DEFAULT_DIRECTORY = Paths.get(System.getProperty("user.home"), ".quoter", "cache");
+	private static final String CACHED_AT = "cache.cachedAt";
+
+	// Class Variables
+	private static Path cacheDirectory = DEFAULT_DIRECTORY;
+	private static int ttlSeconds = 0;
+
+	/**
+	 * configure(): Set the cache location and the number of seconds entries are valid. A TTL of zero disables the cache
+	 * 
+	 * @param directory
+	 * @param ttl
+	 */
+	public static synchronized void configure(Path directory, int ttl) {
+		cacheDirectory = directory;
+		ttlSeconds = Math.max(0, ttl);
+		Output.debugPrintln("Quote cache: '" + directory + "'  TTL: " + ttlSeconds + " seconds");
+	}
+
+	/**
+	 * isEnabled(): Return true if a time to live has been set
+	 * 
+	 * @return
+	 */
+	public static synchronized boolean isEnabled() {
+		return ttlSeconds > 0;
+	}
+
+	/**
+	 * key(): Build the cache key for a symbol or index. The market state is part of the key as the fields differ
+	 * 
+	 * @param type
+	 * @param name
+	 * @param marketOpen
+	 * @return
+	 */
+	public static String key(String type, String name, boolean marketOpen) {
+		return type + "-" + safeName(name) + (marketOpen ? "-open" : "-closed");
+	}
+
+	/**
+	 * get(): Return the saved data for the provided key or null if it doesn't exist or is older than the TTL
+	 * 
+	 * @param key
+	 * @return
+	 */
+	public static Map<String, String> get(String key) {
+		if (isEnabled() == false) {
+			return null;
+		}
+
+		Properties entry = new Properties();
+		try (InputStream is = Files.newInputStream(entryPath(key))) {
+			entry.load(is);
+		} catch (NoSuchFileException ex) {
+			return null;
+		} catch (IOException | IllegalArgumentException ex) {
+			Output.debugPrintln("Could not read cache entry '" + key + "': " + ex.getMessage());
+			return null;
+		}
+
+		// Ensure the entry is still fresh
+		long age;
+		try {
+			age = System.currentTimeMillis() - Long.parseLong(entry.getProperty(CACHED_AT, ""));
+		} catch (NumberFormatException ex) {
+			return null;
+		}
+
+		if (age < 0 || age >= ttlSeconds * 1000L) {
+			Output.debugPrintln("Cache entry '" + key + "' has expired");
+			return null;
+		}
+
+		Map<String, String> data = new HashMap<>();
+		for (String name : entry.stringPropertyNames()) {
+			if (!name.equals(CACHED_AT)) {
+				data.put(name, entry.getProperty(name));
+			}
+		}
+
+		Output.debugPrintln("Using cached data for '" + key + "' (" + (age / 1000) + " seconds old)");
+		return data;
+	}
+
+	/**
+	 * put(): Save the provided data under the key. Failures are ignored as the cache is only an optimization
+	 * 
+	 * @param key
+	 * @param data
+	 */
+	public static void put(String key, Map<String, String> data) {
+		if (isEnabled() == false) {
+			return;
+		}
+
+		Properties entry = new Properties();
+		entry.putAll(data);
+		entry.setProperty(CACHED_AT, String.valueOf(System.currentTimeMillis()));
+
+		try {
+			ByteArrayOutputStream content = new ByteArrayOutputStream();
+			entry.store(content, null);
+			replaceFile(entryPath(key), content.toByteArray());
+
+		} catch (IOException ex) {
+			Output.debugPrintln("Could not write cache entry '" + key + "': " + ex.getMessage());
+		}
+	}
+
+	/**
+	 * replaceFile(): Write the content to a temporary file in the same directory and then rename it over the target. Other
+	 * processes reading the target see either the old or the new content, never a partially written file
+	 * 
+	 * @param target
+	 * @param content
+	 * @throws IOException
+	 */
+	protected static void replaceFile(Path target, byte[] content) throws IOException {
+		Files.createDirectories(target.getParent());
+
+		Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+		try {
+			Files.write(temp, content);
+
+			try {
+				Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException ex) {
+				Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	/**
+	 * safeName(): Convert a symbol into a string that can be safely used as part of a file name
+	 * 
+	 * @param name
+	 * @return
+	 */
+	protected static String safeName(String name) {
+		return name.toUpperCase().replaceAll("[^A-Z0-9._^-]", "_");
+	}
+
+	/**
+	 * entryPath(): Return the file used for the provided key
+	 * 
+	 * @param key
+	 * @return
+	 */
+	private static synchronized Path entryPath(String key) {
+		return cacheDirectory.resolve(key + ".properties");
+	}
+
+}
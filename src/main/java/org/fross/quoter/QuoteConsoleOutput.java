@@ -31,244 +31,571 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
 
 import org.fross.library.Output;
+import org.fross.quoter.XPathLookup.PageType;
 import org.fusesource.jansi.Ansi;
 
 public class QuoteConsoleOutput {
+	// Class Constants
+	protected static final long OFFSCREEN_REFRESH_MILLIS = 5 * 60 * 1000L;
+	private static final String[] INDEX_LIST = { "DOW", "NASDAQ", "S&P" };
+
+	// Class Variables
 	final private CommandLineParser cli;
+	private QuoteFetcher quoteFetcher = null;
+	private final RowFormatter row = new RowFormatter();
+	private final Queue<String> pendingChanges = new ConcurrentLinkedQueue<>();
+
+	// The latest results are kept so the display can be scrolled without downloading. They are guarded by this object
+	private final ScrollWindow window = new ScrollWindow();
+	private final Map<String, Symbol> latestSymbols = new HashMap<>();
+	private final Map<String, Long> fetchTimes = new HashMap<>();
+	private final Map<String, Future<Symbol>> backgroundFetches = new HashMap<>();
+	private final Map<String, HistoricalQuotes> latestHistories = new HashMap<>();
+	private Index[] latestIndexes = new Index[INDEX_LIST.length];
+	private MarketState latestMarketState = null;
+
+	// The last refresh's quotes, histories, and correlations so the trend and correlation sections are in cached frames too
+	private QuoteContext latestContext = null;
+	private Map<String, HistoricalQuotes> latestTrends = null;
+	private CorrelationMatrix latestCorrelation = null;
+
+	// Console height and the lines taken by the trend and correlation sections below the tables in the last refresh
+	private int terminalRows = 0;
+	private int sectionLines = 0;
 
 	public QuoteConsoleOutput(final CommandLineParser cli) {
 		this.cli = cli;
 	}
 
 	/**
-	 * invokeSymbolOutput - Fetches and displays latest symbol output.
+	 * addSymbol(): Add a security to the display starting with the next frame built
+	 * 
+	 * @param symb
+	 */
+	public void addSymbol(String symb) {
+		this.pendingChanges.add("+" + symb.toUpperCase());
+	}
+
+	/**
+	 * removeSymbol(): Remove a security from the display starting with the next frame built
+	 * 
+	 * @param symb
+	 */
+	public void removeSymbol(String symb) {
+		this.pendingChanges.add("-" + symb.toUpperCase());
+	}
+
+	/**
+	 * applyPendingChanges(): Update the security list with changes requested since the last frame. They are applied here so
+	 * the list is only ever modified by the thread building the frame
+	 */
+	private void applyPendingChanges() {
+		String change;
+		while ((change = this.pendingChanges.poll()) != null) {
+			String symb = change.substring(1);
+			cli.symbolList.removeIf(i -> i.equalsIgnoreCase(symb));
+			forget(symb);
+			if (change.charAt(0) == '+') {
+				cli.symbolList.add(symb);
+			}
+		}
+	}
+
+	/**
+	 * forget(): Discard the saved results for the provided security
+	 * 
+	 * @param symb
+	 */
+	private void forget(String symb) {
+		this.latestSymbols.remove(symb);
+		this.fetchTimes.remove(symb);
+		this.backgroundFetches.remove(symb);
+		this.latestHistories.remove(symb);
+	}
+
+	/**
+	 * setTerminalRows(): Limit the securities displayed to those that fit in a console of the provided height. Zero displays
+	 * all of them
+	 * 
+	 * @param rows
+	 */
+	public synchronized void setTerminalRows(int rows) {
+		this.terminalRows = rows;
+		fitWindow();
+	}
+
+	/**
+	 * fitWindow(): Display as many securities as fit in the console alongside everything else in the frame
+	 */
+	private void fitWindow() {
+		this.window.setRows(this.terminalRows <= 0 ? 0 : Math.max(1, this.terminalRows - queryChromeLines()));
+	}
+
+	/**
+	 * queryChromeLines(): Return the number of lines displayed other than the security rows. This is the title, the security
+	 * header, the scroll position, the index table, the market status and time stamp, the trend and correlation sections,
+	 * the refresh status line below, and the line the console moves to when a command is entered after the status line.
+	 * The sections vary with the history downloaded so the last refresh's are used
+	 * 
+	 * @return
+	 */
+	private int queryChromeLines() {
+		int lines = 2 + 3 + 1 + 2 + 1 + 2 + 1 + this.sectionLines;
+		if (cli.clHideIndex == false) {
+			lines += 4 + INDEX_LIST.length;
+		}
+		return lines;
+	}
+
+	/**
+	 * scroll(): Move the displayed securities down the provided number of rows. Negative values move up
+	 * 
+	 * @param rows
+	 */
+	public synchronized void scroll(int rows) {
+		this.window.scroll(rows, cli.symbolList.size());
+	}
+
+	/**
+	 * page(): Move the displayed securities down the provided number of screens. Negative values move up
+	 * 
+	 * @param pages
+	 */
+	public synchronized void page(int pages) {
+		this.window.page(pages, cli.symbolList.size());
+	}
+
+	/**
+	 * isWindowLoaded(): Return true if every security on screen has been downloaded at least once
+	 * 
+	 * @return
+	 */
+	public synchronized boolean isWindowLoaded() {
+		int total = cli.symbolList.size();
+		for (int i = this.window.getFirst(total); i < this.window.getEnd(total); i++) {
+			if (this.latestSymbols.containsKey(cli.symbolList.get(i)) == false) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * displayOutput(): Fetches and displays latest symbol output.
 	 * 
-	 * @param IEXCloudToken
 	 * @param exporter
 	 */
 	public void displayOutput(FileExporter exporter) {
-		// Store the time stamp
-		String timeStamp = "";
+		buildFrame(exporter).display();
+	}
 
-		// Display the header
-		Output.printColorln(Ansi.Color.YELLOW, "\nQuoter v" + Main.VERSION + " " + Main.COPYRIGHT);
+	/**
+	 * buildFrame(): Fetches the latest symbol and index data and returns the output as a frame to be displayed. Only the
+	 * securities on screen are downloaded each time. The rest are refreshed a few at a time in the background
+	 * 
+	 * @param exporter
+	 * @return
+	 */
+	public Frame buildFrame(FileExporter exporter) {
+		// Determine if the market is open or closed once for this refresh and share it with every security and index
+		MarketState marketState = MarketState.getSnapshot();
 
-		// If symbols were entered, display the header for them
-		if (cli.symbolList.size() > 0) {
-			Output.printColorln(Ansi.Color.CYAN, "----------------------------------------------------------------------------------------");
-			Output.printColorln(Ansi.Color.CYAN, "Symbol   Current    Chng   Chng%  DayHigh   Daylow  52WHigh   52WLow      YTD%    1Year%");
-			Output.printColorln(Ansi.Color.CYAN, "----------------------------------------------------------------------------------------");
+		// Start downloading the securities on screen and the indexes in parallel. They are displayed in the order requested
+		if (this.quoteFetcher == null) {
+			this.quoteFetcher = new QuoteFetcher(cli.clConcurrency);
 		}
 
-		// Display the data for the symbols entered. If no symbols were entered, just
-		// display the index data
-		if (cli.symbolList.size() > 0) {
-			// Loop through each entered symbol and display it's data
-			Iterator<String> j = cli.symbolList.iterator();
-			String currentSymbol = "";
+		Map<String, Future<Symbol>> symbolFutures = new LinkedHashMap<>();
+		synchronized (this) {
+			applyPendingChanges();
+			int total = cli.symbolList.size();
+			for (String symb : cli.symbolList.subList(this.window.getFirst(total), this.window.getEnd(total))) {
+				if (symbolFutures.containsKey(symb) == false) {
+					symbolFutures.put(symb, this.quoteFetcher.submitSymbol(symb, marketState));
+				}
+			}
 
-			while (j.hasNext()) {
-				currentSymbol = j.next();
-				String[] outString = new String[10];
-				Symbol symbolObj = new Symbol(currentSymbol);
+			// Off-screen securities are submitted last and only a few at a time so they don't delay the ones on screen
+			refreshOffscreen(marketState);
+		}
 
-				// Check to see if there was an error getting symbol data
-				if (symbolObj.get("status") != "ok") {
-					Output.printColorln(Ansi.Color.BLUE, "'" + currentSymbol + "' is invalid");
+		List<Future<Index>> indexFutures = new ArrayList<>();
+		if (cli.clHideIndex == false) {
+			for (String idx : INDEX_LIST) {
+				indexFutures.add(this.quoteFetcher.submitIndex(idx, marketState));
+			}
+		}
 
-					// Remove this invalid symbol from the list and continue to the next iteration
-					j.remove();
-					continue;
+		// Wait for the downloads without holding the lock so the display can be scrolled in the meantime
+		Map<String, Symbol> symbols = new HashMap<>();
+		for (Map.Entry<String, Future<Symbol>> i : symbolFutures.entrySet()) {
+			Symbol symbolObj = QuoteFetcher.await(i.getValue());
+			symbols.put(i.getKey(), (symbolObj == null) ? new Symbol(Quote.error(PageType.SYMBOL, i.getKey())) : symbolObj);
+		}
+
+		Index[] indexes = new Index[INDEX_LIST.length];
+		for (int i = 0; i < indexFutures.size(); i++) {
+			Output.debugPrintln("\nDEBUG:  --- Getting Index data for: " + INDEX_LIST[i] + " ---");
+			indexes[i] = QuoteFetcher.await(indexFutures.get(i));
+		}
+
+		// Share this refresh's quotes with the trend display so no security is downloaded twice
+		QuoteContext context = new QuoteContext(marketState);
+		for (Map.Entry<String, Symbol> i : symbols.entrySet()) {
+			context.put(i.getKey(), i.getValue().getQuote());
+		}
+
+		// The history is needed for the trend, the correlations, and any indicators displayed in the table
+		Map<String, HistoricalQuotes> histories = null;
+		CorrelationMatrix correlation = null;
+		if (cli.clTrend == true || cli.clCorrelation == true || Indicators.Column.parseList(cli.clIndicators).isEmpty() == false) {
+			histories = fetchHistories(context, symbols);
+		}
+		if (cli.clCorrelation == true) {
+			correlation = correlate(histories);
+		}
+
+		synchronized (this) {
+			long now = System.currentTimeMillis();
+			for (Map.Entry<String, Symbol> i : symbols.entrySet()) {
+				this.latestSymbols.put(i.getKey(), i.getValue());
+				this.fetchTimes.put(i.getKey(), now);
+			}
+			this.latestIndexes = indexes;
+			this.latestMarketState = marketState;
+			this.latestContext = context;
+			this.latestTrends = histories;
+			this.latestCorrelation = correlation;
+			return render(exporter, context, histories, correlation);
+		}
+	}
+
+	/**
+	 * correlate(): Calculate the correlation of the securities with a history in the order requested. The S&P 500 history
+	 * is in the results under HistoricalQuotes.SP500
+	 * 
+	 * @param histories
+	 * @return
+	 */
+	private CorrelationMatrix correlate(Map<String, HistoricalQuotes> histories) {
+		List<String> correlated = new ArrayList<>();
+		List<PriceSeries> series = new ArrayList<>();
+		synchronized (this) {
+			for (String symb : cli.symbolList) {
+				HistoricalQuotes hc = histories.get(symb);
+				if (hc != null && hc.getSeries().isEmpty() == false && correlated.contains(symb) == false) {
+					correlated.add(symb);
+					series.add(hc.getSeries());
 				}
+			}
+		}
 
-				// Format the Output into an array
-				try {
-					// Symbol
-					outString[0] = String.format("%-8s", symbolObj.get("symbol"));
+		HistoricalQuotes benchmark = histories.get(HistoricalQuotes.SP500);
+		return CorrelationMatrix.calculate(correlated, series, (benchmark == null || benchmark.getSeries().isEmpty()) ? null : benchmark.getSeries());
+	}
 
-					// Current
-					try {
-						outString[1] = String.format("%,8.2f", Float.valueOf(symbolObj.get("latestPrice")));
-					} catch (NumberFormatException Ex) {
-						outString[1] = String.format("%8s", "-");
-					}
+	/**
+	 * fetchHistories(): Download the trend history of the valid securities at the same time. The trend and correlations
+	 * need every security, while indicators in the table only need the ones on screen. Quotes missing from the context,
+	 * such as securities off-screen, are taken from the last download or downloaded and added to the results
+	 * 
+	 * @param context
+	 * @param symbols
+	 * @return
+	 */
+	private Map<String, HistoricalQuotes> fetchHistories(QuoteContext context, Map<String, Symbol> symbols) {
+		List<String> trendSymbols;
+		synchronized (this) {
+			int total = cli.symbolList.size();
+			if (cli.clTrend == true || cli.clCorrelation == true) {
+				trendSymbols = new ArrayList<>(cli.symbolList);
+			} else {
+				trendSymbols = new ArrayList<>(cli.symbolList.subList(this.window.getFirst(total), this.window.getEnd(total)));
+			}
+			for (String symb : trendSymbols) {
+				if (context.find(symb) == null && this.latestSymbols.containsKey(symb) == true) {
+					context.put(symb, this.latestSymbols.get(symb).getQuote());
+				}
+			}
+		}
 
-					// Change Amount
-					try {
-						outString[2] = String.format("%+,8.2f", Float.valueOf(symbolObj.get("change")));
-					} catch (NumberFormatException Ex) {
-						outString[2] = String.format("%8s", "-");
-					}
+		// Download the securities that haven't been downloaded before
+		Map<String, Future<Symbol>> missingFutures = new LinkedHashMap<>();
+		for (String symb : trendSymbols) {
+			if (context.find(symb) == null && missingFutures.containsKey(symb) == false) {
+				missingFutures.put(symb, this.quoteFetcher.submitSymbol(symb, context.getMarketState()));
+			}
+		}
+		for (Map.Entry<String, Future<Symbol>> i : missingFutures.entrySet()) {
+			Symbol symbolObj = QuoteFetcher.await(i.getValue());
+			symbolObj = (symbolObj == null) ? new Symbol(Quote.error(PageType.SYMBOL, i.getKey())) : symbolObj;
+			symbols.put(i.getKey(), symbolObj);
+			context.put(i.getKey(), symbolObj.getQuote());
+		}
 
-					// Change Percentage
-					try {
-						outString[3] = String.format("%+,7.2f%%", Float.valueOf(symbolObj.get("changePercent")));
-					} catch (NumberFormatException Ex) {
-						outString[3] = String.format("%8s", "-");
-					}
+		// The histories are kept between refreshes so only their latest bars need to be calculated. Beta needs the S&P 500
+		Map<String, HistoricalQuotes> histories = new LinkedHashMap<>();
+		synchronized (this) {
+			for (String symb : trendSymbols) {
+				if (context.find(symb).isOk() == true) {
+					histories.put(symb, this.latestHistories.computeIfAbsent(symb, k -> new HistoricalQuotes()));
+				}
+			}
+			if (cli.clCorrelation == true) {
+				histories.put(HistoricalQuotes.SP500, this.latestHistories.computeIfAbsent(HistoricalQuotes.SP500, k -> new HistoricalQuotes()));
+			}
+		}
 
-					// Day High
-					try {
-						outString[4] = String.format("%,9.2f", Float.valueOf(symbolObj.get("dayHigh")));
-					} catch (NumberFormatException Ex) {
-						outString[4] = String.format("%9s", "-");
-					}
+		// Download every history in parallel
+		Map<String, Future<PriceSeries>> barFutures = new HashMap<>();
+		for (Map.Entry<String, HistoricalQuotes> i : histories.entrySet()) {
+			barFutures.put(i.getKey(), this.quoteFetcher.submitHistory(i.getValue(), i.getKey()));
+		}
 
-					// Day Low
-					try {
-						outString[5] = String.format("%,9.2f", Float.valueOf(symbolObj.get("dayLow")));
-					} catch (NumberFormatException Ex) {
-						outString[5] = String.format("%9s", "-");
-					}
+		// Bring the histories up to date. A failed download keeps the last history or, if there isn't one, is left out
+		Map<String, PriceSeries> downloads = new HashMap<>();
+		for (Map.Entry<String, Future<PriceSeries>> i : barFutures.entrySet()) {
+			downloads.put(i.getKey(), QuoteFetcher.await(i.getValue()));
+		}
+		synchronized (this) {
+			Iterator<Map.Entry<String, HistoricalQuotes>> i = histories.entrySet().iterator();
+			while (i.hasNext()) {
+				Map.Entry<String, HistoricalQuotes> history = i.next();
+				PriceSeries bars = downloads.get(history.getKey());
+				if (bars != null) {
+					history.getValue().update(bars);
+				} else if (history.getValue().getIndicators() == null) {
+					i.remove();
+				}
+			}
+		}
+		return histories;
+	}
 
-					// 52 Week High
-					try {
-						outString[6] = String.format("%,9.2f", Float.valueOf(symbolObj.get("week52High")));
-					} catch (NumberFormatException Ex) {
-						outString[6] = String.format("%9s", "-");
-					}
+	/**
+	 * buildCachedFrame(): Returns the output using the results already downloaded. Used to scroll the display right away
+	 * 
+	 * @return
+	 */
+	public synchronized Frame buildCachedFrame() {
+		if (this.latestMarketState == null) {
+			this.latestMarketState = MarketState.getSnapshot();
+		}
+		return render(null, this.latestContext, this.latestTrends, this.latestCorrelation);
+	}
 
-					// 52 Week Low
-					try {
-						outString[7] = String.format("%,9.2f", Float.valueOf(symbolObj.get("week52Low")));
-					} catch (NumberFormatException Ex) {
-						outString[7] = String.format("%9s", "-");
-					}
+	/**
+	 * refreshOffscreen(): Collect the off-screen downloads that have completed and start the next ones. The securities that
+	 * have gone the longest without a refresh are downloaded first, and none more often than OFFSCREEN_REFRESH_MILLIS
+	 * 
+	 * @param marketState
+	 */
+	private void refreshOffscreen(MarketState marketState) {
+		long now = System.currentTimeMillis();
+
+		Iterator<Map.Entry<String, Future<Symbol>>> i = this.backgroundFetches.entrySet().iterator();
+		while (i.hasNext()) {
+			Map.Entry<String, Future<Symbol>> fetch = i.next();
+			if (fetch.getValue().isDone() == true) {
+				Symbol symbolObj = QuoteFetcher.await(fetch.getValue());
+				this.latestSymbols.put(fetch.getKey(), (symbolObj == null) ? new Symbol(Quote.error(PageType.SYMBOL, fetch.getKey())) : symbolObj);
+				this.fetchTimes.put(fetch.getKey(), now);
+				i.remove();
+			}
+		}
 
-					// Year to date
-					try {
-						outString[8] = String.format("%+9.2f%%", Float.valueOf(symbolObj.get("ytdChangePercent")));
-					} catch (NumberFormatException Ex) {
-						outString[8] = String.format("%9s", "-");
-					}
+		int total = cli.symbolList.size();
+		int slots = Math.max(1, cli.clConcurrency / 4) - this.backgroundFetches.size();
+		if (this.window.isScrollable(total) == false || slots <= 0) {
+			return;
+		}
 
-					// Year to date
-					try {
-						outString[9] = String.format("%+9.2f%%", Float.valueOf(symbolObj.get("oneYearChangePercent")));
-					} catch (NumberFormatException Ex) {
-						outString[9] = String.format("%9s", "-");
-					}
+		List<String> stale = new ArrayList<>();
+		for (int n = 0; n < total; n++) {
+			String symb = cli.symbolList.get(n);
+			if (this.window.contains(n, total) == false && this.backgroundFetches.containsKey(symb) == false
+					&& now - this.fetchTimes.getOrDefault(symb, 0L) >= OFFSCREEN_REFRESH_MILLIS) {
+				stale.add(symb);
+			}
+		}
+		stale.sort(Comparator.comparingLong(symb -> this.fetchTimes.getOrDefault(symb, 0L)));
+
+		for (String symb : stale.subList(0, Math.min(slots, stale.size()))) {
+			Output.debugPrintln("Refreshing off-screen security: " + symb);
+			this.backgroundFetches.put(symb, this.quoteFetcher.submitSymbol(symb, marketState));
+		}
+	}
+
+	/**
+	 * render(): Build the output from the latest downloaded results. The trend is only displayed if histories are provided
+	 * and the correlations only if they have been calculated
+	 * 
+	 * @param exporter
+	 * @param context
+	 * @param histories
+	 * @param correlation
+	 * @return
+	 */
+	private Frame render(FileExporter exporter, QuoteContext context, Map<String, HistoricalQuotes> histories, CorrelationMatrix correlation) {
+		Frame frame = new Frame();
+		boolean exporting = exporter != null && cli.clExport.isEmpty() == false;
+		EnumSet<Indicators.Column> indicatorColumns = Indicators.Column.parseList(cli.clIndicators);
+
+		// Store the time stamp
+		String timeStamp = "";
+
+		// Display the header
+		frame.println(Ansi.Color.YELLOW, "\nQuoter v" + Main.VERSION + " " + Main.COPYRIGHT);
+
+		// Display the data for the symbols entered. If no symbols were entered, just display the index data
+		if (cli.symbolList.size() > 0) {
+			// Indicators requested are added as columns on the right
+			StringBuilder indicatorHeaders = new StringBuilder();
+			for (Indicators.Column c : indicatorColumns) {
+				indicatorHeaders.append(" ".repeat(c.width - c.header.length())).append(c.header);
+			}
+			String separator = "-".repeat(88 + indicatorHeaders.length());
+
+			frame.println(Ansi.Color.CYAN, separator);
+			frame.println(Ansi.Color.CYAN, "Symbol   Current    Chng   Chng%  DayHigh   Daylow  52WHigh   52WLow      YTD%    1Year%" + indicatorHeaders);
+			frame.println(Ansi.Color.CYAN, separator);
+
+			// Loop through each symbol on screen and display it's data
+			int total = cli.symbolList.size();
+			int first = this.window.getFirst(total);
+			int end = this.window.getEnd(total);
+			boolean scrollable = this.window.isScrollable(total);
 
-					// Time Stamp
-					timeStamp = symbolObj.get("timeStamp");
+			for (String currentSymbol : new ArrayList<>(cli.symbolList.subList(first, end))) {
+				Symbol symbolObj = this.latestSymbols.get(currentSymbol);
 
-				} catch (Exception Ex) {
-					Output.printColorln(Ansi.Color.RED, "Unknown Error Occured formatting secuity output");
+				// Scrolled onto the screen before it has been downloaded
+				if (symbolObj == null) {
+					frame.println(Ansi.Color.CYAN, this.row.reset().text(currentSymbol, 8).text("Loading...", 0).toString());
+					continue;
 				}
 
-				// Determine the color based on the change amount
-				Ansi.Color outputColor = Ansi.Color.WHITE;
-				try {
-					if (Float.valueOf(symbolObj.get("change")) < 0) {
-						outputColor = Ansi.Color.RED;
-					}
+				// Check to see if there was an error getting symbol data
+				if (symbolObj.getQuote().isOk() == false) {
+					frame.println(Ansi.Color.BLUE, "'" + currentSymbol + "' is invalid");
 
-					// Write the output to the screen
-					for (int k = 0; k < outString.length; k++) {
-						Output.printColor(outputColor, outString[k]);
+					// Remove this invalid symbol from the list and continue to the next one
+					cli.symbolList.remove(currentSymbol);
+					forget(currentSymbol);
+					continue;
+				}
+				Quote quote = symbolObj.getQuote();
+
+				// Format the row
+				this.row.reset().text(quote.getName(), 8);
+				this.row.price(quote.getLatestPrice(), 8, false).price(quote.getChange(), 8, true).percent(quote.getChangePercent(), 8, true, true);
+				this.row.price(quote.getDayHigh(), 9, false).price(quote.getDayLow(), 9, false);
+				this.row.price(quote.getWeek52High(), 9, false).price(quote.getWeek52Low(), 9, false);
+				this.row.percent(quote.getYtdChangePercent(), 10, true, false).percent(quote.getOneYearChangePercent(), 10, true, false);
+
+				HistoricalQuotes history = this.latestHistories.get(currentSymbol);
+				Indicators indicators = (history == null) ? null : history.getIndicators();
+				for (Indicators.Column c : indicatorColumns) {
+					long value = (indicators == null) ? Price.MISSING : indicators.getLatest(c);
+					if (c.percent == true) {
+						this.row.percent(value, c.width, false, true);
+					} else {
+						this.row.price(value, c.width, false);
 					}
+				}
 
-				} catch (Exception Ex) {
-					Output.printColor(Ansi.Color.RED, "Error Retrieving Data for Symbol:\t" + outString[0]);
+				// Determine the color based on the change amount
+				Ansi.Color outputColor = Ansi.Color.WHITE;
+				if (Price.isMissing(quote.getChange()) == false && quote.getChange() < 0) {
+					outputColor = Ansi.Color.RED;
 				}
 
+				// Write the output to the screen
+				frame.print(outputColor, this.row.toString());
+
 				// Start a new line for the next security
-				Output.println("");
+				frame.println();
 
 				// Set the time stamp
-				timeStamp = symbolObj.get("timeStamp");
+				timeStamp = quote.getTimeStamp();
 
 				// If export is chosen, dump this security's data to the export file
-				if (cli.clExport.isEmpty() == false && exporter.canWrite()) {
+				if (exporting == true && exporter.canWrite()) {
 					exporter.exportSecurities(symbolObj);
 				}
 			}
 
+			// Show where the screen is in a list too long to display at once
+			if (scrollable == true) {
+				frame.println(Ansi.Color.CYAN, String.format("Showing %d-%d of %d securities.  n/b: next/back page  j/k: down/up a row", first + 1, end, total));
+			}
 		}
 
 		// Unless disabled, display the index data
 		if (cli.clHideIndex == false) {
 			// Display Index Output Header
-			Output.printColorln(Ansi.Color.CYAN, "\n----------------------------------------------------------------------------------------");
-			Output.printColorln(Ansi.Color.CYAN, "Index        Current    Change    Change%       52WHigh       52WLow      YTD%    1Year%");
-			Output.printColorln(Ansi.Color.CYAN, "----------------------------------------------------------------------------------------");
+			frame.println(Ansi.Color.CYAN, "\n----------------------------------------------------------------------------------------");
+			frame.println(Ansi.Color.CYAN, "Index        Current    Change    Change%       52WHigh       52WLow      YTD%    1Year%");
+			frame.println(Ansi.Color.CYAN, "----------------------------------------------------------------------------------------");
 
 			// Loop through the three indexes and display the results
-			String[] indexList = { "DOW", "NASDAQ", "S&P" };
-			for (int i = 0; i < indexList.length; i++) {
-				String[] outString = new String[8];
-
-				Output.debugPrintln("\nDEBUG:  --- Getting Index data for: " + indexList[i] + " ---");
-				Index indexObj = new Index(indexList[i]);
+			for (int i = 0; i < INDEX_LIST.length; i++) {
+				Index indexObj = this.latestIndexes[i];
 
 				// Check to see if the index object has an error status
-				if (indexObj.get("status") != "ok") {
-					Output.printColorln(Ansi.Color.BLUE, "'" + indexList[i] + "' data could not be retrieved");
+				if (indexObj == null || indexObj.getQuote().isOk() == false) {
+					frame.println(Ansi.Color.BLUE, "'" + INDEX_LIST[i] + "' data could not be retrieved");
 					continue;
 				}
+				Quote quote = indexObj.getQuote();
 
-				try {
-					// Determine the color based on the change amount
-					Ansi.Color outputColor = Ansi.Color.WHITE;
-					if (Float.valueOf(indexObj.get("change")) < 0) {
-						outputColor = Ansi.Color.RED;
-					}
-
-					// Format the Output
-					// Symbol
-					outString[0] = String.format("%-10s", indexObj.get("index"));
-
-					// Current
-					outString[1] = String.format("%,10.2f", Float.valueOf(indexObj.get("latestPrice")));
-
-					// Change Amount
-					outString[2] = String.format("%+,10.2f", Float.valueOf(indexObj.get("change")));
-
-					// Change Percentage
-					outString[3] = String.format("%+,10.2f%%", Float.valueOf(indexObj.get("changePercent")));
-
-					// 52Week High
-					outString[4] = String.format("%,14.2f", Float.valueOf(indexObj.get("week52High")));
-
-					// 52Week Low
-					outString[5] = String.format("%,13.2f", Float.valueOf(indexObj.get("week52Low")));
+				// Determine the color based on the change amount
+				Ansi.Color outputColor = Ansi.Color.WHITE;
+				if (Price.isMissing(quote.getChange()) == false && quote.getChange() < 0) {
+					outputColor = Ansi.Color.RED;
+				}
 
-					// Year to Date Percent Change
-					outString[6] = String.format("%+9.2f%%", Float.valueOf(indexObj.get("ytdChangePercent")));
+				// Format the row
+				this.row.reset().text(quote.getName(), 10);
+				this.row.price(quote.getLatestPrice(), 10, false).price(quote.getChange(), 10, true).percent(quote.getChangePercent(), 11, true, true);
+				this.row.price(quote.getWeek52High(), 14, false).price(quote.getWeek52Low(), 13, false);
+				this.row.percent(quote.getYtdChangePercent(), 10, true, false).percent(quote.getOneYearChangePercent(), 10, true, false);
 
-					// One Year Percent Change
-					outString[7] = String.format("%+9.2f%%", Float.valueOf(indexObj.get("oneYearChangePercent")));
+				// Display Index results to the screen
+				frame.print(outputColor, this.row.toString());
 
-					// Display Index results to the screen
-					for (int k = 0; k < outString.length; k++) {
-						Output.printColor(outputColor, outString[k]);
-					}
+				// Showing the index so use the index time stamp
+				timeStamp = quote.getTimeStamp();
 
-					// Showing the index so use the index time stamp
-					timeStamp = indexObj.get("timeStamp");
+				// Start a new line for the next index
+				frame.println();
 
-					// Start a new line for the next index
-					Output.println("");
-
-					// If export is chosen, dump this index's data to the export file
-					if (cli.clExport.isEmpty() == false && exporter.canWrite()) {
-						exporter.exportIndexes(indexObj);
-					}
-				} catch (Exception ex) {
-					indexObj.put("status", "error");
+				// If export is chosen, dump this index's data to the export file
+				if (exporting == true && exporter.canWrite()) {
+					exporter.exportIndexes(indexObj);
 				}
 			}
 		}
 
 		// Display the open/closed status of the market
-		Output.printColor(Ansi.Color.CYAN, "\nThe US markets are currently:  ");
-		if (MarketState.queryMarketOpen() == true) {
-			Output.printColorln(Ansi.Color.YELLOW, "==[ OPEN ]==");
+		frame.print(Ansi.Color.CYAN, "\nThe US markets are currently:  ");
+		if (this.latestMarketState.isOpen() == true) {
+			frame.println(Ansi.Color.YELLOW, "==[ OPEN ]==");
 		} else {
-			Output.printColorln(Ansi.Color.YELLOW, "==[ CLOSED ]==");
+			frame.println(Ansi.Color.YELLOW, "==[ CLOSED ]==");
 		}
 
 		// Convert to local time & time zone
@@ -307,27 +634,55 @@ public class QuoteConsoleOutput {
 		timeStamp = timeStamp.replaceAll("AM", "am");
 
 		// Display the time stamp
-		Output.printColorln(Ansi.Color.CYAN, "Data as of " + timeStamp + ". Quotes are delayed.");
+		frame.println(Ansi.Color.CYAN, "Data as of " + timeStamp + ". Quotes are delayed.");
+		int sectionStart = frame.getLineCount();
 
 		// Display trending data if -t was provided and there is at least one valid symbol
-		if (cli.clTrend == true) {
+		if (histories != null && cli.clTrend == true) {
 			if (!cli.symbolList.isEmpty()) {
 				for (String i : cli.symbolList) {
-					HistoricalQuotes hc = new HistoricalQuotes(i);
-					hc.displayTrend(i);
+					HistoricalQuotes hc = histories.get(i);
+					if (hc != null) {
+						hc.displayTrend(i, context.find(i), frame);
+						if (exporting == true && exporter.canWrite()) {
+							exporter.exportTrend(i, hc.getPeriod(), hc.getSeries(), hc.getIndicators(), indicatorColumns);
+						}
+					}
 				}
 
 			} else {
-				Output.printColorln(Ansi.Color.RED, "\nUnable to display security trend (-t) as no securities have been provided. Please see help (-h)");
+				frame.println(Ansi.Color.RED, "\nUnable to display security trend (-t) as no securities have been provided. Please see help (-h)");
 			}
 		}
 
+		// Display the correlation of the securities if -m was provided
+		if (correlation != null) {
+			if (correlation.size() > 1) {
+				correlation.display("S&P 500", frame);
+				if (exporting == true && exporter.canWrite()) {
+					exporter.exportCorrelation(correlation);
+				}
+			} else {
+				frame.println(Ansi.Color.RED, "\nAt least two securities with a history are needed to display correlations (-m)");
+				if (correlation.getDropped().isEmpty() == false) {
+					frame.println(Ansi.Color.RED, "Left out as their history does not cover the period: " + String.join(", ", correlation.getDropped()));
+				}
+			}
+		}
+
+		// Leave room on screen for the sections in the next refresh
+		if (histories != null && frame.getLineCount() - sectionStart != this.sectionLines) {
+			this.sectionLines = frame.getLineCount() - sectionStart;
+			fitWindow();
+		}
+
 		// Flush and close export file if needed
-		if (cli.clExport.isEmpty() == false) {
+		if (exporting == true) {
 			exporter.close();
-			Output.printColorln(Ansi.Color.YELLOW, "\nData export has completed to file: '" + exporter.queryExportFilename() + "'");
+			frame.println(Ansi.Color.YELLOW, "\nData export has completed to file: '" + exporter.queryExportFilename() + "'");
 		}
 
+		return frame;
 	}
 
 }
@@ -0,0 +1,98 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * QuoteContext: The quotes downloaded during a single refresh. Everything displayed in the refresh, such as the trend,
+ * looks up its quotes here so a security is only downloaded once per refresh. Securities are matched ignoring case.
+ *
+ */
+public class QuoteContext {
+	// Class Variables
+	private final MarketState marketState;
+	private final Map<String, Quote> quotes = new ConcurrentHashMap<>();
+
+	/**
+	 * QuoteContext Constructor(): Create an empty context for a refresh using the provided market state
+	 * 
+	 * @param marketState
+	 */
+	public QuoteContext(MarketState marketState) {
+		this.marketState = marketState;
+	}
+
+	/**
+	 * getMarketState(): Return the market state shared by every quote in this refresh
+	 * 
+	 * @return
+	 */
+	public MarketState getMarketState() {
+		return this.marketState;
+	}
+
+	/**
+	 * put(): Save a quote downloaded during this refresh
+	 * 
+	 * @param symb
+	 * @param quote
+	 */
+	public void put(String symb, Quote quote) {
+		this.quotes.put(symb.toUpperCase(), quote);
+	}
+
+	/**
+	 * find(): Return the quote for the provided security or null if it hasn't been downloaded in this refresh
+	 * 
+	 * @param symb
+	 * @return
+	 */
+	public Quote find(String symb) {
+		return this.quotes.get(symb.toUpperCase());
+	}
+
+	/**
+	 * getSymbol(): Return the quote for the provided security, downloading it if this refresh doesn't have it yet
+	 * 
+	 * @param symb
+	 * @return
+	 */
+	public Quote getSymbol(String symb) {
+		Quote quote = find(symb);
+		if (quote == null) {
+			quote = new Symbol(symb, this.marketState).getQuote();
+			Quote existing = this.quotes.putIfAbsent(symb.toUpperCase(), quote);
+			if (existing != null) {
+				quote = existing;
+			}
+		}
+		return quote;
+	}
+
+}
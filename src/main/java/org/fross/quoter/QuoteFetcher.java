@@ -0,0 +1,178 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import java.time.LocalDate;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import org.fross.library.Output;
+
+/**
+ * QuoteFetcher: Downloads security and index pages in parallel. The number of pages being downloaded at the same time is
+ * limited to the provided maximum. Results are returned as Futures so the caller can display them in the order requested.
+ *
+ */
+public class QuoteFetcher {
+	// Class Constants
+	public static final int DEFAULT_MAX_CONCURRENT = 8;
+
+	// Class Variables
+	private final ExecutorService executor;
+	private final Semaphore permits;
+
+	/**
+	 * QuoteFetcher Constructor(): Create the executor used to download pages
+	 * 
+	 * @param maxConcurrent
+	 */
+	public QuoteFetcher(int maxConcurrent) {
+		if (maxConcurrent < 1) {
+			maxConcurrent = DEFAULT_MAX_CONCURRENT;
+		}
+
+		this.permits = new Semaphore(maxConcurrent);
+		this.executor = createExecutor(maxConcurrent);
+	}
+
+	/**
+	 * createExecutor(): Use virtual threads if the running JVM supports them. Otherwise fall back to a fixed pool of daemon
+	 * threads so a running download never prevents the program from exiting
+	 * 
+	 * @param maxConcurrent
+	 * @return
+	 */
+	private static ExecutorService createExecutor(int maxConcurrent) {
+		try {
+			ExecutorService virtualExecutor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+			Output.debugPrintln("QuoteFetcher using virtual threads with a limit of " + maxConcurrent + " concurrent downloads");
+			return virtualExecutor;
+
+		} catch (ReflectiveOperationException ex) {
+			Output.debugPrintln("QuoteFetcher using a pool of " + maxConcurrent + " threads");
+			return Executors.newFixedThreadPool(maxConcurrent, runnable -> {
+				Thread t = new Thread(runnable, "QuoteFetcher");
+				t.setDaemon(true);
+				return t;
+			});
+		}
+	}
+
+	/**
+	 * submitSymbol(): Start downloading the provided security in the background
+	 * 
+	 * @param symb
+	 * @param marketState
+	 * @return
+	 */
+	public Future<Symbol> submitSymbol(final String symb, final MarketState marketState) {
+		return submit(() -> new Symbol(symb, marketState));
+	}
+
+	/**
+	 * submitIndex(): Start downloading the provided index in the background
+	 * 
+	 * @param idx
+	 * @param marketState
+	 * @return
+	 */
+	public Future<Index> submitIndex(final String idx, final MarketState marketState) {
+		return submit(() -> new Index(idx, marketState));
+	}
+
+	/**
+	 * submitHistory(): Start downloading the trend bars of the provided security in the background. They are added to the
+	 * history with HistoricalQuotes.update()
+	 * 
+	 * @param history
+	 * @param symb
+	 * @return
+	 */
+	public Future<PriceSeries> submitHistory(final HistoricalQuotes history, final String symb) {
+		return submit(() -> history.download(symb));
+	}
+
+	/**
+	 * submitHistoryRange(): Start downloading the daily history of the provided security between two dates
+	 * 
+	 * @param symb
+	 * @param start
+	 * @param end
+	 * @return
+	 */
+	public Future<PriceSeries> submitHistoryRange(final String symb, final LocalDate start, final LocalDate end) {
+		return submit(() -> HistoricalQuotes.downloadHistoricalQuotes(symb, start, end));
+	}
+
+	/**
+	 * submit(): Run the provided task once a download slot is available
+	 * 
+	 * @param <T>
+	 * @param task
+	 * @return
+	 */
+	protected <T> Future<T> submit(final Callable<T> task) {
+		return this.executor.submit(() -> {
+			permits.acquire();
+			try {
+				return task.call();
+			} finally {
+				permits.release();
+			}
+		});
+	}
+
+	/**
+	 * await(): Wait for the provided download to complete and return the result. Null is returned if the download failed
+	 * 
+	 * @param <T>
+	 * @param future
+	 * @return
+	 */
+	public static <T> T await(Future<T> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException ex) {
+			Output.debugPrintln("Background download failed: " + ex.getCause());
+		}
+		return null;
+	}
+
+	/**
+	 * shutdown(): Stop accepting new downloads and release the threads
+	 */
+	public void shutdown() {
+		this.executor.shutdown();
+	}
+
+}
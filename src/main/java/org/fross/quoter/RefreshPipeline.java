@@ -0,0 +1,153 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import org.fross.library.Output;
+
+/**
+ * RefreshPipeline: Builds the next auto-refresh frame in the background while the count down is still running so it is
+ * ready to be displayed the moment the refresh is due. How early the build starts is based on how long the last one took.
+ *
+ */
+public class RefreshPipeline {
+	// Class Constants
+	private static final int MIN_LEAD_SECONDS = 1;
+
+	// Class Variables
+	private final Supplier<Frame> builder;
+	private final ExecutorService executor;
+	private volatile long lastBuildMillis = 0;
+	private Future<Frame> pending = null;
+	private int pendingGeneration = 0;
+	private int generation = 0;
+
+	/**
+	 * RefreshPipeline Constructor(): Create a pipeline using the provided frame builder
+	 * 
+	 * @param builder
+	 */
+	public RefreshPipeline(Supplier<Frame> builder) {
+		this.builder = builder;
+		this.executor = Executors.newSingleThreadExecutor(runnable -> {
+			Thread t = new Thread(runnable, "RefreshPipeline");
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	/**
+	 * leadSeconds(): Return how many seconds before the refresh the next frame should start building. The last build time
+	 * plus half again, rounded up, and never more than the seconds remaining
+	 * 
+	 * @param secondsRemaining
+	 * @return
+	 */
+	public int leadSeconds(int secondsRemaining) {
+		int lead = (int) ((this.lastBuildMillis * 3 / 2 + 999) / 1000) + MIN_LEAD_SECONDS;
+		return Math.min(lead, Math.max(secondsRemaining, 0));
+	}
+
+	/**
+	 * prefetch(): Start building the next frame in the background if it hasn't been started already
+	 */
+	public synchronized void prefetch() {
+		if (this.pending == null) {
+			Output.debugPrintln("Prefetching the next refresh");
+			this.pending = this.executor.submit(this::build);
+			this.pendingGeneration = this.generation;
+		}
+	}
+
+	/**
+	 * invalidate(): The displayed content has changed so a frame already being built can't be used. The next take() builds a
+	 * new one
+	 */
+	public synchronized void invalidate() {
+		this.generation++;
+	}
+
+	/**
+	 * take(): Return the next frame, waiting for the background build to complete if needed. If the build was never started,
+	 * failed, or was invalidated, the frame is built now
+	 * 
+	 * @return
+	 */
+	public Frame take() {
+		Future<Frame> future;
+		boolean current;
+		synchronized (this) {
+			future = this.pending;
+			current = (this.pendingGeneration == this.generation);
+			this.pending = null;
+		}
+
+		if (future != null) {
+			try {
+				// Wait even if it is out of date so only one frame is ever being built
+				Frame frame = future.get();
+				if (current == true) {
+					return frame;
+				}
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException ex) {
+				Output.debugPrintln("Background refresh failed: " + ex.getCause());
+			}
+		}
+
+		return build();
+	}
+
+	/**
+	 * build(): Build a frame and remember how long it took
+	 * 
+	 * @return
+	 */
+	private Frame build() {
+		long start = System.nanoTime();
+		try {
+			return this.builder.get();
+		} finally {
+			this.lastBuildMillis = (System.nanoTime() - start) / 1000000;
+			Output.debugPrintln("Refresh built in " + this.lastBuildMillis + "ms");
+		}
+	}
+
+	/**
+	 * shutdown(): Release the background thread
+	 */
+	public void shutdown() {
+		this.executor.shutdownNow();
+	}
+
+}
@@ -0,0 +1,306 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.fross.library.Output;
+
+/**
+ * RefreshScheduler: Determines how long to wait before the next auto-refresh based on the US market session.
+ * 
+ * The requested refresh time is used during regular trading hours and is shortened around the open and close. It is
+ * stretched during pre-market and after-hours trading and stretched further overnight, on weekends and on holidays, but
+ * never past the start of the next session. Refreshes are aligned to wall clock multiples of the interval plus a small
+ * offset chosen for each run, so multiple copies of Quoter don't all hit the website at the same instant.
+ * 
+ * Early closes (such as the day after Thanksgiving) are treated as full trading days.
+ *
+ */
+public class RefreshScheduler {
+	// Class Constants
+	protected static final ZoneId MARKET_ZONE = ZoneId.of("America/New_York");
+	protected static final LocalTime PRE_MARKET_START = LocalTime.of(4, 0);
+	protected static final LocalTime REGULAR_START = LocalTime.of(9, 30);
+	protected static final LocalTime REGULAR_END = LocalTime.of(16, 0);
+	protected static final LocalTime AFTER_HOURS_END = LocalTime.of(20, 0);
+	protected static final Duration OPEN_CLOSE_WINDOW = Duration.ofMinutes(15);
+	protected static final int EXTENDED_HOURS_MULTIPLIER = 2;
+	protected static final int CLOSED_MULTIPLIER = 10;
+	protected static final int MAX_CLOSED_INTERVAL = 3600;
+	protected static final int MAX_OFFSET = 15;
+
+	// US market sessions
+	public enum Session {
+		PRE_MARKET, REGULAR, AFTER_HOURS, CLOSED
+	}
+
+	// Class Variables
+	private final int baseInterval;
+	private final int offset;
+	private final Clock clock;
+
+	/**
+	 * RefreshScheduler Constructor(): Create a scheduler for the provided refresh time in seconds
+	 * 
+	 * @param baseInterval
+	 */
+	public RefreshScheduler(int baseInterval) {
+		this(baseInterval, Clock.systemUTC(), ThreadLocalRandom.current().nextInt(Math.max(1, Math.min(MAX_OFFSET, baseInterval / 4) + 1)));
+	}
+
+	/**
+	 * RefreshScheduler Constructor(): Create a scheduler with a specific clock and alignment offset
+	 * 
+	 * @param baseInterval
+	 * @param clock
+	 * @param offset
+	 */
+	protected RefreshScheduler(int baseInterval, Clock clock, int offset) {
+		this.baseInterval = Math.max(1, baseInterval);
+		this.clock = clock;
+		this.offset = offset;
+	}
+
+	/**
+	 * secondsUntilNextRefresh(): Return the number of seconds to wait before the next refresh
+	 * 
+	 * @return
+	 */
+	public int secondsUntilNextRefresh() {
+		return secondsUntilNextRefresh(ZonedDateTime.now(this.clock).withZoneSameInstant(MARKET_ZONE));
+	}
+
+	/**
+	 * secondsUntilNextRefresh(): Return the number of seconds to wait from the provided time before the next refresh
+	 * 
+	 * @param now
+	 * @return
+	 */
+	protected int secondsUntilNextRefresh(ZonedDateTime now) {
+		now = now.withZoneSameInstant(MARKET_ZONE);
+		Session session = getSession(now);
+		int interval = intervalFor(session, now);
+
+		// Align to the next wall clock multiple of the interval, shifted by this run's offset
+		long epochSecond = now.toEpochSecond();
+		long nextRefresh = Math.floorDiv(epochSecond - this.offset, interval) * interval + interval + this.offset;
+		long delay = nextRefresh - epochSecond;
+
+		// Outside of regular hours, don't sleep past the start of the next session
+		if (session != Session.REGULAR) {
+			long untilChange = Duration.between(now, nextSessionChange(now)).getSeconds() + this.offset;
+			delay = Math.min(delay, Math.max(1, untilChange));
+		}
+
+		Output.debugPrintln("Market session: " + session + "  Refresh interval: " + interval + "s  Next refresh in " + delay + "s");
+		return (int) Math.max(1, delay);
+	}
+
+	/**
+	 * intervalFor(): Return the refresh interval in seconds to use for the provided session
+	 * 
+	 * @param session
+	 * @param now
+	 * @return
+	 */
+	protected int intervalFor(Session session, ZonedDateTime now) {
+		switch (session) {
+		case REGULAR:
+			LocalTime time = now.toLocalTime();
+			if (time.isBefore(REGULAR_START.plus(OPEN_CLOSE_WINDOW)) || !time.isBefore(REGULAR_END.minus(OPEN_CLOSE_WINDOW))) {
+				return Math.max(1, this.baseInterval / 2);
+			}
+			return this.baseInterval;
+
+		case PRE_MARKET:
+		case AFTER_HOURS:
+			return this.baseInterval * EXTENDED_HOURS_MULTIPLIER;
+
+		default:
+			return Math.max(this.baseInterval, Math.min(this.baseInterval * CLOSED_MULTIPLIER, MAX_CLOSED_INTERVAL));
+		}
+	}
+
+	/**
+	 * getSession(): Return the US market session for the provided time
+	 * 
+	 * @param now
+	 * @return
+	 */
+	public static Session getSession(ZonedDateTime now) {
+		ZonedDateTime marketTime = now.withZoneSameInstant(MARKET_ZONE);
+		LocalTime time = marketTime.toLocalTime();
+
+		if (isTradingDay(marketTime.toLocalDate()) == false || time.isBefore(PRE_MARKET_START) || !time.isBefore(AFTER_HOURS_END)) {
+			return Session.CLOSED;
+		} else if (time.isBefore(REGULAR_START)) {
+			return Session.PRE_MARKET;
+		} else if (time.isBefore(REGULAR_END)) {
+			return Session.REGULAR;
+		} else {
+			return Session.AFTER_HOURS;
+		}
+	}
+
+	/**
+	 * nextSessionChange(): Return the time the session following the provided time begins
+	 * 
+	 * @param now
+	 * @return
+	 */
+	protected static ZonedDateTime nextSessionChange(ZonedDateTime now) {
+		ZonedDateTime marketTime = now.withZoneSameInstant(MARKET_ZONE);
+		LocalDate date = marketTime.toLocalDate();
+
+		switch (getSession(marketTime)) {
+		case PRE_MARKET:
+			return date.atTime(REGULAR_START).atZone(MARKET_ZONE);
+		case REGULAR:
+			return date.atTime(REGULAR_END).atZone(MARKET_ZONE);
+		case AFTER_HOURS:
+			return date.atTime(AFTER_HOURS_END).atZone(MARKET_ZONE);
+		default:
+			// Closed: pre-market begins on the next trading day. That may be later today if it's early in the morning
+			if (isTradingDay(date) == false || !marketTime.toLocalTime().isBefore(PRE_MARKET_START)) {
+				date = date.plusDays(1);
+			}
+			while (isTradingDay(date) == false) {
+				date = date.plusDays(1);
+			}
+			return date.atTime(PRE_MARKET_START).atZone(MARKET_ZONE);
+		}
+	}
+
+	/**
+	 * isTradingDay(): Return true if the provided date is a weekday that is not a US market holiday
+	 * 
+	 * @param date
+	 * @return
+	 */
+	public static boolean isTradingDay(LocalDate date) {
+		DayOfWeek dow = date.getDayOfWeek();
+		return dow != DayOfWeek.SATURDAY && dow != DayOfWeek.SUNDAY && isHoliday(date) == false;
+	}
+
+	/**
+	 * isHoliday(): Return true if the US stock markets are closed for a holiday on the provided date
+	 * 
+	 * @param date
+	 * @return
+	 */
+	public static boolean isHoliday(LocalDate date) {
+		int year = date.getYear();
+
+		// New Year's Day. When it falls on a Saturday the market does not close the Friday before
+		LocalDate newYears = LocalDate.of(year, Month.JANUARY, 1);
+		if (newYears.getDayOfWeek() == DayOfWeek.SUNDAY) {
+			newYears = newYears.plusDays(1);
+		}
+
+		LocalDate[] holidays = { newYears, //
+				nthDayOfWeek(year, Month.JANUARY, DayOfWeek.MONDAY, 3), // Martin Luther King Jr. Day
+				nthDayOfWeek(year, Month.FEBRUARY, DayOfWeek.MONDAY, 3), // Presidents Day
+				easterSunday(year).minusDays(2), // Good Friday
+				LocalDate.of(year, Month.MAY, 1).with(TemporalAdjusters.lastInMonth(DayOfWeek.MONDAY)), // Memorial Day
+				(year >= 2022) ? observed(LocalDate.of(year, Month.JUNE, 19)) : null, // Juneteenth
+				observed(LocalDate.of(year, Month.JULY, 4)), // Independence Day
+				nthDayOfWeek(year, Month.SEPTEMBER, DayOfWeek.MONDAY, 1), // Labor Day
+				nthDayOfWeek(year, Month.NOVEMBER, DayOfWeek.THURSDAY, 4), // Thanksgiving
+				observed(LocalDate.of(year, Month.DECEMBER, 25)) // Christmas
+		};
+
+		for (LocalDate holiday : holidays) {
+			if (date.equals(holiday)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * observed(): Holidays on a Saturday are observed on Friday and those on a Sunday are observed on Monday
+	 * 
+	 * @param date
+	 * @return
+	 */
+	private static LocalDate observed(LocalDate date) {
+		if (date.getDayOfWeek() == DayOfWeek.SATURDAY) {
+			return date.minusDays(1);
+		} else if (date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+			return date.plusDays(1);
+		}
+		return date;
+	}
+
+	/**
+	 * nthDayOfWeek(): Return the nth occurrence of a day of the week in the provided month
+	 * 
+	 * @param year
+	 * @param month
+	 * @param dow
+	 * @param n
+	 * @return
+	 */
+	private static LocalDate nthDayOfWeek(int year, Month month, DayOfWeek dow, int n) {
+		return LocalDate.of(year, month, 1).with(TemporalAdjusters.dayOfWeekInMonth(n, dow));
+	}
+
+	/**
+	 * easterSunday(): Calculate the date of Easter using the anonymous Gregorian algorithm
+	 * 
+	 * @param year
+	 * @return
+	 */
+	private static LocalDate easterSunday(int year) {
+		int a = year % 19;
+		int b = year / 100;
+		int c = year % 100;
+		int d = b / 4;
+		int e = b % 4;
+		int f = (b + 8) / 25;
+		int g = (b - f + 1) / 3;
+		int h = (19 * a + b - d - g + 15) % 30;
+		int i = c / 4;
+		int k = c % 4;
+		int l = (32 + 2 * e + 2 * i - h - k) % 7;
+		int m = (a + 11 * h + 22 * l) / 451;
+		int month = (h + l - 7 * m + 114) / 31;
+		int day = ((h + l - 7 * m + 114) % 31) + 1;
+		return LocalDate.of(year, month, day);
+	}
+
+}
@@ -0,0 +1,142 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import java.util.Arrays;
+
+/**
+ * RowFormatter: Builds a line of fixed width columns in a reusable character buffer. Prices are written directly into the
+ * buffer so a row is formatted without creating any intermediate strings.
+ *
+ */
+public class RowFormatter {
+	private char[] buffer;
+	private int length = 0;
+
+	/**
+	 * RowFormatter Constructor(): Create a formatter with room for a standard console row
+	 */
+	public RowFormatter() {
+		this(128);
+	}
+
+	/**
+	 * RowFormatter Constructor(): Create a formatter with the provided initial capacity. The buffer grows if needed
+	 * 
+	 * @param capacity
+	 */
+	public RowFormatter(int capacity) {
+		this.buffer = new char[Math.max(capacity, Price.MAX_LENGTH)];
+	}
+
+	/**
+	 * reset(): Empty the row so the buffer can be reused for the next one
+	 * 
+	 * @return
+	 */
+	public RowFormatter reset() {
+		this.length = 0;
+		return this;
+	}
+
+	/**
+	 * text(): Add text left aligned in the provided width. Longer text is not truncated
+	 * 
+	 * @param value
+	 * @param width
+	 * @return
+	 */
+	public RowFormatter text(String value, int width) {
+		int count = value.length();
+		ensureCapacity(Math.max(count, width));
+
+		value.getChars(0, count, this.buffer, this.length);
+		this.length += count;
+		for (int i = count; i < width; i++) {
+			this.buffer[this.length++] = ' ';
+		}
+		return this;
+	}
+
+	/**
+	 * price(): Add a price with two decimals and thousands separators right aligned in the provided width
+	 * 
+	 * @param value
+	 * @param width
+	 * @param showSign
+	 * @return
+	 */
+	public RowFormatter price(long value, int width, boolean showSign) {
+		ensureCapacity(Math.max(width, Price.MAX_LENGTH));
+		this.length = Price.formatTo(this.buffer, this.length, value, 2, width, showSign, true);
+		return this;
+	}
+
+	/**
+	 * percent(): Add a percentage with two decimals and a trailing '%' right aligned in the provided width
+	 * 
+	 * @param value
+	 * @param width
+	 * @param showSign
+	 * @param grouping
+	 * @return
+	 */
+	public RowFormatter percent(long value, int width, boolean showSign, boolean grouping) {
+		ensureCapacity(Math.max(width, Price.MAX_LENGTH + 1));
+		this.length = Price.formatPercentTo(this.buffer, this.length, value, width, showSign, grouping);
+		return this;
+	}
+
+	/**
+	 * length(): Return the number of characters in the row
+	 * 
+	 * @return
+	 */
+	public int length() {
+		return this.length;
+	}
+
+	/**
+	 * toString(): Return the row
+	 */
+	@Override
+	public String toString() {
+		return new String(this.buffer, 0, this.length);
+	}
+
+	/**
+	 * ensureCapacity(): Grow the buffer if it can't hold the number of additional characters provided
+	 * 
+	 * @param additional
+	 */
+	private void ensureCapacity(int additional) {
+		if (this.length + additional > this.buffer.length) {
+			this.buffer = Arrays.copyOf(this.buffer, Math.max(this.buffer.length * 2, this.length + additional));
+		}
+	}
+
+}
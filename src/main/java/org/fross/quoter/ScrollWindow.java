@@ -0,0 +1,130 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+/**
+ * ScrollWindow: Tracks which rows of a long list fit on the screen. The window is moved a row or a page at a time and is
+ * always kept inside the list as it grows and shrinks. A window with no rows shows the entire list.
+ * 
+ * ScrollWindow is not thread safe. QuoteConsoleOutput guards it with its own lock.
+ *
+ */
+public class ScrollWindow {
+	// Class Variables
+	private int rows = 0;
+	private int first = 0;
+
+	/**
+	 * setRows(): Set the number of rows that fit on the screen. Zero shows every row
+	 * 
+	 * @param rows
+	 */
+	public void setRows(int rows) {
+		this.rows = Math.max(0, rows);
+	}
+
+	/**
+	 * getRows(): Return the number of rows that fit on the screen
+	 * 
+	 * @return
+	 */
+	public int getRows() {
+		return this.rows;
+	}
+
+	/**
+	 * isScrollable(): Return true if a list of the provided size does not fit on the screen
+	 * 
+	 * @param total
+	 * @return
+	 */
+	public boolean isScrollable(int total) {
+		return this.rows > 0 && total > this.rows;
+	}
+
+	/**
+	 * getFirst(): Return the position of the first row shown for a list of the provided size
+	 * 
+	 * @param total
+	 * @return
+	 */
+	public int getFirst(int total) {
+		if (isScrollable(total) == false) {
+			return 0;
+		}
+		this.first = Math.max(0, Math.min(this.first, total - this.rows));
+		return this.first;
+	}
+
+	/**
+	 * getEnd(): Return the position after the last row shown for a list of the provided size
+	 * 
+	 * @param total
+	 * @return
+	 */
+	public int getEnd(int total) {
+		if (isScrollable(total) == false) {
+			return total;
+		}
+		return getFirst(total) + this.rows;
+	}
+
+	/**
+	 * contains(): Return true if the row at the provided position is shown
+	 * 
+	 * @param position
+	 * @param total
+	 * @return
+	 */
+	public boolean contains(int position, int total) {
+		return position >= getFirst(total) && position < getEnd(total);
+	}
+
+	/**
+	 * scroll(): Move the window down the provided number of rows. Negative values move it up
+	 * 
+	 * @param count
+	 * @param total
+	 */
+	public void scroll(int count, int total) {
+		if (isScrollable(total) == true) {
+			this.first = getFirst(total) + count;
+			getFirst(total);
+		}
+	}
+
+	/**
+	 * page(): Move the window down the provided number of screens. Negative values move it up
+	 * 
+	 * @param count
+	 * @param total
+	 */
+	public void page(int count, int total) {
+		scroll(count * this.rows, total);
+	}
+
+}
@@ -27,22 +27,20 @@
 package org.fross.quoter;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.fross.library.Debug;
 import org.fross.library.Output;
-import org.fusesource.jansi.Ansi;
+import org.fross.quoter.XPathLookup.PageType;
 import org.jsoup.HttpStatusException;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 
-import us.codecraft.xsoup.Xsoup;
+import us.codecraft.xsoup.XPathEvaluator;
 
 public class Symbol {
-	HashMap<String, String> symbolData = new HashMap<>();
-	XPathLookup xPathLookup = new XPathLookup();
+	private Quote quote;
 
 	/**
 	 * Symbol Constructor(): Initialize class with a symbol to process
@@ -50,21 +48,49 @@ public class Symbol {
 	 * @param symb
 	 */
 	public Symbol(String symb) {
-		getSymbolData(symb);
+		this(symb, MarketState.getSnapshot());
 	}
 
 	/**
-	 * queryPageItem():Find the specific value in the provided doc with the xPath given
+	 * Symbol Constructor(): Initialize class with a symbol to process using an already retrieved market state
+	 * 
+	 * @param symb
+	 * @param marketState
+	 */
+	public Symbol(String symb, MarketState marketState) {
+		this.quote = getSymbolData(symb, marketState);
+	}
+
+	/**
+	 * Symbol Constructor(): Initialize class with an already retrieved quote
+	 * 
+	 * @param quote
+	 */
+	protected Symbol(Quote quote) {
+		this.quote = quote;
+	}
+
+	/**
+	 * queryPageItem():Find the specific value in the provided doc with an already compiled xPath
 	 * 
 	 * @param doc
 	 * @param xPath
 	 * @return
 	 */
-	protected static String queryPageItem(Document doc, String xPath) {
-		List<Element> elements = Xsoup.compile(xPath).evaluate(doc).getElements();
+	protected static String queryPageItem(Document doc, XPathEvaluator xPath) {
+		List<Element> elements = xPath.evaluate(doc).getElements();
 		return elements.get(0).text();
 	}
 
+	/**
+	 * getQuote(): Returns the parsed security details
+	 * 
+	 * @return
+	 */
+	protected Quote getQuote() {
+		return this.quote;
+	}
+
 	/**
 	 * get(): Returns security detail based on passed field
 	 * 
@@ -72,16 +98,11 @@ public class Symbol {
 	 * @return
 	 */
 	protected String get(String field) {
-		try {
-			return this.symbolData.get(field);
-		} catch (Exception ex) {
-			Output.printColorln(Ansi.Color.RED, "Could not query '" + field + "' field in security data");
-			throw new IllegalArgumentException();
-		}
+		return this.quote.get(field);
 	}
 
 	/**
-	 * put(): Update a value in the objects symbolData HashMap
+	 * put(): Update a value in the security details
 	 * 
 	 * @param field
 	 * @param value
@@ -89,7 +110,7 @@ public class Symbol {
 	 */
 	protected boolean put(String field, String value) {
 		try {
-			this.symbolData.put(field, value);
+			this.quote = this.quote.with(field, value);
 		} catch (Exception ex) {
 			return false;
 		}
@@ -97,217 +118,65 @@ public class Symbol {
 	}
 
 	/**
-	 * getAllFieldNames(): Return an array of all of the keys in the HashMap
+	 * getAllFieldNames(): Return a list of all of the security detail fields
 	 * 
 	 * @return
 	 */
 	protected List<String> getAllFieldNames() {
-		List<String> returnList = new ArrayList<String>();
-
-		for (String i : this.symbolData.keySet()) {
-			returnList.add(i);
-		}
-
-		return returnList;
+		return new ArrayList<String>(this.quote.getFieldNames());
 	}
 
-	private void getSymbolData(String symb) {
+	private Quote getSymbolData(String symb, MarketState marketState) {
 		String URL = "https://www.marketwatch.com/investing/stock/SYMBOLHERE";
-		Document htmlPage = null;
+
+		// Use the saved copy if another run of Quoter fetched this symbol recently
+		String cacheKey = QuoteCache.key("symbol", symb, marketState.isOpen());
+		Map<String, String> cached = QuoteCache.get(cacheKey);
+		if (cached != null) {
+			return Quote.fromMap(PageType.SYMBOL, cached);
+		}
 
 		// Add the provided symbol to the URL template
 		URL = URL.replaceAll("SYMBOLHERE", symb);
 		Output.debugPrintln("Symbol URL rewritten to: " + URL);
 
 		try {
-			// Download and parse the the webpage with xSoup
-			try {
-				htmlPage = Jsoup.connect(URL).userAgent("Mozilla").get();
-			} catch (HttpStatusException ex) {
-				this.symbolData.put("status", "error");
-				return;
-			}
-
-			// Provide a status & name field
-			this.symbolData.put("symbol", symb.toUpperCase());
-			this.symbolData.put("status", "ok");
-
 			// MarketWatch has different XPaths depending if the market is open or closed
-			if (MarketState.queryMarketOpen() == false) {
-				// Market is CLOSED
+			if (marketState.isOpen() == false) {
 				Output.debugPrintln("Market is currently CLOSED");
-
-				// Current Price
-				String key = "latestPrice";
-				String result = queryPageItem(htmlPage, this.xPathLookup.lookupSymbolClosed(key));
-				this.symbolData.put(key, result.replaceAll("[$,%]", "").trim());
-
-				// Change
-				key = "change";
-				result = queryPageItem(htmlPage, this.xPathLookup.lookupSymbolClosed(key));
-				this.symbolData.put(key, result.replaceAll("[$,%]", "").trim());
-
-				// Change Percent
-				key = "changePercent";
-				result = queryPageItem(htmlPage, this.xPathLookup.lookupSymbolClosed(key));
-				this.symbolData.put(key, result.replaceAll("[,%]", "").trim());
-
-				// 52 Week High / Low - Get range and split into high/low
-				key = "52weekRange";
-				result = queryPageItem(htmlPage, this.xPathLookup.lookupSymbolClosed(key));
-
-				String low52 = "";
-				String high52 = "";
-				try {
-					low52 = result.split(" - ")[0];
-					high52 = result.split(" - ")[1];
-				} catch (Exception ex) {
-					low52 = high52 = "-";
-				}
-
-				this.symbolData.put("week52High", high52.replaceAll("[,%]", "").trim());
-				this.symbolData.put("week52Low", low52.replaceAll("[,%]", "").trim());
-
-				// Day Range - Get range and split into high/low
-				key = "dayRange";
-				result = queryPageItem(htmlPage, this.xPathLookup.lookupSymbolClosed(key));
-
-				String lowD = "";
-				String highD = "";
-				try {
-					lowD = result.split(" - ")[0];
-					highD = result.split(" - ")[1];
-				} catch (Exception ex) {
-					lowD = highD = "-";
-				}
-
-				this.symbolData.put("dayHigh", highD.replaceAll("[,%]", "").trim());
-				this.symbolData.put("dayLow", lowD.replaceAll("[,%]", "").trim());
-
-				// Year to Date Change
-				key = "ytdChangePercent";
-				this.setOptionalField(htmlPage, key, MarketStatus.Closed);
-
-				// One Year Change Percent
-				key = "oneYearChangePercent";
-				this.setOptionalField(htmlPage, key, MarketStatus.Closed);
-
-				// TimeStamp
-				key = "timeStamp";
-				result = queryPageItem(htmlPage, this.xPathLookup.lookupSymbolClosed(key));
-				this.symbolData.put(key, result.replaceAll("[,%]", "").trim());
-
-				// Full Name of Company
-				key = "fullname";
-				result = queryPageItem(htmlPage, this.xPathLookup.lookupSymbolClosed(key));
-				this.symbolData.put(key, result.trim());
-
 			} else {
-				// Market is OPEN
 				Output.debugPrintln("Market is currently OPEN");
+			}
 
-				// Current Price
-				String key = "latestPrice";
-				String result = queryPageItem(htmlPage, this.xPathLookup.lookupSymbolOpen(key));
-				this.symbolData.put(key, result.replaceAll("[,%]", "").trim());
-
-				// Change
-				key = "change";
-				result = queryPageItem(htmlPage, this.xPathLookup.lookupSymbolOpen(key));
-				this.symbolData.put(key, result.replaceAll("[,%]", "").trim());
-
-				// Change Percent
-				key = "changePercent";
-				result = queryPageItem(htmlPage, this.xPathLookup.lookupSymbolOpen(key));
-				this.symbolData.put(key, result.replaceAll("[,%]", "").trim());
-
-				// 52 Week High / Low - Get range and split into high/low
-				key = "52weekRange";
-				result = queryPageItem(htmlPage, this.xPathLookup.lookupSymbolOpen(key));
-
-				String low52 = "";
-				String high52 = "";
-				try {
-					low52 = result.split(" - ")[0];
-					high52 = result.split(" - ")[1];
-				} catch (Exception ex) {
-					low52 = high52 = "-";
-				}
-
-				this.symbolData.put("week52High", high52.replaceAll("[,%]", "").trim());
-				this.symbolData.put("week52Low", low52.replaceAll("[,%]", "").trim());
-
-				// Day Range - Get range and split into high/low
-				key = "dayRange";
-				result = queryPageItem(htmlPage, this.xPathLookup.lookupSymbolOpen(key));
-
-				String lowD = "";
-				String highD = "";
-				try {
-					lowD = result.split(" - ")[0];
-					highD = result.split(" - ")[1];
-				} catch (Exception ex) {
-					lowD = highD = "-";
-				}
-
-				this.symbolData.put("dayHigh", highD.replaceAll("[,%]", "").trim());
-				this.symbolData.put("dayLow", lowD.replaceAll("[,%]", "").trim());
-
-				// Year to Date Change
-				key = "ytdChangePercent";
-				this.setOptionalField(htmlPage, key, MarketStatus.Open);
-
-				// One Year Change Percent
-				key = "oneYearChangePercent";
-				this.setOptionalField(htmlPage, key, MarketStatus.Open);
+			// Download the webpage and pull out the fields as it arrives. The download stops once they have all been found
+			Map<String, String> pageItems = null;
+			try {
+				pageItems = PageReader.readFields(URL, XPathLookup.extractor(PageType.SYMBOL, marketState.isOpen()));
+			} catch (HttpStatusException ex) {
+				return Quote.error(PageType.SYMBOL, symb.toUpperCase());
+			}
 
-				// TimeStamp
-				key = "timeStamp";
-				result = queryPageItem(htmlPage, this.xPathLookup.lookupSymbolOpen(key));
-				this.symbolData.put(key, result.replaceAll("[,%]", "").trim());
+			// Parse the page text into numbers once
+			Quote result = Quote.fromPage(PageType.SYMBOL, symb, pageItems);
 
-				// Full Name of Company
-				key = "fullname";
-				result = queryPageItem(htmlPage, this.xPathLookup.lookupSymbolOpen(key));
-				this.symbolData.put(key, result.trim());
-			}
+			// Save the results so other runs of Quoter can use them
+			QuoteCache.put(cacheKey, result.toMap());
 
 			// If we are in debug mode, display the values of the symbol
 			if (Debug.query() == true) {
 				Output.debugPrintln("Symbol Data Results:");
-				for (String i : this.symbolData.keySet()) {
-					Output.debugPrintln("  - " + i + ": " + this.get(i));
+				for (String i : result.getFieldNames()) {
+					Output.debugPrintln("  - " + i + ": " + result.get(i));
 				}
 			}
 
+			return result;
+
 		} catch (Exception ex) {
 			// Most likely an invalid symbol
-			this.symbolData.put("status", "error");
-		}
-
-	}
-
-	/**
-	 * setOptionalField(): Handles error conditions for those fields that do not have a valid value from the website
-	 * 
-	 * @param htmlPage
-	 * @param key
-	 * @param marketStatus
-	 */
-	private void setOptionalField(final Document htmlPage, final String key, final MarketStatus marketStatus) {
-		try {
-			final String result = queryPageItem(htmlPage,
-					marketStatus == MarketStatus.Closed ? this.xPathLookup.lookupSymbolClosed(key) : this.xPathLookup.lookupSymbolOpen(key));
-			symbolData.put(key, result.replaceAll("[,%]", "").trim());
-
-		} catch (Exception e) {
-			Output.debugPrintln("Failed to fetch key: " + key + " from page. Setting value as '---'");
-			symbolData.put(key, "---");
+			return Quote.error(PageType.SYMBOL, symb.toUpperCase());
 		}
-	}
 
-	private enum MarketStatus {
-		Open, Closed
 	}
 
 }
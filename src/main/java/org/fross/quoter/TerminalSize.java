@@ -0,0 +1,110 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.fross.library.Output;
+
+/**
+ * TerminalSize: Determine the number of rows and columns of the console Quoter is running in. Java does not provide
+ * this so it's asked of 'stty' when available, then of the LINES and COLUMNS environment variables. Running stty starts a
+ * process so the size should only be asked for when it's needed, such as once per refresh.
+ *
+ */
+public final class TerminalSize {
+	// Class Constants
+	private static final long STTY_TIMEOUT_MILLIS = 1000;
+
+	private TerminalSize() {
+	}
+
+	/**
+	 * query(): Return the console size as {rows, columns} or null if it can't be determined
+	 * 
+	 * @return
+	 */
+	public static int[] query() {
+		// stty reports the size of the terminal attached to /dev/tty on Linux and macOS
+		if (System.getProperty("os.name").toLowerCase().startsWith("windows") == false) {
+			try {
+				Process process = new ProcessBuilder("stty", "size").redirectInput(ProcessBuilder.Redirect.from(new File("/dev/tty")))
+						.redirectError(ProcessBuilder.Redirect.DISCARD).start();
+
+				// The output is only a few characters so it's read once stty has finished. A stty that hangs is stopped
+				if (process.waitFor(STTY_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS) == false) {
+					Output.debugPrintln("stty did not report the terminal size in time");
+					process.destroyForcibly();
+				} else if (process.exitValue() == 0) {
+					int[] size = parse(new String(process.getInputStream().readAllBytes(), StandardCharsets.US_ASCII));
+					if (size != null) {
+						return size;
+					}
+				}
+			} catch (IOException ex) {
+				Output.debugPrintln("Unable to run stty to find the terminal size: " + ex.getMessage());
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		// Some shells export the size of the terminal
+		return parse(System.getenv("LINES") + " " + System.getenv("COLUMNS"));
+	}
+
+	/**
+	 * parse(): Convert 'ROWS COLUMNS' into {rows, columns}. Null is returned if either isn't a positive number
+	 * 
+	 * @param size
+	 * @return
+	 */
+	static int[] parse(String size) {
+		if (size == null) {
+			return null;
+		}
+
+		String[] values = size.trim().split("\\s+");
+		if (values.length != 2) {
+			return null;
+		}
+
+		try {
+			int rows = Integer.parseInt(values[0]);
+			int columns = Integer.parseInt(values[1]);
+			if (rows > 0 && columns > 0) {
+				return new int[] { rows, columns };
+			}
+		} catch (NumberFormatException ex) {
+			// Fall through
+		}
+		return null;
+	}
+
+}
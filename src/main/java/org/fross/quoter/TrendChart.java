@@ -0,0 +1,140 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import java.util.Arrays;
+
+/**
+ * TrendChart: A compact chart of a PriceSeries drawn with Unicode braille characters. Each character holds a grid of 2x4
+ * dots so the chart has twice as many points across as it has columns and four times as many as it has rows.
+ * 
+ * When there are more days than points across, the days are split into equal buckets and each bucket is drawn as a
+ * vertical line from its lowest low to its highest high. This keeps every peak and trough no matter how long the trend.
+ * The chart is built into a single buffer of characters, one row after another.
+ *
+ */
+public class TrendChart {
+	// Class Constants
+	private static final char BLANK = '\u2800';
+
+	// Braille dot bits indexed by [dot column][dot row counted from the bottom of the character]
+	private static final int[][] DOTS = { { 0x40, 0x04, 0x02, 0x01 }, { 0x80, 0x20, 0x10, 0x08 } };
+
+	// Class Variables
+	private final int columns;
+	private final int rows;
+	private final char[] cells;
+	private final long low;
+	private final long high;
+
+	/**
+	 * TrendChart Constructor(): Draw the provided days in a chart no larger than the provided number of columns and rows
+	 * 
+	 * @param series
+	 * @param columns
+	 * @param rows
+	 */
+	public TrendChart(PriceSeries series, int columns, int rows) {
+		int points = Math.min(Math.max(1, columns) * 2, Math.max(1, series.size()));
+		this.columns = (points + 1) / 2;
+		this.rows = Math.max(1, rows);
+		this.cells = new char[this.columns * this.rows];
+		Arrays.fill(this.cells, BLANK);
+
+		if (series.isEmpty()) {
+			this.low = Price.MISSING;
+			this.high = Price.MISSING;
+			return;
+		}
+
+		this.low = series.minLow(0, series.size());
+		this.high = series.maxHigh(0, series.size());
+		long range = Math.max(this.high - this.low, 1);
+		int dotRows = this.rows * 4;
+
+		// Draw each bucket of days as a line from its low to its high
+		for (int point = 0; point < points; point++) {
+			int from = (int) ((long) point * series.size() / points);
+			int to = (int) ((long) (point + 1) * series.size() / points);
+
+			int bottom = (int) ((series.minLow(from, to) - this.low) * (dotRows - 1) / range);
+			int top = (int) ((series.maxHigh(from, to) - this.low) * (dotRows - 1) / range);
+
+			for (int dot = bottom; dot <= top; dot++) {
+				int cell = (this.rows - 1 - dot / 4) * this.columns + point / 2;
+				this.cells[cell] = (char) (this.cells[cell] | DOTS[point % 2][dot % 4]);
+			}
+		}
+	}
+
+	/**
+	 * getColumns(): Return the number of characters across the chart
+	 * 
+	 * @return
+	 */
+	public int getColumns() {
+		return this.columns;
+	}
+
+	/**
+	 * getRows(): Return the number of rows in the chart
+	 * 
+	 * @return
+	 */
+	public int getRows() {
+		return this.rows;
+	}
+
+	/**
+	 * getLow(): Return the lowest value on the chart
+	 * 
+	 * @return
+	 */
+	public long getLow() {
+		return this.low;
+	}
+
+	/**
+	 * getHigh(): Return the highest value on the chart
+	 * 
+	 * @return
+	 */
+	public long getHigh() {
+		return this.high;
+	}
+
+	/**
+	 * getLine(): Return the provided row of the chart. Row zero is the top
+	 * 
+	 * @param row
+	 * @return
+	 */
+	public String getLine(int row) {
+		return new String(this.cells, row * this.columns, this.columns);
+	}
+
+}
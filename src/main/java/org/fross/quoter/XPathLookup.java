@@ -26,9 +26,52 @@
  ***************************************************************************************************************/
 package org.fross.quoter;
 
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.Map;
+
+import us.codecraft.xsoup.XPathEvaluator;
+import us.codecraft.xsoup.Xsoup;
 
 public class XPathLookup {
+	// Type of MarketWatch page an xPath is used against
+	public enum PageType {
+		SYMBOL, INDEX
+	}
+
+	// Precompiled xPaths shared by every Symbol, Index, and MarketState. Built once when the class loads and never modified
+	private static final Map<PageType, Map<String, XPathEvaluator>> compiledOpen;
+	private static final Map<PageType, Map<String, XPathEvaluator>> compiledClosed;
+
+	// Single pass field extractors built from the same xPaths
+	private static final Map<PageType, FieldExtractor> extractorsOpen;
+	private static final Map<PageType, FieldExtractor> extractorsClosed;
+
+	static {
+		XPathLookup xPathLookup = new XPathLookup();
+
+		Map<PageType, Map<String, XPathEvaluator>> open = new EnumMap<>(PageType.class);
+		open.put(PageType.SYMBOL, compileAll(xPathLookup.symbolOpen));
+		open.put(PageType.INDEX, compileAll(xPathLookup.indexOpen));
+		compiledOpen = Collections.unmodifiableMap(open);
+
+		Map<PageType, Map<String, XPathEvaluator>> closed = new EnumMap<>(PageType.class);
+		closed.put(PageType.SYMBOL, compileAll(xPathLookup.symbolClosed));
+		closed.put(PageType.INDEX, compileAll(xPathLookup.indexClosed));
+		compiledClosed = Collections.unmodifiableMap(closed);
+
+		Map<PageType, FieldExtractor> openExtractors = new EnumMap<>(PageType.class);
+		openExtractors.put(PageType.SYMBOL, new FieldExtractor(xPathLookup.symbolOpen));
+		openExtractors.put(PageType.INDEX, new FieldExtractor(xPathLookup.indexOpen));
+		extractorsOpen = Collections.unmodifiableMap(openExtractors);
+
+		Map<PageType, FieldExtractor> closedExtractors = new EnumMap<>(PageType.class);
+		closedExtractors.put(PageType.SYMBOL, new FieldExtractor(xPathLookup.symbolClosed));
+		closedExtractors.put(PageType.INDEX, new FieldExtractor(xPathLookup.indexClosed));
+		extractorsClosed = Collections.unmodifiableMap(closedExtractors);
+	}
+
 	HashMap<String, String> symbolOpen = new HashMap<>();
 	HashMap<String, String> symbolClosed = new HashMap<>();
 	HashMap<String, String> indexOpen = new HashMap<>();
@@ -132,4 +175,43 @@ public class XPathLookup {
 	public String lookupIndexClosed(String key) {
 		return this.indexClosed.get(key);
 	}
+
+	/**
+	 * compileAll(): Compile each xPath string in the provided map and return them in a read only map
+	 * 
+	 * @param xPaths
+	 * @return
+	 */
+	private static Map<String, XPathEvaluator> compileAll(Map<String, String> xPaths) {
+		Map<String, XPathEvaluator> compiled = new HashMap<>();
+
+		for (Map.Entry<String, String> i : xPaths.entrySet()) {
+			compiled.put(i.getKey(), Xsoup.compile(i.getValue()));
+		}
+
+		return Collections.unmodifiableMap(compiled);
+	}
+
+	/**
+	 * compiled(): Returns the precompiled xPath for the provided page type, market state and key. Null if it doesn't exist
+	 * 
+	 * @param pageType
+	 * @param marketOpen
+	 * @param key
+	 * @return
+	 */
+	public static XPathEvaluator compiled(PageType pageType, boolean marketOpen, String key) {
+		return (marketOpen ? compiledOpen : compiledClosed).get(pageType).get(key);
+	}
+
+	/**
+	 * extractor(): Returns the single pass field extractor for the provided page type and market state
+	 * 
+	 * @param pageType
+	 * @param marketOpen
+	 * @return
+	 */
+	public static FieldExtractor extractor(PageType pageType, boolean marketOpen) {
+		return (marketOpen ? extractorsOpen : extractorsClosed).get(pageType);
+	}
 }
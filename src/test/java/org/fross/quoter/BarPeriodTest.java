@@ -0,0 +1,156 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+class BarPeriodTest {
+
+	// Build a series with one day per entry in the provided dates with prices that rise by a dollar each day
+	private static PriceSeries buildSeries(LocalDate... dates) {
+		PriceSeries series = new PriceSeries();
+		for (int i = 0; i < dates.length; i++) {
+			long base = (10 + i) * Price.ONE;
+			series.add((int) dates[i].toEpochDay(), base, base + Price.ONE, base - Price.ONE, base + Price.ONE / 2, 100 + i);
+		}
+		return series;
+	}
+
+	// Verify periods are read from the command line format
+	@Test
+	void testParse() {
+		assertTrue(BarPeriod.parse("d").isDaily());
+		assertTrue(BarPeriod.parse(" 1D ").isDaily());
+		assertFalse(BarPeriod.parse("w").isDaily());
+		assertEquals("Weekly", BarPeriod.parse("w").getDescription());
+		assertEquals("Monthly", BarPeriod.parse("M").getDescription());
+		assertEquals("2 Week", BarPeriod.parse("2w").getDescription());
+		assertEquals("10 Day", BarPeriod.parse("10d").getDescription());
+
+		assertThrows(IllegalArgumentException.class, () -> BarPeriod.parse(""));
+		assertThrows(IllegalArgumentException.class, () -> BarPeriod.parse("y"));
+		assertThrows(IllegalArgumentException.class, () -> BarPeriod.parse("0w"));
+		assertThrows(IllegalArgumentException.class, () -> BarPeriod.parse("xw"));
+		assertThrows(IllegalArgumentException.class, () -> BarPeriod.parse("1000d"));
+	}
+
+	// Daily periods return the series unchanged
+	@Test
+	void testDaily() {
+		PriceSeries series = buildSeries(LocalDate.of(2024, 1, 2), LocalDate.of(2024, 1, 3));
+		assertSame(series, BarPeriod.DAILY.resample(series));
+		assertTrue(BarPeriod.parse("w").resample(new PriceSeries()).isEmpty());
+	}
+
+	// Weeks start on Monday and combine open, high, low, close, and volume
+	@Test
+	void testWeekly() {
+		// Thursday and Friday, then Monday through Wednesday of the next week, then the following Monday
+		PriceSeries daily = buildSeries(LocalDate.of(2024, 1, 4), LocalDate.of(2024, 1, 5), LocalDate.of(2024, 1, 8), LocalDate.of(2024, 1, 9),
+				LocalDate.of(2024, 1, 10), LocalDate.of(2024, 1, 15));
+		PriceSeries weekly = BarPeriod.parse("w").resample(daily);
+
+		assertEquals(3, weekly.size());
+		assertEquals(LocalDate.of(2024, 1, 4).toEpochDay(), weekly.getDay(0));
+		assertEquals(10 * Price.ONE, weekly.getOpen(0));
+		assertEquals(12 * Price.ONE, weekly.getHigh(0));
+		assertEquals(9 * Price.ONE, weekly.getLow(0));
+		assertEquals(11 * Price.ONE + Price.ONE / 2, weekly.getClose(0));
+		assertEquals(201, weekly.getVolume(0));
+
+		assertEquals(LocalDate.of(2024, 1, 8).toEpochDay(), weekly.getDay(1));
+		assertEquals(12 * Price.ONE, weekly.getOpen(1));
+		assertEquals(15 * Price.ONE, weekly.getHigh(1));
+		assertEquals(11 * Price.ONE, weekly.getLow(1));
+		assertEquals(14 * Price.ONE + Price.ONE / 2, weekly.getClose(1));
+		assertEquals(309, weekly.getVolume(1));
+
+		assertEquals(LocalDate.of(2024, 1, 15).toEpochDay(), weekly.getDay(2));
+
+		// Two week periods pair the weeks starting with the week of 1970-01-01
+		PriceSeries biweekly = BarPeriod.parse("2w").resample(daily);
+		assertEquals(2, biweekly.size());
+		assertEquals(LocalDate.of(2024, 1, 15).toEpochDay(), biweekly.getDay(1));
+	}
+
+	// Months follow the calendar, including leap years and multiple month periods
+	@Test
+	void testMonthly() {
+		PriceSeries daily = buildSeries(LocalDate.of(2024, 1, 31), LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29), LocalDate.of(2024, 3, 1),
+				LocalDate.of(2024, 4, 1), LocalDate.of(2024, 12, 31), LocalDate.of(2025, 1, 2));
+
+		PriceSeries monthly = BarPeriod.parse("m").resample(daily);
+		assertEquals(6, monthly.size());
+		assertEquals(LocalDate.of(2024, 2, 1).toEpochDay(), monthly.getDay(1));
+		assertEquals(11 * Price.ONE, monthly.getOpen(1));
+		assertEquals(12 * Price.ONE + Price.ONE / 2, monthly.getClose(1));
+
+		// Quarters start in January, April, July, and October
+		PriceSeries quarterly = BarPeriod.parse("3m").resample(daily);
+		assertEquals(4, quarterly.size());
+		assertEquals(LocalDate.of(2024, 1, 31).toEpochDay(), quarterly.getDay(0));
+		assertEquals(LocalDate.of(2024, 4, 1).toEpochDay(), quarterly.getDay(1));
+		assertEquals(LocalDate.of(2024, 12, 31).toEpochDay(), quarterly.getDay(2));
+		assertEquals(LocalDate.of(2025, 1, 2).toEpochDay(), quarterly.getDay(3));
+	}
+
+	// The month number of a day matches the calendar across centuries and before 1970
+	@Test
+	void testMonthIndex() {
+		for (LocalDate date = LocalDate.of(1899, 12, 1); date.isBefore(LocalDate.of(2101, 3, 1)); date = date.plusDays(13)) {
+			assertEquals(date.getYear() * 12L + date.getMonthValue() - 1, BarPeriod.monthIndex((int) date.toEpochDay()));
+		}
+	}
+
+	// Trading day periods count back from the latest day so the last bar is complete
+	@Test
+	void testTradingDays() {
+		LocalDate start = LocalDate.of(2024, 1, 1);
+		LocalDate[] dates = new LocalDate[7];
+		for (int i = 0; i < dates.length; i++) {
+			dates[i] = start.plusDays(i);
+		}
+
+		PriceSeries bars = BarPeriod.parse("3d").resample(buildSeries(dates));
+		assertEquals(3, bars.size());
+		assertEquals(start.toEpochDay(), bars.getDay(0));
+		assertEquals(100, bars.getVolume(0));
+		assertEquals(start.plusDays(1).toEpochDay(), bars.getDay(1));
+		assertEquals(101 + 102 + 103, bars.getVolume(1));
+		assertEquals(start.plusDays(4).toEpochDay(), bars.getDay(2));
+		assertEquals(16 * Price.ONE + Price.ONE / 2, bars.getClose(2));
+	}
+
+}
@@ -39,7 +39,7 @@ class CommandLineParserTest {
 	@Test
 	void testShortCommandLineArgs() {
 		// Test Short Options
-		String[] argv1 = { "-z", "-w", "100", "-n", "-a", "60", "-d", "30", "-s", "-l", "-r", "-i", "-t", "-x", "out.csv", "-D", "-v", "-h" };
+		String[] argv1 = { "-z", "-w", "100", "-n", "-a", "60", "-d", "30", "-c", "4", "-k", "20", "-s", "-l", "-r", "-i", "-t", "-x", "out.csv", "-D", "-v", "-h" };
 
 		CommandLineParser cli = new CommandLineParser();
 		JCommander jc = new JCommander();
@@ -53,6 +53,8 @@ class CommandLineParserTest {
 		assertTrue(cli.clHideIndex);
 		assertEquals(cli.clAutoRefresh, 60);
 		assertEquals(cli.clTrendDuration, 30);
+		assertEquals(cli.clConcurrency, 4);
+		assertEquals(cli.clCacheTTL, 20);
 		assertTrue(cli.clSave);
 		assertTrue(cli.clListFavorites);
 		assertTrue(cli.clRemoveFavorites);
@@ -68,7 +70,7 @@ class CommandLineParserTest {
 	@Test
 	void testLongCommandLineArgs() {
 		// Test Long Options
-		String[] argv1 = { "--no-color", "--width", "100", "--hide-index", "--auto-refresh", "60", "--trend-duration", "30", "--save", "--list-favorites",
+		String[] argv1 = { "--no-color", "--width", "100", "--hide-index", "--auto-refresh", "60", "--trend-duration", "30", "--concurrency", "4", "--cache-ttl", "20", "--save", "--list-favorites",
 				"--remove-favorites", "--ignore-favorites", "--trend", "--export", "out.csv", "--debug", "--version", "--help" };
 
 		CommandLineParser cli = new CommandLineParser();
@@ -83,6 +85,8 @@ class CommandLineParserTest {
 		assertTrue(cli.clHideIndex);
 		assertEquals(cli.clAutoRefresh, 60);
 		assertEquals(cli.clTrendDuration, 30);
+		assertEquals(cli.clConcurrency, 4);
+		assertEquals(cli.clCacheTTL, 20);
 		assertTrue(cli.clSave);
 		assertTrue(cli.clListFavorites);
 		assertTrue(cli.clRemoveFavorites);
@@ -112,6 +116,8 @@ class CommandLineParserTest {
 		assertFalse(cli.clHideIndex);
 		assertEquals(cli.clAutoRefresh, 0);
 		assertEquals(cli.clTrendDuration, 0);
+		assertEquals(cli.clConcurrency, QuoteFetcher.DEFAULT_MAX_CONCURRENT);
+		assertEquals(cli.clCacheTTL, 0);
 		assertTrue(cli.clSave);
 		assertFalse(cli.clListFavorites);
 		assertFalse(cli.clRemoveFavorites);
@@ -0,0 +1,82 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.fross.quoter.CommandReader.Command;
+import org.fross.quoter.CommandReader.CommandType;
+import org.junit.jupiter.api.Test;
+
+class CommandReaderTest {
+
+	// Ensure each line of input is converted into the correct command
+	@Test
+	void parseTest() {
+		assertEquals(CommandType.QUIT, CommandReader.parse("").type);
+		assertEquals(CommandType.QUIT, CommandReader.parse(" Q ").type);
+		assertEquals(CommandType.REFRESH, CommandReader.parse("r").type);
+		assertEquals(CommandType.PAUSE, CommandReader.parse("pause").type);
+		assertEquals(CommandType.PAGE_DOWN, CommandReader.parse("n").type);
+		assertEquals(CommandType.PAGE_UP, CommandReader.parse("B").type);
+		assertEquals(CommandType.SCROLL_DOWN, CommandReader.parse("j").type);
+		assertEquals(CommandType.SCROLL_UP, CommandReader.parse("up").type);
+		assertEquals(CommandType.UNKNOWN, CommandReader.parse("hello").type);
+		assertEquals(CommandType.UNKNOWN, CommandReader.parse("+").type);
+
+		Command add = CommandReader.parse("+ibm  msft");
+		assertEquals(CommandType.ADD, add.type);
+		assertEquals(Arrays.asList("IBM", "MSFT"), add.symbols);
+
+		Command remove = CommandReader.parse("- t");
+		assertEquals(CommandType.REMOVE, remove.type);
+		assertEquals(Arrays.asList("T"), remove.symbols);
+		assertTrue(CommandReader.parse("r").symbols.isEmpty());
+	}
+
+	// Ensure commands are queued in order from the background thread and poll times out once they are used up
+	@Test
+	void pollTest() {
+		byte[] input = "+IBM\nr\n\n".getBytes(StandardCharsets.UTF_8);
+		CommandReader reader = new CommandReader(new ByteArrayInputStream(input));
+		reader.start();
+		reader.start();
+
+		assertEquals(CommandType.ADD, reader.poll(5, TimeUnit.SECONDS).type);
+		assertEquals(CommandType.REFRESH, reader.poll(5, TimeUnit.SECONDS).type);
+		assertEquals(CommandType.QUIT, reader.poll(5, TimeUnit.SECONDS).type);
+		assertNull(reader.poll(50, TimeUnit.MILLISECONDS));
+	}
+
+}
@@ -0,0 +1,224 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class CorrelationMatrixTest {
+
+	// Build a random walk that partly follows the market so the correlations aren't all near zero
+	private static PriceSeries buildSeries(Random random, double[] market, double weight, int firstDay) {
+		PriceSeries series = new PriceSeries();
+		double close = 50 + random.nextInt(100);
+		for (int i = 0; i < market.length; i++) {
+			close *= Math.exp(weight * market[i] + 0.01 * random.nextGaussian());
+			long price = Price.valueOf(close);
+			series.add(firstDay + i, price, price, price, price, 0);
+		}
+		return series;
+	}
+
+	// Return the log returns of a series on the provided days
+	private static double[] returnsOn(PriceSeries series, int[] days) {
+		double[] returns = new double[days.length - 1];
+		for (int t = 1; t < days.length; t++) {
+			returns[t - 1] = Math.log((double) series.getClose(series.indexOf(days[t])) / series.getClose(series.indexOf(days[t - 1])));
+		}
+		return returns;
+	}
+
+	// Calculate the covariance of two sets of returns directly
+	private static double covariance(double[] a, double[] b) {
+		double meanA = 0;
+		double meanB = 0;
+		for (int t = 0; t < a.length; t++) {
+			meanA += a[t] / a.length;
+			meanB += b[t] / b.length;
+		}
+		double sum = 0;
+		for (int t = 0; t < a.length; t++) {
+			sum += (a[t] - meanA) * (b[t] - meanB);
+		}
+		return sum / a.length;
+	}
+
+	// Build a series with a price on each of the provided days
+	private static PriceSeries onDays(int... days) {
+		PriceSeries series = new PriceSeries();
+		for (int day : days) {
+			series.add(day, Price.ONE, Price.ONE, Price.ONE, Price.ONE, 0);
+		}
+		return series;
+	}
+
+	// Only the days in both are kept
+	@Test
+	void testIntersect() {
+		assertArrayEquals(new int[] { 2, 3, 8 }, CorrelationMatrix.intersect(new int[] { 1, 2, 3, 5, 8, 9 }, onDays(2, 3, 4, 8, 10)));
+		assertArrayEquals(new int[0], CorrelationMatrix.intersect(new int[] { 1, 2, 3 }, new PriceSeries()));
+		assertArrayEquals(new int[0], CorrelationMatrix.intersect(new int[0], onDays(1, 2)));
+	}
+
+	// A late listing or a gappy history is left out instead of shortening the days for everyone
+	@Test
+	void testAlignDays() {
+		int[] all = new int[100];
+		int[] missingThree = new int[97];
+		int[] listedLate = new int[50];
+		int[] everyOther = new int[50];
+		for (int i = 0; i < 100; i++) {
+			all[i] = 19000 + i;
+		}
+		for (int i = 0; i < 97; i++) {
+			missingThree[i] = 19000 + i + (i >= 40 ? 3 : 0);
+		}
+		for (int i = 0; i < 50; i++) {
+			listedLate[i] = 19050 + i;
+			everyOther[i] = 19000 + 2 * i;
+		}
+
+		PriceSeries[] series = { onDays(listedLate), onDays(all), null, onDays(everyOther), onDays(missingThree) };
+		boolean[] keep = new boolean[series.length];
+		int[] days = CorrelationMatrix.alignDays(series, keep);
+		assertArrayEquals(new boolean[] { false, true, false, false, true }, keep);
+		assertArrayEquals(missingThree, days);
+
+		// The same securities all listed at the same time are kept
+		keep = new boolean[2];
+		assertArrayEquals(listedLate, CorrelationMatrix.alignDays(new PriceSeries[] { onDays(listedLate), onDays(listedLate) }, keep));
+		assertArrayEquals(new boolean[] { true, true }, keep);
+		assertArrayEquals(new int[0], CorrelationMatrix.alignDays(new PriceSeries[0], new boolean[0]));
+	}
+
+	// The securities left out are reported and the others keep their full history
+	@Test
+	void testDropped() {
+		Random random = new Random(3);
+		double[] market = new double[200];
+		for (int i = 0; i < market.length; i++) {
+			market[i] = 0.01 * random.nextGaussian();
+		}
+		PriceSeries recent = buildSeries(random, market, 1.0, 19000).range(19150, 19199);
+
+		CorrelationMatrix matrix = CorrelationMatrix.calculate(List.of("A", "NEW", "B"),
+				List.of(buildSeries(random, market, 1.0, 19000), recent, buildSeries(random, market, 0.5, 19000)), recent);
+		assertEquals(2, matrix.size());
+		assertEquals("A", matrix.getSymbol(0));
+		assertEquals("B", matrix.getSymbol(1));
+		assertEquals(List.of("NEW"), matrix.getDropped());
+		assertEquals(199, matrix.getObservations());
+
+		// The benchmark is left out too so there are no betas
+		assertTrue(Double.isNaN(matrix.getBeta(0)));
+	}
+
+	// The tiled calculation matches a direct calculation for more securities and days than fit in one tile
+	@Test
+	void testMatchesDirectCalculation() {
+		Random random = new Random(25);
+		double[] market = new double[400];
+		for (int i = 0; i < market.length; i++) {
+			market[i] = 0.01 * random.nextGaussian();
+		}
+
+		// Start the securities on different days so they have to be aligned
+		List<String> symbols = new ArrayList<>();
+		List<PriceSeries> series = new ArrayList<>();
+		int count = CorrelationMatrix.TILE_ROWS * 2 + 5;
+		for (int i = 0; i < count; i++) {
+			symbols.add("S" + i);
+			series.add(buildSeries(random, market, random.nextDouble() * 2 - 0.5, 19000 + (i % 7)));
+		}
+		PriceSeries benchmark = buildSeries(random, market, 1.0, 19000);
+
+		CorrelationMatrix matrix = CorrelationMatrix.calculate(symbols, series, benchmark);
+		assertEquals(count, matrix.size());
+		assertEquals(400 - 6 - 1, matrix.getObservations());
+
+		List<PriceSeries> all = new ArrayList<>(series);
+		all.add(benchmark);
+		boolean[] keep = new boolean[all.size()];
+		int[] days = CorrelationMatrix.alignDays(all.toArray(new PriceSeries[0]), keep);
+		assertTrue(matrix.getDropped().isEmpty());
+		double[][] returns = new double[count][];
+		for (int i = 0; i < count; i++) {
+			returns[i] = returnsOn(series.get(i), days);
+		}
+		double[] marketReturns = returnsOn(benchmark, days);
+
+		for (int i = 0; i < count; i++) {
+			assertEquals("S" + i, matrix.getSymbol(i));
+			assertEquals(1.0, matrix.get(i, i), 1e-9);
+			for (int j = 0; j < count; j++) {
+				double expected = covariance(returns[i], returns[j]) / Math.sqrt(covariance(returns[i], returns[i]) * covariance(returns[j], returns[j]));
+				assertEquals(expected, matrix.get(i, j), 1e-9);
+				assertEquals(matrix.get(i, j), matrix.get(j, i), 0);
+			}
+			assertEquals(covariance(returns[i], marketReturns) / covariance(marketReturns, marketReturns), matrix.getBeta(i), 1e-9);
+		}
+	}
+
+	// A security that never moves has no correlation and no beta can be calculated without a benchmark
+	@Test
+	void testFlatAndMissingBenchmark() {
+		Random random = new Random(7);
+		double[] market = new double[30];
+		PriceSeries moving = buildSeries(random, market, 0, 19000);
+		PriceSeries flat = new PriceSeries();
+		for (int i = 0; i < 30; i++) {
+			flat.add(19000 + i, Price.ONE, Price.ONE, Price.ONE, Price.ONE, 0);
+		}
+
+		List<String> symbols = List.of("MOVING", "FLAT");
+		CorrelationMatrix matrix = CorrelationMatrix.calculate(symbols, List.of(moving, flat), null);
+		assertEquals(1.0, matrix.get(0, 0), 1e-9);
+		assertTrue(Double.isNaN(matrix.get(0, 1)));
+		assertTrue(Double.isNaN(matrix.get(1, 1)));
+		assertTrue(Double.isNaN(matrix.getBeta(0)));
+
+		// Beta against a benchmark that never moves can't be calculated either
+		matrix = CorrelationMatrix.calculate(List.of("MOVING"), List.of(moving), flat);
+		assertTrue(Double.isNaN(matrix.getBeta(0)));
+	}
+
+	// Values are shown with two decimals and NaN as a dash
+	@Test
+	void testFormatValue() {
+		assertEquals("   0.50", CorrelationMatrix.formatValue(0.5, 7));
+		assertEquals("  -1.00", CorrelationMatrix.formatValue(-1, 7));
+		assertEquals("      -", CorrelationMatrix.formatValue(Double.NaN, 7));
+	}
+
+}
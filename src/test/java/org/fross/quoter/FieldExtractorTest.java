@@ -0,0 +1,106 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+class FieldExtractorTest {
+	static final String TEST_PAGE = "<html><body>" //
+			+ "<div>first</div>" //
+			+ "<div><h2>Price</h2><span>10.50</span><span>+0.25</span></div>" //
+			+ "<div><table><tr><td>A</td><td>B</td></tr></table></div>" //
+			+ "</body></html>";
+
+	// Ensure positioned and unpositioned steps resolve to the same elements as the xPath evaluator would
+	@Test
+	void extractTest() {
+		Map<String, String> xPaths = new HashMap<>();
+		xPaths.put("heading", "/html/body/div[2]/h2");
+		xPaths.put("price", "/html/body/div[2]/span[1]");
+		xPaths.put("change", "/html/body/div[2]/span[2]");
+		xPaths.put("firstSpan", "/html/body/div/span");
+		xPaths.put("cell", "/html/body/div[3]/table/tbody/tr/td[2]");
+		xPaths.put("missing", "/html/body/div[4]/span");
+
+		Document doc = Jsoup.parse(TEST_PAGE);
+		Map<String, String> results = new FieldExtractor(xPaths).extract(doc);
+
+		assertEquals("Price", results.get("heading"));
+		assertEquals("10.50", results.get("price"));
+		assertEquals("+0.25", results.get("change"));
+		assertEquals("10.50", results.get("firstSpan"));
+		assertEquals("B", results.get("cell"));
+		assertFalse(results.containsKey("missing"));
+	}
+
+	// Ensure required() returns found fields and throws for missing ones
+	@Test
+	void requiredTest() {
+		Map<String, String> results = new HashMap<>();
+		results.put("latestPrice", "123.45");
+
+		assertEquals("123.45", FieldExtractor.required(results, "latestPrice"));
+
+		try {
+			FieldExtractor.required(results, "change");
+			fail("required() should throw for a missing field");
+		} catch (IllegalStateException ex) {
+			assertTrue(ex.getMessage().contains("change"));
+		}
+	}
+
+	// Ensure the xPaths used by Quoter are all supported
+	@Test
+	void xPathLookupTest() {
+		XPathLookup xPathLookup = new XPathLookup();
+
+		new FieldExtractor(xPathLookup.symbolOpen);
+		new FieldExtractor(xPathLookup.symbolClosed);
+		new FieldExtractor(xPathLookup.indexOpen);
+		new FieldExtractor(xPathLookup.indexClosed);
+
+		try {
+			Map<String, String> xPaths = new HashMap<>();
+			xPaths.put("bad", "//div[@class='x']");
+			new FieldExtractor(xPaths);
+			fail("Relative xPaths should not be accepted");
+		} catch (IllegalArgumentException ex) {
+			// Expected
+		}
+	}
+
+}
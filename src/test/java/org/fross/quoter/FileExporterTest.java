@@ -33,7 +33,9 @@ import static org.junit.jupiter.api.Assertions.fail;
 import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.EnumSet;
 
 import org.fross.library.Output;
 import org.fusesource.jansi.Ansi;
@@ -149,4 +151,50 @@ class FileExporterTest {
 
 	}
 
+	// Export weekly trend bars with an indicator and then read them back in to ensure they're accurate
+	@Test
+	void testTrendExport() {
+		String testFileName = "target/testTrend.export";
+
+		// Delete export test file if it exists
+		try {
+			File file = new File(testFileName);
+			if (file.canWrite()) {
+				file.delete();
+			}
+		} catch (Exception ex) {
+			Output.printColorln(Ansi.Color.RED, "Error deleting " + testFileName + " during FileExporterTest");
+			fail(ex.getMessage());
+		}
+
+		// Two weeks of daily prices starting on Monday 2024-01-08
+		int monday = (int) LocalDate.of(2024, 1, 8).toEpochDay();
+		PriceSeries daily = new PriceSeries();
+		for (int i = 0; i < 10; i++) {
+			int day = monday + (i / 5) * 7 + (i % 5);
+			daily.add(day, (100 + i) * Price.ONE, (102 + i) * Price.ONE, (99 + i) * Price.ONE, (101 + i) * Price.ONE, 1000);
+		}
+
+		PriceSeries weekly = BarPeriod.parse("w").resample(daily);
+		Indicators indicators = new Indicators(weekly, 2, 1, 52).update();
+
+		FileExporter fe = new FileExporter(testFileName);
+		fe.exportTrend("acn", BarPeriod.parse("w"), weekly, indicators, EnumSet.of(Indicators.Column.SMA));
+		fe.close();
+
+		try {
+			ArrayList<String> fileContents = new ArrayList<>(Files.readAllLines(Paths.get(testFileName)));
+
+			// Blank line, header, and one line per week
+			assertEquals(4, fileContents.size());
+			assertEquals("symbol,period,date,open,high,low,close,volume,sma,", fileContents.get(1));
+			assertEquals("ACN,Weekly,2024-01-08,100.00,106.00,99.00,105.00,5000,-,", fileContents.get(2));
+			assertEquals("ACN,Weekly,2024-01-15,105.00,111.00,104.00,110.00,5000,107.50,", fileContents.get(3));
+
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+
+	}
+
 }
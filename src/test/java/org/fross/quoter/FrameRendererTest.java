@@ -0,0 +1,162 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import org.fusesource.jansi.Ansi;
+import org.junit.jupiter.api.Test;
+
+class FrameRendererTest {
+	static final String ESC = "\u001B[";
+
+	/**
+	 * buildFrame(): Create a frame with the provided lines in white
+	 * 
+	 * @param lines
+	 * @return
+	 */
+	static Frame buildFrame(String... lines) {
+		Frame frame = new Frame();
+		for (String i : lines) {
+			frame.println(Ansi.Color.WHITE, i);
+		}
+		return frame;
+	}
+
+	/**
+	 * written(): Return what has been written to the stream and empty it
+	 * 
+	 * @param out
+	 * @return
+	 */
+	static String written(ByteArrayOutputStream out) {
+		String result = new String(out.toByteArray(), StandardCharsets.UTF_8);
+		out.reset();
+		return result;
+	}
+
+	// Ensure the first frame is painted in full and later frames only write what changed
+	@Test
+	void renderTest() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		FrameRenderer renderer = new FrameRenderer(new PrintStream(out, true), false);
+		renderer.setScreenSize(24, 80);
+
+		renderer.render(buildFrame("Symbol   Current", "IBM       161.50", "MSFT      402.10"));
+		String first = written(out);
+		assertTrue(first.startsWith(ESC + "2J"));
+		assertTrue(first.contains("IBM       161.50"));
+
+		// Only the changed digits are written
+		renderer.render(buildFrame("Symbol   Current", "IBM       161.75", "MSFT      402.10"));
+		assertEquals(ESC + "2;15H75" + ESC + "4;1H", written(out));
+
+		// Nothing changed so only the cursor is positioned
+		renderer.render(buildFrame("Symbol   Current", "IBM       161.75", "MSFT      402.10"));
+		assertEquals(ESC + "4;1H", written(out));
+
+		// Shorter and removed lines are erased
+		renderer.render(buildFrame("Symbol   Current", "IBM       16"));
+		assertEquals(ESC + "2;13H" + ESC + "K" + ESC + "3;1H" + ESC + "K" + ESC + "3;1H", written(out));
+
+		// After invalidate() the screen is painted in full again
+		renderer.invalidate();
+		renderer.render(buildFrame("Symbol   Current"));
+		assertTrue(written(out).startsWith(ESC + "2J"));
+	}
+
+	// Ensure nearby changes are written as one run and the status line is below the frame
+	@Test
+	void runAndStatusTest() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		FrameRenderer renderer = new FrameRenderer(new PrintStream(out, true), false);
+		renderer.setScreenSize(24, 80);
+
+		renderer.render(buildFrame("a1b2c3d4e5"));
+		written(out);
+
+		renderer.render(buildFrame("aXbYc3d4e5"));
+		assertEquals(ESC + "1;2HXbY" + ESC + "2;1H", written(out));
+
+		renderer.renderStatus(Ansi.Color.CYAN, "refreshing in 10 seconds");
+		assertEquals(ESC + "3;1H" + ESC + "2Krefreshing in 10 seconds", written(out));
+	}
+
+	// Ensure a frame larger than the screen is printed from the top to scroll rather than positioned on it
+	@Test
+	void largeFrameTest() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		FrameRenderer renderer = new FrameRenderer(new PrintStream(out, true), false);
+		renderer.setScreenSize(4, 20);
+
+		// Three lines, the blank line after them and the status line are one more than the screen holds
+		renderer.render(buildFrame("Symbol   Current", "IBM       161.50", "MSFT      402.10"));
+		assertEquals(ESC + "2J" + ESC + "HSymbol   Current\nIBM       161.50\nMSFT      402.10\n\n", written(out));
+		renderer.renderStatus(Ansi.Color.CYAN, "refreshing in 10 seconds");
+		assertEquals("\r" + ESC + "2Krefreshing in 10 se", written(out));
+
+		// The next frame can't be compared with what scrolled so it is printed in full again
+		renderer.render(buildFrame("Symbol   Current", "IBM       161.75", "MSFT      402.10"));
+		assertTrue(written(out).startsWith(ESC + "2J" + ESC + "HSymbol"));
+
+		// A frame that fits is positioned on the screen once more
+		renderer.render(buildFrame("Symbol   Current", "IBM       161.75"));
+		assertTrue(written(out).startsWith(ESC + "2J" + ESC + "1;1HSymbol"));
+		renderer.render(buildFrame("Symbol   Current", "IBM       161.50"));
+		assertEquals(ESC + "2;15H50" + ESC + "3;1H", written(out));
+
+		// A line wider than the screen would wrap onto the next row
+		renderer.render(buildFrame("Symbol   Current   Change"));
+		assertTrue(written(out).startsWith(ESC + "2J" + ESC + "HSymbol"));
+	}
+
+	// Ensure nothing is positioned on a console of unknown size
+	@Test
+	void unknownSizeTest() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		FrameRenderer renderer = new FrameRenderer(new PrintStream(out, true), false);
+
+		renderer.render(buildFrame("Symbol   Current", "IBM       161.50"));
+		assertEquals(ESC + "2J" + ESC + "HSymbol   Current\nIBM       161.50\n\n", written(out));
+		renderer.render(buildFrame("Symbol   Current", "IBM       161.75"));
+		assertTrue(written(out).startsWith(ESC + "2J" + ESC + "HSymbol"));
+
+		// Once the size is known only the changes are written
+		renderer.setScreenSize(24, 80);
+		renderer.render(buildFrame("Symbol   Current", "IBM       161.75"));
+		written(out);
+		renderer.render(buildFrame("Symbol   Current", "IBM       161.50"));
+		assertEquals(ESC + "2;15H50" + ESC + "3;1H", written(out));
+	}
+
+}
@@ -0,0 +1,69 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.fusesource.jansi.Ansi;
+import org.junit.jupiter.api.Test;
+
+class FrameTest {
+
+	// Ensure text is split into lines and every character keeps its color
+	@Test
+	void printTest() {
+		Frame frame = new Frame();
+		frame.print(Ansi.Color.YELLOW, "\nQuoter");
+		frame.print(Ansi.Color.CYAN, " v1");
+		frame.println(Ansi.Color.WHITE, "!");
+		frame.println(Ansi.Color.RED, "IBM\nMSFT");
+
+		assertEquals(5, frame.getLineCount());
+		assertEquals("", frame.getLine(0));
+		assertEquals("Quoter v1!", frame.getLine(1));
+		assertEquals("IBM", frame.getLine(2));
+		assertEquals("MSFT", frame.getLine(3));
+		assertEquals(0, frame.getLineLength(4));
+
+		assertEquals(Ansi.Color.YELLOW, frame.colorAt(1, 5));
+		assertEquals(Ansi.Color.CYAN, frame.colorAt(1, 6));
+		assertEquals(Ansi.Color.WHITE, frame.colorAt(1, 9));
+		assertEquals('M', frame.charAt(3, 0));
+	}
+
+	// Ensure long lines grow past the initial line size
+	@Test
+	void longLineTest() {
+		Frame frame = new Frame();
+		String text = "-".repeat(500);
+		frame.println(Ansi.Color.WHITE, text);
+
+		assertEquals(text, frame.getLine(0));
+		assertEquals(2, frame.getLineCount());
+	}
+
+}
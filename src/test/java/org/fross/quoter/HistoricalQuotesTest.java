@@ -0,0 +1,97 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class HistoricalQuotesTest {
+
+	// Ensure date ranges are split into consecutive chunks that cover every day exactly once
+	@Test
+	void splitRangeTest() {
+		LocalDate start = LocalDate.of(2020, 1, 1);
+		LocalDate end = LocalDate.of(2024, 12, 31);
+		List<LocalDate[]> chunks = HistoricalQuotes.splitRange(start, end, 180);
+
+		assertEquals(11, chunks.size());
+		assertEquals(start, chunks.get(0)[0]);
+		assertEquals(end, chunks.get(chunks.size() - 1)[1]);
+		for (int i = 0; i < chunks.size(); i++) {
+			assertTrue(chunks.get(i)[1].toEpochDay() - chunks.get(i)[0].toEpochDay() < 180);
+			if (i > 0) {
+				assertEquals(chunks.get(i - 1)[1].plusDays(1), chunks.get(i)[0]);
+			}
+		}
+
+		// A single day and an empty range
+		assertEquals(1, HistoricalQuotes.splitRange(end, end, 180).size());
+		assertTrue(HistoricalQuotes.splitRange(end, start, 180).isEmpty());
+	}
+
+	// Ensure a changed last bar and new bars are added to the history, and other changes replace it
+	@Test
+	void updateTest() {
+		PriceSeries day1 = new PriceSeries();
+		for (int i = 0; i < 40; i++) {
+			day1.add(19000 + i, 100 * Price.ONE, (101 + i % 3) * Price.ONE, 99 * Price.ONE, (100 + i % 5) * Price.ONE, 1000);
+		}
+		HistoricalQuotes history = new HistoricalQuotes();
+		assertNull(history.getIndicators());
+		history.update(day1);
+		PriceSeries series = history.getSeries();
+		Indicators indicators = history.getIndicators();
+
+		// The last bar changes and a new one is added so the same series is extended
+		PriceSeries day2 = day1.range(19000, 19038);
+		day2.add(19039, 100 * Price.ONE, 110 * Price.ONE, 99 * Price.ONE, 108 * Price.ONE, 2000);
+		day2.add(19040, 108 * Price.ONE, 109 * Price.ONE, 98 * Price.ONE, 99 * Price.ONE, 1500);
+		history.update(day2);
+		assertSame(series, history.getSeries());
+		assertSame(indicators, history.getIndicators());
+		assertEquals(41, history.getSeries().size());
+		assertEquals(2000L, history.getSeries().getVolume(39));
+
+		Indicators expected = new Indicators(day2, history.getPeriod().getPeriodsPerYear()).update();
+		for (Indicators.Column c : Indicators.Column.values()) {
+			assertEquals(expected.getLatest(c), history.getIndicators().getLatest(c));
+		}
+
+		// When the first bar drops out of the trend everything is calculated again
+		history.update(day2.range(19001, 19040));
+		assertNotSame(indicators, history.getIndicators());
+		assertEquals(40, history.getIndicators().size());
+	}
+}
@@ -0,0 +1,113 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+class HistoryCsvParserTest {
+	static final String DOWNLOAD = "Date,Open,High,Low,Close,Volume\r\n" //
+			+ "02/14/2024,\"185.00\",\"186.50\",\"183.20\",\"184.15\",\"12,345,678\"\r\n" //
+			+ "02/13/2024,\"$1,183.10\",\"1,185.005\",\"1,180.5\",\"1,184\",\"1,000\"\r\n" //
+			+ "02/12/2024,\"180.00\",\"\",\"179.00\",\"179.50\",\"900\"\r\n" //
+			+ "\r\n" //
+			+ "2024-02-09,-1.5,190,188,189.25,";
+
+	// Ensure each complete row is decoded into the series in ascending date order
+	@Test
+	void parseTest() throws IOException {
+		PriceSeries series = HistoryCsvParser.parse(new ByteArrayInputStream(DOWNLOAD.getBytes(StandardCharsets.UTF_8)));
+
+		assertEquals(3, series.size());
+		assertEquals(LocalDate.of(2024, 2, 9).toEpochDay(), series.getDay(0));
+		assertEquals(LocalDate.of(2024, 2, 13).toEpochDay(), series.getDay(1));
+		assertEquals(LocalDate.of(2024, 2, 14).toEpochDay(), series.getDay(2));
+
+		assertEquals(-15000L, series.getOpen(0));
+		assertEquals(1892500L, series.getClose(0));
+		assertEquals(0L, series.getVolume(0));
+
+		assertEquals(11831000L, series.getOpen(1));
+		assertEquals(11850050L, series.getHigh(1));
+		assertEquals(11805000L, series.getLow(1));
+		assertEquals(11840000L, series.getClose(1));
+		assertEquals(1000L, series.getVolume(1));
+
+		assertEquals(1850000L, series.getOpen(2));
+		assertEquals(1865000L, series.getHigh(2));
+		assertEquals(1832000L, series.getLow(2));
+		assertEquals(1841500L, series.getClose(2));
+		assertEquals(12345678L, series.getVolume(2));
+	}
+
+	// Ensure rows split across blocks are read the same as in one block
+	@Test
+	void feedTest() {
+		byte[] bytes = DOWNLOAD.getBytes(StandardCharsets.UTF_8);
+		HistoryCsvParser parser = new HistoryCsvParser();
+		for (int i = 0; i < bytes.length; i += 3) {
+			parser.feed(bytes, i, Math.min(3, bytes.length - i));
+		}
+		PriceSeries series = parser.finish();
+
+		assertEquals(3, series.size());
+		assertEquals(1841500L, series.getClose(2));
+		assertEquals(12345678L, series.getVolume(2));
+	}
+
+	// Ensure values too large to hold are skipped instead of wrapping to negative prices
+	@Test
+	void overflowTest() throws IOException {
+		String csv = "Date,Open,High,Low,Close,Volume\r\n" //
+				+ "02/14/2024,1,\"92,233,720,368,547,758.07\",1,1,0\r\n" //
+				+ "02/13/2024,1,922337203685477.5806,1,1,0\r\n";
+		PriceSeries series = HistoryCsvParser.parse(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+		assertEquals(1, series.size());
+		assertEquals(LocalDate.of(2024, 2, 13).toEpochDay(), series.getDay(0));
+		assertEquals(9223372036854775806L, series.getHigh(0));
+	}
+
+	// Ensure dates match java.time and invalid dates are rejected
+	@Test
+	void epochDayTest() {
+		for (LocalDate d = LocalDate.of(1899, 12, 25); d.isBefore(LocalDate.of(2101, 1, 10)); d = d.plusDays(17)) {
+			assertEquals(d.toEpochDay(), HistoryCsvParser.epochDay(d.getYear(), d.getMonthValue(), d.getDayOfMonth()));
+		}
+		assertEquals(LocalDate.of(2024, 2, 29).toEpochDay(), HistoryCsvParser.epochDay(2024, 2, 29));
+		assertEquals(Long.MIN_VALUE, HistoryCsvParser.epochDay(2023, 2, 29));
+		assertEquals(Long.MIN_VALUE, HistoryCsvParser.epochDay(2024, 13, 1));
+		assertEquals(Long.MIN_VALUE, HistoryCsvParser.epochDay(2024, 4, 31));
+	}
+
+}
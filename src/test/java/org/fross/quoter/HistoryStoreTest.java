@@ -0,0 +1,82 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+class HistoryStoreTest {
+
+	// Ensure saved history is read back exactly and missing or corrupt files return null
+	@Test
+	void saveLoadTest() throws IOException {
+		Path dir = Files.createTempDirectory("quoterhistory");
+		try {
+			HistoryStore.setDirectory(dir);
+			assertNull(HistoryStore.load("IBM"));
+
+			int day = (int) LocalDate.of(2024, 1, 2).toEpochDay();
+			PriceSeries series = new PriceSeries();
+			series.add(day, 1610000L, 1635000L, 1602500L, 1617500L, 4500000L);
+			series.add(day + 1, 1617500L, 1620000L, 1598000L, 1601000L, 3900000L);
+			series.add(day + 2, 1601000L, 1619500L, 1600000L, 1615000L, Price.MISSING);
+
+			HistoryStore.save("ibm", LocalDate.of(2024, 1, 1), series);
+			HistoryStore.StoredHistory stored = HistoryStore.load("IBM");
+
+			assertEquals(LocalDate.of(2024, 1, 1), stored.coveredFrom);
+			assertEquals(series.size(), stored.series.size());
+			for (int i = 0; i < series.size(); i++) {
+				assertEquals(series.getDay(i), stored.series.getDay(i));
+				assertEquals(series.getOpen(i), stored.series.getOpen(i));
+				assertEquals(series.getHigh(i), stored.series.getHigh(i));
+				assertEquals(series.getLow(i), stored.series.getLow(i));
+				assertEquals(series.getClose(i), stored.series.getClose(i));
+				assertEquals(series.getVolume(i), stored.series.getVolume(i));
+			}
+
+			// A file in an unknown format is ignored
+			Files.write(dir.resolve("BAD.bin"), new byte[] { 1, 2, 3 });
+			assertNull(HistoryStore.load("BAD"));
+
+		} finally {
+			HistoryStore.setDirectory(HistoryStore.DEFAULT_DIRECTORY);
+			for (Path i : Files.list(dir).toArray(Path[]::new)) {
+				Files.delete(i);
+			}
+			Files.delete(dir);
+		}
+	}
+
+}
@@ -0,0 +1,162 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import org.jsoup.HttpStatusException;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+class HttpTransportTest {
+	static final String TEST_BODY = "Date,Open,High,Low,Close,Volume\n01/02/2024,1,2,3,4,5\n";
+
+	/**
+	 * startServer(): Start a local stub server that returns the test body plain, gzip compressed, or as a 404
+	 * 
+	 * @return
+	 * @throws IOException
+	 */
+	static HttpServer startServer() throws IOException {
+		HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+
+		server.createContext("/plain", exchange -> respond(exchange, 200, TEST_BODY.getBytes(StandardCharsets.UTF_8), null));
+
+		server.createContext("/gzip", exchange -> {
+			ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+			try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+				gzip.write(TEST_BODY.getBytes(StandardCharsets.UTF_8));
+			}
+			respond(exchange, 200, compressed.toByteArray(), "gzip");
+		});
+
+		server.createContext("/etag", exchange -> {
+			if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+				exchange.sendResponseHeaders(304, -1);
+				exchange.close();
+			} else {
+				exchange.getResponseHeaders().add("ETag", "\"v1\"");
+				respond(exchange, 200, TEST_BODY.getBytes(StandardCharsets.UTF_8), null);
+			}
+		});
+
+		server.createContext("/missing", exchange -> respond(exchange, 404, "Not Found".getBytes(StandardCharsets.UTF_8), null));
+
+		server.start();
+		return server;
+	}
+
+	static void respond(HttpExchange exchange, int status, byte[] body, String encoding) throws IOException {
+		exchange.getResponseHeaders().add("Content-Type", "text/plain; charset=utf-8");
+		if (encoding != null) {
+			exchange.getResponseHeaders().add("Content-Encoding", encoding);
+		}
+		exchange.sendResponseHeaders(status, body.length);
+		try (OutputStream os = exchange.getResponseBody()) {
+			os.write(body);
+		}
+	}
+
+	static String baseURL(HttpServer server) {
+		return "http://127.0.0.1:" + server.getAddress().getPort();
+	}
+
+	// Ensure plain and compressed responses are returned as the original text
+	@Test
+	void getStringTest() throws IOException {
+		HttpServer server = startServer();
+		try {
+			HttpTransport transport = new HttpTransport(HttpClient.newHttpClient());
+
+			assertEquals(TEST_BODY, transport.getString(baseURL(server) + "/plain"));
+			assertEquals(TEST_BODY, transport.getString(baseURL(server) + "/gzip"));
+			assertEquals(StandardCharsets.UTF_8, transport.get(baseURL(server) + "/plain").charset);
+		} finally {
+			server.stop(0);
+		}
+	}
+
+	// Ensure a non success status is reported the same way jsoup did
+	@Test
+	void errorStatusTest() throws IOException {
+		HttpServer server = startServer();
+		try {
+			HttpTransport transport = new HttpTransport(HttpClient.newHttpClient());
+			transport.getString(baseURL(server) + "/missing");
+			fail("A 404 response should throw HttpStatusException");
+
+		} catch (HttpStatusException ex) {
+			assertEquals(404, ex.getStatusCode());
+
+		} finally {
+			server.stop(0);
+		}
+	}
+
+	// Ensure a saved ETag is sent back to the server and a 304 response is reported as not modified
+	@Test
+	void conditionalTest() throws IOException {
+		HttpServer server = startServer();
+		try {
+			HttpTransport transport = new HttpTransport(HttpClient.newHttpClient());
+			String url = baseURL(server) + "/etag";
+
+			// The ETag of a page that wasn't read isn't sent
+			HttpTransport.Response first = transport.get(url, true);
+			first.body.close();
+			assertFalse(first.isNotModified());
+			first = transport.get(url, true);
+			assertFalse(first.isNotModified());
+			assertEquals(TEST_BODY, new String(first.body.readAllBytes(), first.charset));
+			first.body.close();
+			transport.saveValidators(url, first);
+
+			HttpTransport.Response second = transport.get(url, true);
+			assertTrue(second.isNotModified());
+			assertEquals(0, second.body.available());
+
+			// Without the conditional flag the full page is always returned
+			assertEquals(TEST_BODY, transport.getString(url));
+		} finally {
+			server.stop(0);
+		}
+	}
+
+}
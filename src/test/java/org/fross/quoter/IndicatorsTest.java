@@ -0,0 +1,227 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.EnumSet;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class IndicatorsTest {
+
+	// Build a random walk of daily prices that is the same every run
+	private static PriceSeries buildSeries(int size) {
+		Random random = new Random(24);
+		PriceSeries series = new PriceSeries();
+		long close = 100 * Price.ONE;
+		for (int i = 0; i < size; i++) {
+			long open = close;
+			close = Math.max(Price.ONE, close + (random.nextInt(401) - 200) * 100);
+			long high = Math.max(open, close) + random.nextInt(100) * 100;
+			long low = Math.min(open, close) - random.nextInt(100) * 100;
+			series.add(19000 + i, open, high, low, close, 1000 + i);
+		}
+		return series;
+	}
+
+	// Verify the names on the command line select the right columns
+	@Test
+	void testParseList() {
+		assertTrue(Indicators.Column.parseList("").isEmpty());
+		assertEquals(EnumSet.of(Indicators.Column.SMA, Indicators.Column.RSI), Indicators.Column.parseList("rsi, SMA"));
+		assertEquals(EnumSet.of(Indicators.Column.BB_LOWER, Indicators.Column.BB_UPPER), Indicators.Column.parseList("bb"));
+		assertEquals(EnumSet.allOf(Indicators.Column.class), Indicators.Column.parseList("all"));
+		assertThrows(IllegalArgumentException.class, () -> Indicators.Column.parseList("sma,macd"));
+	}
+
+	// The moving averages, bands, and volatility match a direct calculation over each window
+	@Test
+	void testWindows() {
+		int window = 5;
+		PriceSeries series = buildSeries(60);
+		Indicators indicators = new Indicators(series, window, 3, 252).update();
+
+		double ema = 0;
+		for (int i = 0; i < series.size(); i++) {
+			if (i < window - 1) {
+				assertEquals(Price.MISSING, indicators.get(Indicators.Column.SMA, i));
+				assertEquals(Price.MISSING, indicators.get(Indicators.Column.BB_UPPER, i));
+				continue;
+			}
+
+			double sum = 0;
+			for (int j = i - window + 1; j <= i; j++) {
+				sum += series.getClose(j);
+			}
+			double mean = sum / window;
+			double squares = 0;
+			for (int j = i - window + 1; j <= i; j++) {
+				squares += (series.getClose(j) - mean) * (series.getClose(j) - mean);
+			}
+			double deviation = Math.sqrt(squares / window);
+			ema = (i == window - 1) ? mean : ema + (series.getClose(i) - ema) * 2.0 / (window + 1);
+
+			assertEquals(Math.round(mean), indicators.get(Indicators.Column.SMA, i), 1);
+			assertEquals(Math.round(ema), indicators.get(Indicators.Column.EMA, i), 1);
+			assertEquals(Math.round(mean + 2 * deviation), indicators.get(Indicators.Column.BB_UPPER, i), 1);
+			assertEquals(Math.round(mean - 2 * deviation), indicators.get(Indicators.Column.BB_LOWER, i), 1);
+
+			if (i >= window) {
+				double returnSum = 0;
+				double[] returns = new double[window];
+				for (int j = 0; j < window; j++) {
+					returns[j] = Math.log((double) series.getClose(i - j) / series.getClose(i - j - 1));
+					returnSum += returns[j];
+				}
+				double variance = 0;
+				for (double r : returns) {
+					variance += (r - returnSum / window) * (r - returnSum / window);
+				}
+				double volatility = Math.sqrt(variance / (window - 1) * 252) * 100;
+				assertEquals(Price.valueOf(volatility), indicators.get(Indicators.Column.VOLATILITY, i), 2);
+			}
+		}
+	}
+
+	// RSI and ATR match Wilder's definitions
+	@Test
+	void testWilder() {
+		int period = 4;
+		PriceSeries series = buildSeries(40);
+		Indicators indicators = new Indicators(series, 5, period, 252).update();
+
+		double gain = 0;
+		double loss = 0;
+		double range = 0;
+		for (int i = 0; i < series.size(); i++) {
+			long previous = (i > 0) ? series.getClose(i - 1) : series.getClose(i);
+			long change = series.getClose(i) - previous;
+			double trueRange = Math.max(series.getHigh(i) - series.getLow(i),
+					Math.max(Math.abs(series.getHigh(i) - previous), Math.abs(series.getLow(i) - previous)));
+
+			// The first averages are plain averages and then each bar moves them 1/period of the way
+			if (i > 0) {
+				if (i <= period) {
+					gain += Math.max(change, 0) / (double) period;
+					loss += Math.max(-change, 0) / (double) period;
+				} else {
+					gain = (gain * (period - 1) + Math.max(change, 0)) / period;
+					loss = (loss * (period - 1) + Math.max(-change, 0)) / period;
+				}
+			}
+			range = (i < period) ? range + trueRange / period : (range * (period - 1) + trueRange) / period;
+
+			if (i < period) {
+				assertEquals(Price.MISSING, indicators.get(Indicators.Column.RSI, i));
+			} else {
+				assertEquals(Price.valueOf(100 * gain / (gain + loss)), indicators.get(Indicators.Column.RSI, i), 2);
+			}
+			if (i < period - 1) {
+				assertEquals(Price.MISSING, indicators.get(Indicators.Column.ATR, i));
+			} else {
+				assertEquals(Math.round(range), indicators.get(Indicators.Column.ATR, i), 1);
+			}
+		}
+	}
+
+	// Bars added after an update are calculated without changing the earlier ones
+	@Test
+	void testIncrementalUpdate() {
+		PriceSeries full = buildSeries(90);
+		Indicators expected = new Indicators(full, 20, 14, 252).update();
+
+		PriceSeries growing = new PriceSeries();
+		Indicators incremental = new Indicators(growing, 20, 14, 252);
+		for (int i = 0; i < full.size(); i++) {
+			growing.add(full.getDay(i), full.getOpen(i), full.getHigh(i), full.getLow(i), full.getClose(i), full.getVolume(i));
+			if (i % 7 == 0) {
+				incremental.update();
+			}
+		}
+		incremental.update();
+
+		assertEquals(full.size(), incremental.size());
+		for (Indicators.Column c : Indicators.Column.values()) {
+			for (int i = 0; i < full.size(); i++) {
+				assertEquals(expected.get(c, i), incremental.get(c, i));
+			}
+			assertEquals(expected.get(c, full.size() - 1), incremental.getLatest(c));
+		}
+	}
+
+	// Flat prices have no volatility, zero width bands, and a neutral RSI
+	@Test
+	void testFlatPrices() {
+		PriceSeries series = new PriceSeries();
+		for (int i = 0; i < 30; i++) {
+			series.add(19000 + i, 10 * Price.ONE, 10 * Price.ONE, 10 * Price.ONE, 10 * Price.ONE, 0);
+		}
+		Indicators indicators = new Indicators(series, 252).update();
+
+		assertEquals(10 * Price.ONE, indicators.getLatest(Indicators.Column.BB_UPPER));
+		assertEquals(10 * Price.ONE, indicators.getLatest(Indicators.Column.BB_LOWER));
+		assertEquals(50 * Price.ONE, indicators.getLatest(Indicators.Column.RSI));
+		assertEquals(0, indicators.getLatest(Indicators.Column.ATR));
+		assertEquals(0, indicators.getLatest(Indicators.Column.VOLATILITY));
+		assertEquals(Price.MISSING, new Indicators(new PriceSeries(), 252).update().getLatest(Indicators.Column.SMA));
+	}
+
+	// A last bar that changes is calculated again the same as calculating every bar from the start
+	@Test
+	void testRemoveLast() {
+		PriceSeries full = buildSeries(60);
+		PriceSeries growing = new PriceSeries();
+		Indicators incremental = new Indicators(growing, 20, 14, 252);
+
+		for (int i = 0; i < full.size(); i++) {
+			// Each bar first appears with a different close and high, as if downloaded during the day
+			growing.add(full.getDay(i), full.getOpen(i), full.getHigh(i) + 500, full.getLow(i), full.getClose(i) + 300, 0);
+			incremental.update();
+			assertTrue(incremental.removeLast());
+			growing.removeLast();
+			growing.add(full.getDay(i), full.getOpen(i), full.getHigh(i), full.getLow(i), full.getClose(i), full.getVolume(i));
+			incremental.update();
+		}
+
+		Indicators expected = new Indicators(full, 20, 14, 252).update();
+		for (Indicators.Column c : Indicators.Column.values()) {
+			for (int i = 0; i < full.size(); i++) {
+				assertEquals(expected.get(c, i), incremental.get(c, i));
+			}
+		}
+
+		// Only one bar can be removed between updates
+		assertTrue(incremental.removeLast());
+		assertFalse(incremental.removeLast());
+		assertFalse(new Indicators(new PriceSeries(), 252).removeLast());
+	}
+}
@@ -0,0 +1,54 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class MarketStateTest {
+
+	// Ensure a snapshot reports the state it was created with
+	@Test
+	void stateTest() {
+		assertTrue(new MarketState(true, System.currentTimeMillis()).isOpen());
+		assertFalse(new MarketState(false, System.currentTimeMillis()).isOpen());
+	}
+
+	// Ensure a snapshot expires once it is older than the TTL
+	@Test
+	void expiredTest() {
+		MarketState freshState = new MarketState(true, System.currentTimeMillis());
+		assertFalse(freshState.isExpired(MarketState.DEFAULT_TTL_SECONDS));
+
+		MarketState oldState = new MarketState(true, System.currentTimeMillis() - (MarketState.DEFAULT_TTL_SECONDS * 1000L) - 1);
+		assertTrue(oldState.isExpired(MarketState.DEFAULT_TTL_SECONDS));
+		assertTrue(oldState.isExpired(0));
+	}
+
+}
@@ -0,0 +1,120 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jsoup.Jsoup;
+import org.junit.jupiter.api.Test;
+
+class PageReaderTest {
+
+	/**
+	 * buildPage(): Create a page with the quote fields at the top followed by the provided number of filler rows
+	 * 
+	 * @param fillerRows
+	 * @return
+	 */
+	static byte[] buildPage(int fillerRows) {
+		StringBuilder page = new StringBuilder("<html><body><div><h2>123.45</h2><span>-1.50</span></div><div>");
+		for (int i = 0; i < fillerRows; i++) {
+			page.append("<p>Filler row number ").append(i).append(" that makes the page much larger than it needs to be</p>");
+		}
+		page.append("</div></body></html>");
+		return page.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	static FieldExtractor buildExtractor() {
+		Map<String, String> xPaths = new HashMap<>();
+		xPaths.put("latestPrice", "/html/body/div[1]/h2");
+		xPaths.put("change", "/html/body/div[1]/span");
+		return new FieldExtractor(xPaths);
+	}
+
+	// Ensure reading stops early on a large page once the fields are found
+	@Test
+	void earlyStopTest() throws IOException {
+		byte[] page = buildPage(20000);
+		ByteArrayInputStream bodyStream = new ByteArrayInputStream(page);
+
+		Map<String, String> results = PageReader.readFields(bodyStream, StandardCharsets.UTF_8, "http://localhost/", buildExtractor());
+
+		assertEquals("123.45", results.get("latestPrice"));
+		assertEquals("-1.50", results.get("change"));
+		assertTrue(bodyStream.available() > 0);
+		assertTrue(page.length - bodyStream.available() < PageReader.FIRST_CHECK_BYTES * 2);
+	}
+
+	// Ensure a small page is read completely and still returns the fields
+	@Test
+	void smallPageTest() throws IOException {
+		ByteArrayInputStream bodyStream = new ByteArrayInputStream(buildPage(5));
+
+		Map<String, String> results = PageReader.readFields(bodyStream, StandardCharsets.UTF_8, "http://localhost/", buildExtractor());
+
+		assertEquals("123.45", results.get("latestPrice"));
+		assertEquals("-1.50", results.get("change"));
+		assertEquals(0, bodyStream.available());
+	}
+
+	// Ensure a field that may have been cut off at the end of a partial page is not accepted
+	@Test
+	void partialFieldTest() {
+		String partialPage = "<html><body><div><h2>123.45</h2><span>-1.5";
+
+		assertNull(buildExtractor().extractComplete(Jsoup.parse(partialPage)));
+		assertEquals("-1.5", buildExtractor().extract(Jsoup.parse(partialPage)).get("change"));
+	}
+
+	// Ensure a previous result is reused when the start of the page is unchanged and discarded when it changes
+	@Test
+	void unchangedContentTest() throws IOException {
+		FieldExtractor extractor = buildExtractor();
+		byte[] page = buildPage(20000);
+
+		PageReader.ReadResult first = PageReader.readPage(new ByteArrayInputStream(page), StandardCharsets.UTF_8, "http://localhost/", extractor, null);
+		PageReader.ReadResult second = PageReader.readPage(new ByteArrayInputStream(page), StandardCharsets.UTF_8, "http://localhost/", extractor, first);
+		assertSame(first, second);
+
+		byte[] changedPage = new String(page, StandardCharsets.UTF_8).replace("123.45", "123.46").getBytes(StandardCharsets.UTF_8);
+		PageReader.ReadResult third = PageReader.readPage(new ByteArrayInputStream(changedPage), StandardCharsets.UTF_8, "http://localhost/", extractor,
+				first);
+		assertNotSame(first, third);
+		assertEquals("123.46", third.fields.get("latestPrice"));
+	}
+
+}
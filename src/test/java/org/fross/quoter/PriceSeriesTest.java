@@ -0,0 +1,182 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class PriceSeriesTest {
+
+	// Ensure days are added past the initial capacity and read back
+	@Test
+	void addTest() {
+		PriceSeries series = new PriceSeries(2);
+		assertTrue(series.isEmpty());
+
+		for (int i = 0; i < 100; i++) {
+			series.add(i, i * 10L, i * 20L, i * 5L, i * 15L, i);
+		}
+
+		assertEquals(100, series.size());
+		assertEquals(99, series.getDay(99));
+		assertEquals(990L, series.getOpen(99));
+		assertEquals(1980L, series.getHigh(99));
+		assertEquals(495L, series.getLow(99));
+		assertEquals(1485L, series.getClose(99));
+		assertEquals(99L, series.getVolume(99));
+	}
+
+	// Ensure descending and unordered series are sorted and the last copy of a repeated day is kept
+	@Test
+	void sortByDayTest() {
+		PriceSeries descending = new PriceSeries();
+		for (int i = 9; i >= 0; i--) {
+			descending.add(i, 0, 0, 0, i, 0);
+		}
+		descending.sortByDay();
+		for (int i = 0; i < 10; i++) {
+			assertEquals(i, descending.getDay(i));
+			assertEquals(i, descending.getClose(i));
+		}
+
+		PriceSeries unordered = new PriceSeries();
+		unordered.add(5, 0, 0, 0, 1, 0);
+		unordered.add(-2, 0, 0, 0, 2, 0);
+		unordered.add(5, 0, 0, 0, 3, 0);
+		unordered.add(1, 0, 0, 0, 4, 0);
+		unordered.sortByDay();
+
+		assertEquals(3, unordered.size());
+		assertEquals(-2, unordered.getDay(0));
+		assertEquals(1, unordered.getDay(1));
+		assertEquals(5, unordered.getDay(2));
+		assertEquals(3L, unordered.getClose(2));
+	}
+
+	// Ensure days are found with the binary search and ranges include both ends
+	@Test
+	void rangeTest() {
+		PriceSeries series = new PriceSeries();
+		for (int day = 100; day < 200; day += 2) {
+			series.add(day, 0, day, day, day, 0);
+		}
+
+		assertEquals(0, series.indexOf(50));
+		assertEquals(5, series.indexOf(110));
+		assertEquals(6, series.indexOf(111));
+		assertEquals(series.size(), series.indexOf(500));
+
+		PriceSeries range = series.range(110, 120);
+		assertEquals(6, range.size());
+		assertEquals(110, range.getFirstDay());
+		assertEquals(120, range.getLastDay());
+
+		assertEquals(5, series.range(111, 121).size());
+		assertTrue(series.range(300, 400).isEmpty());
+		assertTrue(series.range(150, 140).isEmpty());
+	}
+
+	// Ensure merging keeps the days of both series in order and the newer one wins
+	@Test
+	void mergeTest() {
+		PriceSeries older = new PriceSeries();
+		older.add(1, 0, 0, 0, 10, 0);
+		older.add(3, 0, 0, 0, 30, 0);
+		older.add(5, 0, 0, 0, 50, 0);
+
+		PriceSeries newer = new PriceSeries();
+		newer.add(5, 0, 0, 0, 55, 0);
+		newer.add(6, 0, 0, 0, 60, 0);
+
+		PriceSeries merged = older.merge(newer);
+		assertEquals(4, merged.size());
+		assertEquals(1, merged.getDay(0));
+		assertEquals(3, merged.getDay(1));
+		assertEquals(55L, merged.getClose(2));
+		assertEquals(6, merged.getDay(3));
+	}
+
+	// Ensure the window highs and lows match a simple scan of every range
+	@Test
+	void minMaxTest() {
+		Random random = new Random(42);
+		PriceSeries series = new PriceSeries();
+		for (int i = 0; i < 37; i++) {
+			long low = random.nextInt(100000);
+			series.add(i, low, low + random.nextInt(5000), low, low, 0);
+		}
+
+		for (int from = 0; from < series.size(); from++) {
+			long high = Long.MIN_VALUE;
+			long low = Long.MAX_VALUE;
+			for (int to = from + 1; to <= series.size(); to++) {
+				high = Math.max(high, series.getHigh(to - 1));
+				low = Math.min(low, series.getLow(to - 1));
+				assertEquals(high, series.maxHigh(from, to));
+				assertEquals(low, series.minLow(from, to));
+			}
+		}
+
+		assertThrows(IndexOutOfBoundsException.class, () -> series.maxHigh(5, 5));
+		series.add(37, 0, 999999, -1, 0, 0);
+		assertEquals(999999L, series.maxHigh(0, series.size()));
+		assertEquals(-1L, series.minLow(30, series.size()));
+	}
+
+	// Ensure the last day can be removed and replaced, and matching days are counted from the start
+	@Test
+	void removeLastTest() {
+		PriceSeries series = new PriceSeries();
+		PriceSeries other = new PriceSeries();
+		for (int i = 0; i < 10; i++) {
+			series.add(i, i, i + 2, i - 1, i + 1, i);
+			other.add(i, i, i + 2, i - 1, i + 1, i);
+		}
+		assertEquals(10, series.countMatching(other));
+		assertEquals(11L, series.maxHigh(0, 10));
+
+		// The last day's close changes during the day
+		series.removeLast();
+		series.add(9, 9, 30, 8, 25, 9);
+		assertEquals(10, series.size());
+		assertEquals(30L, series.maxHigh(0, 10));
+		assertEquals(9, series.countMatching(other));
+		assertEquals(9, other.countMatching(series));
+
+		// A shorter series matches up to its end
+		other.removeLast();
+		other.removeLast();
+		assertEquals(8, series.countMatching(other));
+		assertEquals(0, new PriceSeries().countMatching(series));
+		assertThrows(IndexOutOfBoundsException.class, () -> new PriceSeries().removeLast());
+	}
+}
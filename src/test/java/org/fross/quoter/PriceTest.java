@@ -0,0 +1,112 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class PriceTest {
+
+	// Ensure website text is converted to exact fixed point values
+	@Test
+	void parseTest() {
+		assertEquals(12345000L, Price.parse("$1,234.50"));
+		assertEquals(4500L, Price.parse("+0.45%"));
+		assertEquals(-170000L, Price.parse(" -17 "));
+		assertEquals(-12300L, Price.parse("\u22121.23"));
+		assertEquals(345L, Price.parse("0.0345"));
+		assertEquals(346L, Price.parse("0.03456"));
+		assertEquals(391234567800L, Price.parse("39,123,456.78"));
+
+		assertTrue(Price.isMissing(Price.parse("---")));
+		assertTrue(Price.isMissing(Price.parse("-")));
+		assertTrue(Price.isMissing(Price.parse("N/A")));
+		assertTrue(Price.isMissing(Price.parse("1.2.3")));
+		assertTrue(Price.isMissing(Price.parse("1-2")));
+		assertTrue(Price.isMissing(Price.parse("12345678901234567")));
+		assertTrue(Price.isMissing(Price.parse("")));
+		assertTrue(Price.isMissing(Price.parse(null)));
+	}
+
+	// Ensure the largest values are read exactly and anything larger is rejected instead of wrapping to a negative value
+	@Test
+	void parseLimitTest() {
+		assertEquals(9223372036854770000L, Price.parse("922,337,203,685,477"));
+		assertEquals(9223372036854775806L, Price.parse("922337203685477.5806"));
+		assertEquals(Long.MAX_VALUE, Price.parse("922337203685477.58069"));
+		assertEquals(-9223372036854775806L, Price.parse("-922337203685477.5806"));
+
+		assertTrue(Price.isMissing(Price.parse("922337203685478")));
+		assertTrue(Price.isMissing(Price.parse("922337203685477.5807")));
+		assertTrue(Price.isMissing(Price.parse("92233720368547758.07")));
+		assertTrue(Price.isMissing(Price.parse("9223372036854775807")));
+	}
+
+	// Ensure the largest values parsed are rounded without overflowing
+	@Test
+	void formatLimitTest() {
+		assertEquals("922,337,203,685,477.58", Price.format(Price.parse("922337203685477.58"), 2, 0, false, true));
+		assertEquals("922337203685477.6", Price.format(Long.MAX_VALUE, 1, 0, false, false));
+		assertEquals("-922337203685478", Price.format(-(Long.MAX_VALUE - 1), 0, 0, false, false));
+		assertEquals("-922337203685477.5806", Price.format(-(Long.MAX_VALUE - 1), 4, 0, false, false));
+	}
+
+	// Ensure values keep between two and four decimals as plain text
+	@Test
+	void toStringTest() {
+		assertEquals("1234.50", Price.toString(12345000L));
+		assertEquals("0.0345", Price.toString(345L));
+		assertEquals("-2.125", Price.toString(-21250L));
+		assertEquals("0.00", Price.toString(0L));
+		assertEquals("-", Price.toString(Price.MISSING));
+		assertEquals(12345600L, Price.parse(Price.toString(12345600L)));
+	}
+
+	// Ensure formatting matches the String.format patterns it replaced
+	@Test
+	void formatTest() {
+		long[] values = { 0L, 5L, 49L, 50L, 12345000L, -21250L, 391234567800L, -99999L, 999999999L };
+
+		for (long value : values) {
+			double d = value / 10000.0;
+			assertEquals(String.format("%,10.2f", d), Price.format(value, 2, 10, false, true));
+			assertEquals(String.format("%+,12.2f", d), Price.format(value, 2, 12, true, true));
+			assertEquals(String.format("%7.2f", d), Price.format(value, 2, 7, false, false));
+			assertEquals(String.format("%+9.2f%%", d), Price.formatPercent(value, 10, true, false));
+		}
+
+		assertEquals("      -", Price.format(Price.MISSING, 2, 7, false, false));
+		assertEquals("        -", Price.formatPercent(Price.MISSING, 9, true, false));
+		assertEquals("1,234.5", Price.format(12345000L, 1, 0, false, true));
+		assertEquals("1235", Price.format(12345000L, 0, 0, false, false));
+		assertEquals("+0.00", Price.format(-49L, 2, 0, true, false));
+		assertEquals(Price.MAX_LENGTH, Price.format(-Long.MAX_VALUE, 4, 0, true, true).length());
+	}
+
+}
@@ -0,0 +1,83 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class QuoteCacheTest {
+
+	// Ensure data written to the cache is read back while fresh and ignored once the cache is disabled
+	@Test
+	void putGetTest() throws IOException {
+		Path dir = Files.createTempDirectory("quotercache");
+		try {
+			QuoteCache.configure(dir, 60);
+
+			Map<String, String> data = new HashMap<>();
+			data.put("symbol", "IBM");
+			data.put("latestPrice", "123.45");
+			data.put("fullname", "International Business Machines Corp.");
+
+			String key = QuoteCache.key("symbol", "ibm", true);
+			QuoteCache.put(key, data);
+			assertEquals(data, QuoteCache.get(key));
+
+			// Different market state is a different entry
+			assertNull(QuoteCache.get(QuoteCache.key("symbol", "ibm", false)));
+
+			// No data is returned when the cache is disabled
+			QuoteCache.configure(dir, 0);
+			assertNull(QuoteCache.get(key));
+
+		} finally {
+			QuoteCache.configure(QuoteCache.DEFAULT_DIRECTORY, 0);
+			for (Path i : Files.list(dir).toArray(Path[]::new)) {
+				Files.delete(i);
+			}
+			Files.delete(dir);
+		}
+	}
+
+	// Ensure keys are safe to use as file names
+	@Test
+	void keyTest() {
+		assertEquals("index-S_P-closed", QuoteCache.key("index", "S&P", false));
+		assertEquals("symbol-BRK.B-open", QuoteCache.key("symbol", "brk.b", true));
+		assertFalse(QuoteCache.key("symbol", "../../etc/passwd", true).contains("/"));
+	}
+
+}
@@ -26,48 +26,26 @@
  ***************************************************************************************************************/
 package org.fross.quoter;
 
-import java.io.Console;
-
-import org.fross.library.Output;
-import org.fusesource.jansi.Ansi;
-
-public class EnterPressed extends Thread {
-	boolean enterPressed;
-
-	public EnterPressed() {
-		this.enterPressed = false;
-	}
-
-	/**
-	 * run(): Check to see if enter was pressed and update the class flag
-	 * 
-	 */
-	@Override
-	public void run() {
-		// Check for the enter key being pressed
-		try {
-			Console c = System.console();
-
-			if (c.readLine() != null) {
-				this.enterPressed = true;
-				Output.printColorln(Ansi.Color.DEFAULT, "\nExiting...");
-
-				// This seems sloppy, but having Main check the status wasn't working reliably
-				System.exit(0);
-			}
-
-		} catch (Exception ex) {
-			// Just keeping 'er movin'
-		}
-	}
-
-	/**
-	 * queryEnterPressed(): Return the current state of the flag
-	 * 
-	 * @return
-	 */
-	public boolean queryEnterPressed() {
-		return this.enterPressed;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.fross.quoter.XPathLookup.PageType;
+import org.junit.jupiter.api.Test;
+
+class QuoteContextTest {
+
+	// Ensure quotes saved in the context are found ignoring case and are reused instead of being downloaded again
+	@Test
+	void findTest() {
+		QuoteContext context = new QuoteContext(null);
+		Quote quote = Quote.error(PageType.SYMBOL, "IBM");
+
+		assertNull(context.find("ibm"));
+		context.put("ibm", quote);
+		assertSame(quote, context.find("IBM"));
+		assertSame(quote, context.find("Ibm"));
+		assertSame(quote, context.getSymbol("ibm"));
+		assertNull(context.getMarketState());
 	}
 
 }
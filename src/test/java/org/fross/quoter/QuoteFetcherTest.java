@@ -0,0 +1,103 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class QuoteFetcherTest {
+
+	// No more tasks than the limit run at the same time
+	@Test
+	void testConcurrencyLimit() {
+		int limit = 3;
+		QuoteFetcher fetcher = new QuoteFetcher(limit);
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger maxInFlight = new AtomicInteger();
+
+		List<Future<Integer>> futures = new ArrayList<>();
+		for (int i = 0; i < 30; i++) {
+			futures.add(fetcher.submit(() -> {
+				int running = inFlight.incrementAndGet();
+				maxInFlight.accumulateAndGet(running, Math::max);
+				Thread.sleep(10);
+				inFlight.decrementAndGet();
+				return running;
+			}));
+		}
+		for (Future<Integer> future : futures) {
+			QuoteFetcher.await(future);
+		}
+		fetcher.shutdown();
+
+		assertTrue(maxInFlight.get() <= limit, "At most " + limit + " tasks should run at once but " + maxInFlight.get() + " did");
+		assertTrue(maxInFlight.get() >= 1);
+		assertEquals(0, inFlight.get());
+	}
+
+	// Results are returned in the order submitted even when later tasks finish first
+	@Test
+	void testResultOrder() {
+		QuoteFetcher fetcher = new QuoteFetcher(8);
+		List<Future<Integer>> futures = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			final int value = i;
+			futures.add(fetcher.submit(() -> {
+				Thread.sleep(5L * (8 - value));
+				return value;
+			}));
+		}
+
+		for (int i = 0; i < futures.size(); i++) {
+			assertEquals(Integer.valueOf(i), QuoteFetcher.await(futures.get(i)));
+		}
+		fetcher.shutdown();
+	}
+
+	// A task that fails returns null and doesn't stop the others
+	@Test
+	void testFailedTask() {
+		QuoteFetcher fetcher = new QuoteFetcher(1);
+		Future<String> failed = fetcher.submit(() -> {
+			throw new IllegalStateException("Download failed");
+		});
+		Future<String> working = fetcher.submit(() -> "OK");
+
+		assertNull(QuoteFetcher.await(failed));
+		assertEquals("OK", QuoteFetcher.await(working));
+		fetcher.shutdown();
+	}
+
+}
@@ -0,0 +1,131 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.fross.quoter.XPathLookup.PageType;
+import org.junit.jupiter.api.Test;
+
+class QuoteTest {
+
+	/**
+	 * symbolPage(): The text of the fields as they appear on a security page
+	 * 
+	 * @return
+	 */
+	static Map<String, String> symbolPage() {
+		Map<String, String> pageItems = new HashMap<>();
+		pageItems.put("latestPrice", "$1,234.56");
+		pageItems.put("change", "-2.5");
+		pageItems.put("changePercent", "-0.20%");
+		pageItems.put("52weekRange", "1,001.10 - 1,300.00");
+		pageItems.put("dayRange", "1,230.00 - 1,240.75");
+		pageItems.put("oneYearChangePercent", "12.34%");
+		pageItems.put("timeStamp", "Oct 16, 2026 4:00 p.m.");
+		pageItems.put("fullname", " Example Corp. ");
+		return pageItems;
+	}
+
+	// Ensure the page text is parsed into numbers once and optional fields are allowed to be missing
+	@Test
+	void testFromSymbolPage() {
+		Quote quote = Quote.fromPage(PageType.SYMBOL, "exmp", symbolPage());
+
+		assertTrue(quote.isOk());
+		assertEquals("EXMP", quote.getName());
+		assertEquals("Example Corp.", quote.getFullname());
+		assertEquals("Oct 16 2026 4:00 p.m.", quote.getTimeStamp());
+		assertEquals(12345600L, quote.getLatestPrice());
+		assertEquals(-25000L, quote.getChange());
+		assertEquals(-2000L, quote.getChangePercent());
+		assertEquals(12407500L, quote.getDayHigh());
+		assertEquals(12300000L, quote.getDayLow());
+		assertEquals(13000000L, quote.getWeek52High());
+		assertEquals(10011000L, quote.getWeek52Low());
+		assertEquals(Price.MISSING, quote.getYtdChangePercent());
+		assertEquals(123400L, quote.getOneYearChangePercent());
+	}
+
+	// Ensure indexes require every field including a valid 52 week range
+	@Test
+	void testFromIndexPage() {
+		Map<String, String> pageItems = symbolPage();
+		pageItems.put("ytdChangePercent", "5.00%");
+		Quote quote = Quote.fromPage(PageType.INDEX, "DOW", pageItems);
+		assertEquals("DOW", quote.getName());
+		assertEquals(Price.MISSING, quote.getDayHigh());
+		assertNull(quote.get("dayHigh"));
+		assertNull(quote.get("symbol"));
+
+		pageItems.put("52weekRange", "n/a");
+		try {
+			Quote.fromPage(PageType.INDEX, "DOW", pageItems);
+			fail("An index without a 52 week range should not be accepted");
+		} catch (IllegalStateException ex) {
+			// Expected
+		}
+
+		pageItems.remove("ytdChangePercent");
+		try {
+			Quote.fromPage(PageType.INDEX, "DOW", pageItems);
+			fail("An index without a year to date change should not be accepted");
+		} catch (IllegalStateException ex) {
+			// Expected
+		}
+	}
+
+	// Ensure the text view matches what the website provided and survives a round trip
+	@Test
+	void testTextView() {
+		Quote quote = Quote.fromPage(PageType.SYMBOL, "exmp", symbolPage());
+
+		assertEquals("ok", quote.get("status"));
+		assertEquals("1234.56", quote.get("latestPrice"));
+		assertEquals("-2.50", quote.get("change"));
+		assertEquals("-", quote.get("ytdChangePercent"));
+		assertEquals(quote.getFieldNames().size(), quote.toMap().size());
+
+		Quote copy = Quote.fromMap(PageType.SYMBOL, quote.toMap());
+		for (String i : quote.getFieldNames()) {
+			assertEquals(quote.get(i), copy.get(i));
+		}
+
+		Quote error = quote.with("status", "error");
+		assertFalse(error.isOk());
+		assertTrue(quote.isOk());
+		assertEquals(12345600L, error.getLatestPrice());
+	}
+
+}
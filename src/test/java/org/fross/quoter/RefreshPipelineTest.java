@@ -0,0 +1,121 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class RefreshPipelineTest {
+
+	// Ensure a prefetched frame is returned once and a new one is built when nothing was prefetched
+	@Test
+	void prefetchTakeTest() {
+		AtomicInteger builds = new AtomicInteger();
+		RefreshPipeline pipeline = new RefreshPipeline(() -> {
+			builds.incrementAndGet();
+			return new Frame();
+		});
+
+		try {
+			pipeline.prefetch();
+			pipeline.prefetch();
+			Frame first = pipeline.take();
+			assertEquals(1, builds.get());
+
+			Frame second = pipeline.take();
+			assertEquals(2, builds.get());
+			assertNotSame(first, second);
+
+		} finally {
+			pipeline.shutdown();
+		}
+	}
+
+	// Ensure a frame started before invalidate() is replaced by a new one
+	@Test
+	void invalidateTest() {
+		AtomicInteger builds = new AtomicInteger();
+		RefreshPipeline pipeline = new RefreshPipeline(() -> {
+			builds.incrementAndGet();
+			return new Frame();
+		});
+
+		try {
+			pipeline.prefetch();
+			pipeline.invalidate();
+			pipeline.take();
+			assertEquals(2, builds.get());
+
+		} finally {
+			pipeline.shutdown();
+		}
+	}
+
+	// Ensure a failed background build is retried when the frame is taken
+	@Test
+	void failedBuildTest() {
+		AtomicInteger builds = new AtomicInteger();
+		Frame frame = new Frame();
+		RefreshPipeline pipeline = new RefreshPipeline(() -> {
+			if (builds.incrementAndGet() == 1) {
+				throw new IllegalStateException("Download failed");
+			}
+			return frame;
+		});
+
+		try {
+			pipeline.prefetch();
+			assertSame(frame, pipeline.take());
+			assertEquals(2, builds.get());
+
+		} finally {
+			pipeline.shutdown();
+		}
+	}
+
+	// Ensure the lead time is at least a second but never more than the time remaining
+	@Test
+	void leadSecondsTest() {
+		RefreshPipeline pipeline = new RefreshPipeline(() -> new Frame());
+
+		try {
+			assertEquals(1, pipeline.leadSeconds(60));
+			assertEquals(0, pipeline.leadSeconds(0));
+			pipeline.take();
+			assertEquals(1, pipeline.leadSeconds(60));
+
+		} finally {
+			pipeline.shutdown();
+		}
+	}
+
+}
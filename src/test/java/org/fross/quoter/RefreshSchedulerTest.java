@@ -0,0 +1,106 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+
+import org.fross.quoter.RefreshScheduler.Session;
+import org.junit.jupiter.api.Test;
+
+class RefreshSchedulerTest {
+
+	static ZonedDateTime marketTime(int year, int month, int day, int hour, int minute) {
+		return ZonedDateTime.of(year, month, day, hour, minute, 0, 0, RefreshScheduler.MARKET_ZONE);
+	}
+
+	// Ensure the US market holidays are recognized
+	@Test
+	void holidayTest() {
+		assertTrue(RefreshScheduler.isHoliday(LocalDate.of(2024, 1, 1)));		// New Year's Day
+		assertTrue(RefreshScheduler.isHoliday(LocalDate.of(2024, 1, 15)));		// Martin Luther King Jr. Day
+		assertTrue(RefreshScheduler.isHoliday(LocalDate.of(2024, 3, 29)));		// Good Friday
+		assertTrue(RefreshScheduler.isHoliday(LocalDate.of(2024, 5, 27)));		// Memorial Day
+		assertTrue(RefreshScheduler.isHoliday(LocalDate.of(2024, 7, 4)));		// Independence Day
+		assertTrue(RefreshScheduler.isHoliday(LocalDate.of(2024, 11, 28)));	// Thanksgiving
+		assertTrue(RefreshScheduler.isHoliday(LocalDate.of(2022, 12, 26)));	// Christmas observed on Monday
+		assertTrue(RefreshScheduler.isHoliday(LocalDate.of(2026, 7, 3)));		// Independence Day observed on Friday
+
+		assertFalse(RefreshScheduler.isHoliday(LocalDate.of(2024, 7, 5)));
+		assertFalse(RefreshScheduler.isHoliday(LocalDate.of(2021, 12, 31)));	// New Year's on Saturday isn't observed
+		assertFalse(RefreshScheduler.isTradingDay(LocalDate.of(2024, 6, 15)));	// Saturday
+		assertTrue(RefreshScheduler.isTradingDay(LocalDate.of(2024, 6, 14)));
+	}
+
+	// Ensure the session is determined correctly throughout a trading day
+	@Test
+	void sessionTest() {
+		assertEquals(Session.CLOSED, RefreshScheduler.getSession(marketTime(2024, 6, 14, 3, 59)));
+		assertEquals(Session.PRE_MARKET, RefreshScheduler.getSession(marketTime(2024, 6, 14, 4, 0)));
+		assertEquals(Session.REGULAR, RefreshScheduler.getSession(marketTime(2024, 6, 14, 9, 30)));
+		assertEquals(Session.AFTER_HOURS, RefreshScheduler.getSession(marketTime(2024, 6, 14, 16, 0)));
+		assertEquals(Session.CLOSED, RefreshScheduler.getSession(marketTime(2024, 6, 14, 20, 0)));
+		assertEquals(Session.CLOSED, RefreshScheduler.getSession(marketTime(2024, 7, 4, 12, 0)));
+	}
+
+	// Ensure the refresh interval adapts to the session and is aligned to the clock
+	@Test
+	void delayTest() {
+		RefreshScheduler scheduler = new RefreshScheduler(60, Clock.systemUTC(), 0);
+
+		// Mid session uses the requested interval aligned to the minute
+		assertEquals(60, scheduler.secondsUntilNextRefresh(marketTime(2024, 6, 14, 12, 0)));
+		assertEquals(30, scheduler.secondsUntilNextRefresh(marketTime(2024, 6, 14, 12, 0).plusSeconds(30)));
+
+		// Near the open and close the interval is halved
+		assertEquals(30, scheduler.secondsUntilNextRefresh(marketTime(2024, 6, 14, 9, 31)));
+		assertEquals(30, scheduler.secondsUntilNextRefresh(marketTime(2024, 6, 14, 15, 50)));
+
+		// Extended hours double the interval
+		assertEquals(120, scheduler.secondsUntilNextRefresh(marketTime(2024, 6, 14, 17, 0)));
+
+		// Closed on a Saturday stretches the interval
+		assertEquals(600, scheduler.secondsUntilNextRefresh(marketTime(2024, 6, 15, 12, 0)));
+
+		// Closed but never past the start of pre-market
+		assertEquals(120, scheduler.secondsUntilNextRefresh(marketTime(2024, 6, 17, 3, 58)));
+	}
+
+	// Ensure the next session begins on the next trading day after a weekend or holiday
+	@Test
+	void nextSessionTest() {
+		assertEquals(marketTime(2024, 6, 17, 4, 0), RefreshScheduler.nextSessionChange(marketTime(2024, 6, 14, 21, 0)));
+		assertEquals(marketTime(2024, 7, 5, 4, 0), RefreshScheduler.nextSessionChange(marketTime(2024, 7, 3, 22, 0)));
+		assertEquals(marketTime(2024, 6, 14, 9, 30), RefreshScheduler.nextSessionChange(marketTime(2024, 6, 14, 5, 0)));
+	}
+
+}
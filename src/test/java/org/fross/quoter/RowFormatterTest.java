@@ -0,0 +1,71 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class RowFormatterTest {
+
+	// Ensure a row matches the String.format based row it replaced
+	@Test
+	void symbolRowTest() {
+		RowFormatter row = new RowFormatter();
+		long[] prices = { 12345600L, -25000L, -2000L, 12407500L, 12300000L, 13000000L, 10011000L, 51200L, 123400L };
+
+		row.reset().text("IBM", 8).price(prices[0], 8, false).price(prices[1], 8, true).percent(prices[2], 8, true, true);
+		row.price(prices[3], 9, false).price(prices[4], 9, false).price(prices[5], 9, false).price(prices[6], 9, false);
+		row.percent(prices[7], 10, true, false).percent(prices[8], 10, true, false);
+
+		String expected = String.format("%-8s", "IBM") + String.format("%,8.2f", 1234.56) + String.format("%+,8.2f", -2.5)
+				+ String.format("%+,7.2f%%", -0.2) + String.format("%,9.2f", 1240.75) + String.format("%,9.2f", 1230.0)
+				+ String.format("%,9.2f", 1300.0) + String.format("%,9.2f", 1001.1) + String.format("%+9.2f%%", 5.12)
+				+ String.format("%+9.2f%%", 12.34);
+
+		assertEquals(expected, row.toString());
+		assertEquals(expected.length(), row.length());
+	}
+
+	// Ensure the buffer is reused, grows when needed, and shows missing values as '-'
+	@Test
+	void reuseTest() {
+		RowFormatter row = new RowFormatter(4);
+
+		row.reset().text("A long name that will not fit", 5).price(Price.MISSING, 8, false);
+		assertEquals("A long name that will not fit       -", row.toString());
+
+		row.reset().percent(Price.MISSING, 6, true, false).text("X", 3);
+		assertEquals("     -X  ", row.toString());
+
+		for (int i = 0; i < 50; i++) {
+			row.price(-391234567800L, 20, true);
+		}
+		assertEquals(9 + 50 * 20, row.length());
+	}
+
+}
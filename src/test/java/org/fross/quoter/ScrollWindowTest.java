@@ -0,0 +1,90 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class ScrollWindowTest {
+
+	// Ensure a window with no rows, or one larger than the list, shows every row
+	@Test
+	void showAllTest() {
+		ScrollWindow window = new ScrollWindow();
+		assertFalse(window.isScrollable(100));
+		assertEquals(0, window.getFirst(100));
+		assertEquals(100, window.getEnd(100));
+
+		window.setRows(20);
+		window.scroll(5, 10);
+		assertFalse(window.isScrollable(10));
+		assertEquals(0, window.getFirst(10));
+		assertEquals(10, window.getEnd(10));
+	}
+
+	// Ensure scrolling and paging move the window and it stays inside the list
+	@Test
+	void scrollTest() {
+		ScrollWindow window = new ScrollWindow();
+		window.setRows(10);
+		assertTrue(window.isScrollable(25));
+
+		window.page(1, 25);
+		assertEquals(10, window.getFirst(25));
+		assertEquals(20, window.getEnd(25));
+		assertTrue(window.contains(10, 25));
+		assertFalse(window.contains(20, 25));
+
+		window.page(1, 25);
+		assertEquals(15, window.getFirst(25));
+		assertEquals(25, window.getEnd(25));
+
+		window.scroll(-1, 25);
+		assertEquals(14, window.getFirst(25));
+
+		window.page(-5, 25);
+		assertEquals(0, window.getFirst(25));
+	}
+
+	// Ensure the window moves up when the list shrinks below it
+	@Test
+	void shrinkTest() {
+		ScrollWindow window = new ScrollWindow();
+		window.setRows(10);
+		window.page(5, 100);
+		assertEquals(50, window.getFirst(100));
+
+		assertEquals(2, window.getFirst(12));
+		assertEquals(12, window.getEnd(12));
+		assertEquals(0, window.getFirst(5));
+		assertEquals(5, window.getEnd(5));
+	}
+
+}
@@ -0,0 +1,84 @@
+/**************************************************************************************************************
+ * Quoter.jar
+ * 
+ * Quoter is a command line program that display stock quotes and index data.
+ * 
+ *  Copyright (c) 2019-2024 Michael Fross
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *   
+ ***************************************************************************************************************/
+package org.fross.quoter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class TrendChartTest {
+
+	// Ensure a long series is condensed to the width and the high and low reach the top and bottom rows
+	@Test
+	void downsampleTest() {
+		PriceSeries series = new PriceSeries();
+		for (int i = 0; i < 1000; i++) {
+			long value = 1000000L + (i % 50) * 1000L;
+			series.add(i, value, value + 500L, value - 500L, value, 0);
+		}
+		series.add(1000, 0, 5000000L, 900000L, 2000000L, 0);
+
+		TrendChart chart = new TrendChart(series, 40, 6);
+		assertEquals(40, chart.getColumns());
+		assertEquals(6, chart.getRows());
+		assertEquals(5000000L, chart.getHigh());
+		assertEquals(900000L, chart.getLow());
+
+		// Every column has at least one dot and the spike at the end is drawn from the top row to the bottom row
+		for (int column = 0; column < chart.getColumns(); column++) {
+			boolean drawn = false;
+			for (int row = 0; row < chart.getRows(); row++) {
+				drawn |= chart.getLine(row).charAt(column) != '\u2800';
+			}
+			assertTrue(drawn);
+		}
+		for (int row = 0; row < chart.getRows(); row++) {
+			assertTrue((chart.getLine(row).charAt(39) & 0x88) != 0);
+			assertEquals(40, chart.getLine(row).length());
+		}
+	}
+
+	// Ensure a short series uses one dot column per day and a flat series is drawn on the bottom row
+	@Test
+	void shortSeriesTest() {
+		PriceSeries series = new PriceSeries();
+		for (int i = 0; i < 7; i++) {
+			series.add(i, 100, 100, 100, 100, 0);
+		}
+
+		TrendChart chart = new TrendChart(series, 80, 3);
+		assertEquals(4, chart.getColumns());
+		assertEquals("\u2800\u2800\u2800\u2800", chart.getLine(0));
+		assertEquals("\u28c0\u28c0\u28c0\u2840", chart.getLine(2));
+
+		TrendChart empty = new TrendChart(new PriceSeries(), 80, 3);
+		assertEquals(Price.MISSING, empty.getHigh());
+		assertEquals(3, empty.getRows());
+	}
+
+}
@@ -30,7 +30,9 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
+import org.fross.quoter.XPathLookup.PageType;
 import org.junit.jupiter.api.Test;
 
 class XPathLookupTest {
@@ -100,4 +102,25 @@ class XPathLookupTest {
 
 	}
 
+	// Ensure every xPath has a precompiled version and the same one is returned on each lookup
+	@Test
+	void compiledTests() {
+		XPathLookup xPathLookup = new XPathLookup();
+
+		for (String key : xPathLookup.symbolClosed.keySet())
+			assertNotNull(XPathLookup.compiled(PageType.SYMBOL, false, key));
+
+		for (String key : xPathLookup.symbolOpen.keySet())
+			assertNotNull(XPathLookup.compiled(PageType.SYMBOL, true, key));
+
+		for (String key : xPathLookup.indexClosed.keySet())
+			assertNotNull(XPathLookup.compiled(PageType.INDEX, false, key));
+
+		for (String key : xPathLookup.indexOpen.keySet())
+			assertNotNull(XPathLookup.compiled(PageType.INDEX, true, key));
+
+		assertSame(XPathLookup.compiled(PageType.SYMBOL, true, "latestPrice"), XPathLookup.compiled(PageType.SYMBOL, true, "latestPrice"));
+		assertNull(XPathLookup.compiled(PageType.INDEX, false, "xxx"));
+	}
+
 }